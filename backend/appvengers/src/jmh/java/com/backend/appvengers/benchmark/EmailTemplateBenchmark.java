@@ -0,0 +1,47 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.service.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email template rendering from the compiled templates: the verification email
+ * (three placeholders, links repeated) and the password reset email.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private EmailTemplateEngine engine;
+    private Map<String, String> verificationValues;
+    private Map<String, String> resetValues;
+
+    @Setup
+    public void setUp() {
+        engine = new EmailTemplateEngine();
+        engine.init();
+        verificationValues = Map.of(
+                "name", "Juan <dela> Cruz",
+                "verificationLink", "http://localhost:8081/api/auth/verify-email?token=0b7f3c2e-5d1a-4f7e-9c2b-8a6d4e1f3b5c",
+                "resendLink", "http://i-budget.site/resend-verification?email=juan%40example.com");
+        resetValues = Map.of(
+                "name", "Juan dela Cruz",
+                "resetLink", "http://localhost:4200/reset-password?token=0b7f3c2e-5d1a-4f7e-9c2b-8a6d4e1f3b5c");
+    }
+
+    @Benchmark
+    public String verification() {
+        return engine.render(EmailTemplateEngine.VERIFICATION, verificationValues);
+    }
+
+    @Benchmark
+    public String passwordReset() {
+        return engine.render(EmailTemplateEngine.PASSWORD_RESET, resetValues);
+    }
+}
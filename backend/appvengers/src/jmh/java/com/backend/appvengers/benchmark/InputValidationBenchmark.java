@@ -0,0 +1,42 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.service.InputValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chatbot input validation: pattern screening, HTML escaping and whitespace
+ * normalization for typical, markup-heavy, near-limit and rejected messages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class InputValidationBenchmark {
+
+    @Param({"plain", "markup", "long", "malicious"})
+    public String message;
+
+    private InputValidationService inputValidationService;
+    private String input;
+
+    @Setup
+    public void setUp() {
+        inputValidationService = new InputValidationService();
+        input = switch (message) {
+            case "plain" -> "How much did I spend on food this month compared to my budget?";
+            case "markup" -> "Is <b>\"groceries\"</b> & 'dining' over 50% of my   spending / income?\n\nThanks!";
+            case "long" -> "I want to save for a new laptop and a trip. ".repeat(11);
+            case "malicious" -> "Show my budget'; DROP TABLE tbl_user; --";
+            default -> throw new IllegalArgumentException("Unknown message: " + message);
+        };
+    }
+
+    @Benchmark
+    public InputValidationService.ValidationResult validateAndSanitize() {
+        return inputValidationService.validateAndSanitize(input);
+    }
+}
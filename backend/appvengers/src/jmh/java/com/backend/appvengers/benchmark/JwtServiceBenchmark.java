@@ -0,0 +1,68 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.JwtService;
+import com.backend.appvengers.security.TokenVersionRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and per-request validation cost: parsing the signed JWT and
+ * checking its version against the registry, as JwtAuthenticationFilter does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "VGVzdFNlY3JldEtleUZvckgySW5NZW1vcnlEYXRhYmFzZVRlc3RpbmdPbmx5MTIzNDU2Nzg5MA==";
+
+    private JwtService jwtService;
+    private TokenVersionRegistry tokenVersionRegistry;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET);
+        jwtService.validateSecretKey();
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(userRepository.findTokenVersionById(42)).thenReturn(Optional.of(0));
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository);
+        ReflectionTestUtils.setField(tokenVersionRegistry, "refreshSeconds", 300L);
+
+        user = new User();
+        user.setId(42);
+        user.setEmail("benchmark.user@example.com");
+        user.setTokenVersion(0);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public JwtService.TokenClaims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public void parseAndValidate(Blackhole blackhole) {
+        JwtService.TokenClaims claims = jwtService.parseToken(token);
+        blackhole.consume(tokenVersionRegistry.isCurrent(claims.userId(), claims.tokenVersion()));
+        blackhole.consume(claims.email());
+    }
+}
@@ -0,0 +1,88 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.dto.NotificationResponse;
+import com.backend.appvengers.entity.Notification;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification DTO mapping and JSON serialization, for a single WebSocket push
+ * and for a notification list response.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class NotificationSerializationBenchmark {
+
+    @Param({"50"})
+    public int listSize;
+
+    private ObjectWriter writer;
+    private Notification notification;
+    private NotificationResponse response;
+    private List<Notification> notifications;
+    private List<NotificationResponse> responses;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the application's ObjectMapper
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        notifications = new ArrayList<>(listSize);
+        responses = new ArrayList<>(listSize);
+        Notification.NotificationType[] types = Notification.NotificationType.values();
+        for (int i = 0; i < listSize; i++) {
+            Notification n = new Notification();
+            n.setNotificationId((long) i + 1);
+            n.setUserId(42);
+            n.setType(types[i % types.length]);
+            n.setUrgency(Notification.Urgency.values()[i % 3]);
+            n.setTitle("Budget Warning");
+            n.setMessage("You have used 85% of your Groceries budget (₱4,250.00 of ₱5,000.00).");
+            n.setReferenceId(100 + i);
+            n.setAmount(4250.0);
+            n.setCategory("Groceries");
+            n.setCreatedAt(LocalDateTime.of(2025, 3, 1, 9, 30).plusHours(i));
+            notifications.add(n);
+            responses.add(NotificationResponse.fromEntity(n, i % 2 == 0 ? "Emergency Fund" : null));
+        }
+        notification = notifications.get(0);
+        response = responses.get(0);
+    }
+
+    @Benchmark
+    public NotificationResponse mapEntity() {
+        return NotificationResponse.fromEntity(notification, "Emergency Fund");
+    }
+
+    @Benchmark
+    public byte[] serializeSingle() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(responses);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeList() throws JsonProcessingException {
+        List<NotificationResponse> mapped = new ArrayList<>(notifications.size());
+        for (Notification n : notifications) {
+            mapped.add(NotificationResponse.fromEntity(n, null));
+        }
+        return writer.writeValueAsBytes(mapped);
+    }
+}
@@ -0,0 +1,74 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.config.RateLimitConfig;
+import com.backend.appvengers.service.RateLimitService;
+import io.github.bucket4j.ConsumptionProbe;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chatbot rate limiting under contention: every thread hitting one user's
+ * bucket, threads spread across many users, a flood of distinct keys
+ * against the store's size cap, and the disabled fast path.
+ * The limit is set high enough that buckets never run dry mid-measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@Threads(8)
+@State(Scope.Benchmark)
+public class RateLimitBenchmark {
+
+    private static final int USER_COUNT = 1024;
+
+    private RateLimitService enabledService;
+    private RateLimitService disabledService;
+    private String[] emails;
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+        int next = THREAD_IDS.getAndIncrement() * 131;
+    }
+
+    @Setup
+    public void setUp() {
+        RateLimitConfig enabled = new RateLimitConfig();
+        enabled.setRequestsPerMinute(Integer.MAX_VALUE);
+        enabledService = new RateLimitService(enabled);
+
+        RateLimitConfig disabled = new RateLimitConfig();
+        disabled.setEnabled(false);
+        disabledService = new RateLimitService(disabled);
+
+        emails = new String[USER_COUNT];
+        for (int i = 0; i < USER_COUNT; i++) {
+            emails[i] = "user" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public ConsumptionProbe sameUser() {
+        return enabledService.tryConsume(emails[0]);
+    }
+
+    @Benchmark
+    public ConsumptionProbe manyUsers(ThreadCursor cursor) {
+        String email = emails[cursor.next++ & (USER_COUNT - 1)];
+        return enabledService.tryConsume(email);
+    }
+
+    @Benchmark
+    public ConsumptionProbe keyFlood(ThreadCursor cursor) {
+        return enabledService.tryConsume("flood" + cursor.next++ + "@example.com");
+    }
+
+    @Benchmark
+    public ConsumptionProbe disabled() {
+        return disabledService.tryConsume(emails[0]);
+    }
+}
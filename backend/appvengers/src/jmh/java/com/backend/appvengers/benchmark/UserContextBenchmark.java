@@ -0,0 +1,153 @@
+package com.backend.appvengers.benchmark;
+
+import com.backend.appvengers.dto.BudgetWithCategoryResponse;
+import com.backend.appvengers.dto.TransactionResponse;
+import com.backend.appvengers.dto.UserFinancialContext;
+import com.backend.appvengers.entity.Saving;
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.BudgetRepository;
+import com.backend.appvengers.repository.SavingRepository;
+import com.backend.appvengers.repository.TransactionRepository;
+import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.service.BudgetUsageService;
+import com.backend.appvengers.service.UserContextService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Chatbot context assembly from already aggregated rows: the in-memory fold
+ * and DTO building only. The aggregation runs in the database (one row per
+ * type and category, and a fixed number of recent transactions), so the work
+ * measured here does not depend on the size of the transaction history, and
+ * the database round trips are not part of it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+@State(Scope.Benchmark)
+public class UserContextBenchmark {
+
+    private static final String EMAIL = "benchmark.user@example.com";
+    private static final String[] EXPENSE_CATEGORIES = {
+            "Groceries", "Dining", "Transport", "Utilities", "Rent", "Shopping", "Health", "Entertainment"};
+    private static final String[] INCOME_CATEGORIES = {"Salary", "Freelance", "Allowance"};
+
+    private UserContextService userContextService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        User user = new User();
+        user.setId(42);
+        user.setUsername("benchmark");
+        user.setEmail(EMAIL);
+
+        // One row per type and category, as the GROUP BY query returns them
+        List<Object[]> categoryTotals = new ArrayList<>();
+        for (String category : EXPENSE_CATEGORIES) {
+            categoryTotals.add(new Object[] {"EXPENSE", category, BigDecimal.valueOf(50 + random.nextInt(50000))});
+        }
+        for (String category : INCOME_CATEGORIES) {
+            categoryTotals.add(new Object[] {"INCOME", category, BigDecimal.valueOf(50 + random.nextInt(50000))});
+        }
+
+        List<TransactionResponse> recent = new ArrayList<>();
+        LocalDate latest = LocalDate.of(2025, 6, 30);
+        for (int i = 0; i < 10; i++) {
+            recent.add(new TransactionResponse(1000L - i, BigDecimal.valueOf(50 + random.nextInt(5000)),
+                    1, EXPENSE_CATEGORIES[i % EXPENSE_CATEGORIES.length], "expense",
+                    "Transaction " + i, latest.minusDays(i)));
+        }
+
+        List<BudgetWithCategoryResponse> budgets = new ArrayList<>();
+        Map<Integer, Double> spentTotals = new HashMap<>();
+        for (int i = 0; i < EXPENSE_CATEGORIES.length; i++) {
+            budgets.add(new BudgetRow(i + 1, EXPENSE_CATEGORIES[i], 5000 + i * 500));
+            spentTotals.put(i + 1, 1000.0 + i * 250);
+        }
+
+        List<Saving> savings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Saving saving = new Saving();
+            saving.setSavingId(i + 1);
+            saving.setUserId(42);
+            saving.setName("Goal " + i);
+            saving.setTargetAmount(10000 * (i + 1));
+            saving.setCurrentAmount(2500 * (i + 1));
+            saving.setGoalDate(LocalDate.of(2026, 12, 31));
+            savings.add(saving);
+        }
+
+        UserRepository userRepository = stub(UserRepository.class);
+        TransactionRepository transactionRepository = stub(TransactionRepository.class);
+        BudgetRepository budgetRepository = stub(BudgetRepository.class);
+        SavingRepository savingRepository = stub(SavingRepository.class);
+        BudgetUsageService budgetUsageService = stub(BudgetUsageService.class);
+
+        Mockito.when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(user));
+        Mockito.when(transactionRepository.sumByTypeAndCategoryName(anyInt())).thenReturn(categoryTotals);
+        Mockito.when(transactionRepository.findRecentForUser(anyInt(), any())).thenReturn(recent);
+        Mockito.when(budgetRepository.findBudgetsWithCategoryByUserId(anyInt())).thenReturn(budgets);
+        Mockito.when(budgetUsageService.getSpentTotals(any())).thenReturn(spentTotals);
+        Mockito.when(savingRepository.findActiveSavingsByUserId(anyInt())).thenReturn(savings);
+
+        userContextService = new UserContextService(
+                userRepository, transactionRepository, budgetRepository, savingRepository, budgetUsageService);
+    }
+
+    @Benchmark
+    public UserFinancialContext buildUserContext() {
+        return userContextService.buildUserContext(EMAIL);
+    }
+
+    private static <T> T stub(Class<T> type) {
+        // stubOnly: no invocation recording, so long runs do not accumulate garbage
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+
+    private record BudgetRow(Integer getBudgetId, String getCategoryName, Integer getLimitAmount)
+            implements BudgetWithCategoryResponse {
+
+        @Override
+        public Integer getUserId() {
+            return 42;
+        }
+
+        @Override
+        public Integer getCategoryId() {
+            return getBudgetId;
+        }
+
+        @Override
+        public String getStartDate() {
+            return "2025-01-01";
+        }
+
+        @Override
+        public String getEndDate() {
+            return "2025-12-31";
+        }
+
+        @Override
+        public String getName() {
+            return getCategoryName;
+        }
+    }
+}
@@ -25,7 +25,7 @@ public class RateLimitConfig {
     private int requestsPerMinute = 10;
     
     /**
-     * Interval in minutes for cleaning up expired rate limit buckets.
+     * Minutes a rate limit bucket may stay idle before cleanup evicts it.
      * Default: 60 minutes (1 hour)
      */
     private int cleanupIntervalMinutes = 60;
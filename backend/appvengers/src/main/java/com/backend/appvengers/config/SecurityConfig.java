@@ -4,6 +4,7 @@ import com.backend.appvengers.security.CustomOAuth2UserService;
 import com.backend.appvengers.security.JwtAuthenticationFilter;
 import com.backend.appvengers.security.OAuth2AuthenticationSuccessHandler;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -45,6 +46,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches (streamed responses) continue an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/ws-notifications/**").permitAll() // WebSocket endpoint
                         .requestMatchers("/api/auth/change-password").authenticated()
                         .requestMatchers("/api/auth/**").permitAll()
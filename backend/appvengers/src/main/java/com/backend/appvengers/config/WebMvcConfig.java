@@ -20,8 +20,8 @@ public class WebMvcConfig implements WebMvcConfigurer {
     
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Apply rate limiting only to chatbot message endpoint
+        // Apply rate limiting only to chatbot message endpoints
         registry.addInterceptor(rateLimitInterceptor)
-                .addPathPatterns("/api/chatbot/message");
+                .addPathPatterns("/api/chatbot/message", "/api/chatbot/stream", "/api/chatbot/stream/sse");
     }
 }
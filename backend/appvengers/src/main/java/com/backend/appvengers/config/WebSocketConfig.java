@@ -1,20 +1,29 @@
 package com.backend.appvengers.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+import com.backend.appvengers.security.StompAuthChannelInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
 /**
  * WebSocket configuration for real-time notifications.
  * Uses STOMP protocol over WebSocket with SockJS fallback.
+ * Sessions authenticate with a JWT in the CONNECT frame (see {@link StompAuthChannelInterceptor}).
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple in-memory message broker for broadcasting to subscribers
@@ -38,6 +47,12 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS(); // Enable SockJS fallback for browsers that don't support WebSocket
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Authenticate CONNECT and keep SUBSCRIBE to /topic/user/{id}/... for that user only
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
     @Override
     public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
         // Configure message size limits and timeouts
@@ -0,0 +1,73 @@
+package com.backend.appvengers.controller;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.appvengers.dto.ApiResponse;
+import com.backend.appvengers.service.ChatbotContextCache;
+import com.backend.appvengers.service.ChatbotDispatcher;
+import com.backend.appvengers.service.ChatbotResponseCache;
+import com.backend.appvengers.service.ChatbotService;
+import com.backend.appvengers.service.EmailOutboxService;
+import com.backend.appvengers.service.WebhookHealthTracker;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Operational endpoints, restricted to the users listed in {@code admin.emails}.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final WebhookHealthTracker webhookHealthTracker;
+    private final ChatbotService chatbotService;
+    private final ChatbotDispatcher chatbotDispatcher;
+    private final ChatbotContextCache chatbotContextCache;
+    private final ChatbotResponseCache chatbotResponseCache;
+    private final EmailOutboxService emailOutboxService;
+
+    @Value("${admin.emails:}")
+    private String adminEmails;
+
+    /**
+     * Chatbot health (webhook circuit states, dispatcher load, cache and coalescing
+     * statistics) and email outbox delivery.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse> getMetrics(Authentication auth) {
+        if (!isAdmin(auth)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse(false, "Admin access required"));
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("webhooks", webhookHealthTracker.snapshot());
+        metrics.put("dispatcher", chatbotDispatcher.getStats());
+        metrics.put("contextCache", chatbotContextCache.getStats());
+        metrics.put("responseCache", chatbotResponseCache.getStats());
+        metrics.put("coalescedCalls", chatbotService.getCoalescedCalls());
+        metrics.put("emailOutbox", emailOutboxService.getStats());
+        return ResponseEntity.ok(new ApiResponse(true, "Chatbot metrics", metrics));
+    }
+
+    private boolean isAdmin(Authentication auth) {
+        if (auth == null || adminEmails == null || adminEmails.isBlank()) {
+            return false;
+        }
+        String email = auth.getName();
+        return Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .anyMatch(email::equalsIgnoreCase);
+    }
+}
@@ -15,9 +15,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.appvengers.dto.BudgetWithCategoryResponse;
 import com.backend.appvengers.entity.Budget;
-import com.backend.appvengers.entity.User;
 import com.backend.appvengers.repository.BudgetRepository;
-import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.UserChangeTracker;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import lombok.RequiredArgsConstructor;
@@ -28,13 +28,12 @@ import lombok.RequiredArgsConstructor;
 public class BudgetController {
   
   private final BudgetRepository budgetRepository;
-  private final UserRepository userRepository;
+  private final UserIdentityCache userIdentityCache;
+  private final UserChangeTracker userChangeTracker;
 
   private int currentUserId(Authentication auth) {
     String email = auth.getName();
-    User user = userRepository.findByEmail(email)
-        .orElseThrow(() -> new RuntimeException("User not found"));
-    return user.getId();
+    return userIdentityCache.requireUserId(email);
   }
 
   // Get all active budgets for current user
@@ -49,7 +48,9 @@ public class BudgetController {
   public Budget createBudget(@RequestBody Budget budget, Authentication auth) {
     int userId = currentUserId(auth);
     budget.setUserId(userId);
-    return budgetRepository.save(budget);
+    Budget saved = budgetRepository.save(budget);
+    userChangeTracker.markChanged(userId);
+    return saved;
   }
 
   // Get Budget By ID (must belong to current user)
@@ -82,6 +83,7 @@ public class BudgetController {
     existingBudget.setEndDate(budget.getEndDate()); 
 
     Budget updatedBudget = budgetRepository.save(existingBudget);
+    userChangeTracker.markChanged(userId);
     return ResponseEntity.ok(updatedBudget);
   }
 
@@ -97,6 +99,7 @@ public class BudgetController {
 
     existingBudget.setDeletedAt(java.time.LocalDateTime.now());
     budgetRepository.save(existingBudget);
+    userChangeTracker.markChanged(userId);
     return ResponseEntity.noContent().build();
   }
 
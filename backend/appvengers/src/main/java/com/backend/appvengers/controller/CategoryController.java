@@ -9,9 +9,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.backend.appvengers.entity.Category;
-import com.backend.appvengers.entity.User;
 import com.backend.appvengers.repository.CategoryRepository;
-import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.CategoryService;
 import com.backend.appvengers.dto.CategoryWithCountResponse;
 import org.springframework.lang.NonNull;
 
@@ -24,13 +24,14 @@ public class CategoryController {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private CategoryService categoryService;
 
     private int currentUserId(Authentication auth) {
         String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        return userIdentityCache.requireUserId(email);
     }
 
     // Get all categories for current user, including how many times each is referenced
@@ -122,9 +123,6 @@ public class CategoryController {
             );
         }
 
-        category.setName(updatedCategory.getName());
-        category.setType(updatedCategory.getType());
-
-        return categoryRepository.save(category);
+        return categoryService.updateCategory(category, updatedCategory.getName(), updatedCategory.getType());
     }
 }
\ No newline at end of file
@@ -1,18 +1,33 @@
 package com.backend.appvengers.controller;
 
 import com.backend.appvengers.dto.ChatbotMessageRequest;
+import com.backend.appvengers.dto.ChatbotStreamEvent;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.ChatbotDispatcher;
+import com.backend.appvengers.service.ChatbotResponseCache;
 import com.backend.appvengers.service.ChatbotService;
 import com.backend.appvengers.service.InputValidationService;
 import com.backend.appvengers.service.InputValidationService.ValidationResult;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller for chatbot API endpoints.
@@ -20,6 +35,11 @@ import java.util.Map;
  * 
  * Rate limiting is applied via RateLimitInterceptor (10 requests/minute per user).
  * Input validation is applied via Bean Validation and InputValidationService.
+ * In async mode (chatbot.async.enabled, default on) the n8n call runs on the
+ * ChatbotDispatcher and the request thread is released while it is in flight.
+ * The streaming endpoints relay the answer chunk by chunk over STOMP or SSE.
+ * Answers to repeated questions are served from ChatbotResponseCache while the
+ * user's data is unchanged.
  */
 @Slf4j
 @RestController
@@ -29,6 +49,16 @@ public class ChatbotController {
 
     private final ChatbotService chatbotService;
     private final InputValidationService inputValidationService;
+    private final ChatbotDispatcher chatbotDispatcher;
+    private final ChatbotResponseCache chatbotResponseCache;
+    private final ChatbotWebSocketController chatbotWebSocketController;
+    private final UserIdentityCache userIdentityCache;
+
+    @Value("${chatbot.async.enabled:true}")
+    private boolean asyncEnabled;
+
+    @Value("${chatbot.stream.sse-timeout-ms:180000}")
+    private long sseTimeoutMs;
 
     /**
      * Send a message to the AI chatbot.
@@ -44,15 +74,158 @@ public class ChatbotController {
      * @param bindingResult Validation result from Bean Validation
      * @param auth Authentication object containing the user's email
      * @param authHeader Authorization header containing the JWT token
-     * @return AI chatbot response with personalized insights
+     * @return AI chatbot response with personalized insights (503 with Retry-After if the chatbot
+     *         queue is full or the request timed out waiting in it)
      */
     @PostMapping("/message")
-    public ResponseEntity<Object> sendMessage(
+    public CompletableFuture<ResponseEntity<Object>> sendMessage(
             @Valid @RequestBody ChatbotMessageRequest request,
             BindingResult bindingResult,
             Authentication auth,
             @RequestHeader("Authorization") String authHeader) {
         
+        Validated validated = validate(request, bindingResult, auth);
+        if (validated.rejection() != null) {
+            return CompletableFuture.completedFuture(validated.rejection());
+        }
+        String sanitizedMessage = validated.message();
+
+        // Get the authenticated user's email
+        String userEmail = auth.getName();
+        
+        // Get the session ID for conversation continuity
+        String sessionId = request.getSessionId();
+        
+        // Extract JWT token from Authorization header
+        String jwtToken = extractJwt(authHeader);
+
+        log.debug("Processing chatbot request for user: {}, message length: {}", 
+                userEmail, sanitizedMessage.length());
+
+        // Answer repeated questions against unchanged data from the cache
+        Optional<ChatbotResponseCache.Key> cacheKey = chatbotResponseCache.keyFor(userEmail, sessionId, sanitizedMessage);
+        Object cached = cacheKey.map(chatbotResponseCache::get).orElse(null);
+        if (cached != null) {
+            log.debug("Answering chatbot request for user {} from cache", userEmail);
+            return CompletableFuture.completedFuture(ResponseEntity.ok(cached));
+        }
+
+        // Send message with user context, session ID, and JWT for personalized AI responses
+        if (!asyncEnabled) {
+            Object response = chatbotService.sendMessage(sanitizedMessage, userEmail, sessionId, jwtToken);
+            cacheKey.ifPresent(key -> chatbotResponseCache.put(key, response));
+            return CompletableFuture.completedFuture(ResponseEntity.ok(response));
+        }
+
+        Optional<CompletableFuture<Object>> pending =
+                chatbotDispatcher.trySubmit(sanitizedMessage, userEmail, sessionId, jwtToken);
+        if (pending.isEmpty()) {
+            return CompletableFuture.completedFuture(busy());
+        }
+        return pending.get().handle((response, error) -> {
+            if (error != null) {
+                if (isBusy(error)) {
+                    return busy();
+                }
+                throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+            }
+            cacheKey.ifPresent(key -> chatbotResponseCache.put(key, response));
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Send a message to the AI chatbot and stream the answer over WebSocket.
+     * Returns immediately with the stream ID; the answer arrives as
+     * {@link ChatbotStreamEvent}s on /topic/user/{userId}/chatbot, chunk by chunk
+     * as n8n generates it, followed by a "done" event with the full answer
+     * (or an "error" event).
+     *
+     * Same validation and rate limiting as {@link #sendMessage}.
+     *
+     * @return 202 with the stream ID and destination (503 if the chatbot queue is full)
+     */
+    @PostMapping("/stream")
+    public ResponseEntity<Object> streamMessage(
+            @Valid @RequestBody ChatbotMessageRequest request,
+            BindingResult bindingResult,
+            Authentication auth,
+            @RequestHeader("Authorization") String authHeader) {
+
+        Validated validated = validate(request, bindingResult, auth);
+        if (validated.rejection() != null) {
+            return validated.rejection();
+        }
+
+        String userEmail = auth.getName();
+        int userId = userIdentityCache.requireUserId(userEmail);
+        String streamId = UUID.randomUUID().toString();
+        AtomicInteger sequence = new AtomicInteger();
+
+        Optional<CompletableFuture<Object>> pending = chatbotDispatcher.trySubmitStream(
+                validated.message(), userEmail, request.getSessionId(), extractJwt(authHeader),
+                chunk -> chatbotWebSocketController.sendStreamEvent(userId,
+                        new ChatbotStreamEvent(streamId, sequence.getAndIncrement(), "chunk", chunk)));
+        if (pending.isEmpty()) {
+            return busy();
+        }
+
+        pending.get().whenComplete((response, error) -> chatbotWebSocketController.sendStreamEvent(userId,
+                finalEvent(streamId, sequence.getAndIncrement(), response, error)));
+
+        log.debug("Streaming chatbot answer {} to user {}", streamId, userId);
+        return ResponseEntity.accepted().body(Map.of(
+                "streamId", streamId,
+                "destination", ChatbotWebSocketController.destination(userId)));
+    }
+
+    /**
+     * Send a message to the AI chatbot and stream the answer as Server-Sent Events.
+     * Emits "chunk" events as n8n generates the answer and ends with a "done" or
+     * "error" event; each event's data is a {@link ChatbotStreamEvent}. Validation
+     * errors and a full queue are reported as a single "error" event.
+     */
+    @PostMapping(value = "/stream/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessageSse(
+            @Valid @RequestBody ChatbotMessageRequest request,
+            BindingResult bindingResult,
+            Authentication auth,
+            @RequestHeader("Authorization") String authHeader) {
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        String streamId = UUID.randomUUID().toString();
+        AtomicInteger sequence = new AtomicInteger();
+
+        Validated validated = validate(request, bindingResult, auth);
+        if (validated.rejection() != null) {
+            Object body = validated.rejection().getBody();
+            sendSse(emitter, finalEvent(streamId, 0, body, null));
+            emitter.complete();
+            return emitter;
+        }
+
+        Optional<CompletableFuture<Object>> pending = chatbotDispatcher.trySubmitStream(
+                validated.message(), auth.getName(), request.getSessionId(), extractJwt(authHeader),
+                chunk -> sendSse(emitter, new ChatbotStreamEvent(streamId, sequence.getAndIncrement(), "chunk", chunk)));
+        if (pending.isEmpty()) {
+            sendSse(emitter, finalEvent(streamId, 0, ChatbotDispatcher.busyResponse(), null));
+            emitter.complete();
+            return emitter;
+        }
+
+        pending.get().whenComplete((response, error) -> {
+            sendSse(emitter, finalEvent(streamId, sequence.getAndIncrement(), response, error));
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    private record Validated(String message, ResponseEntity<Object> rejection) {}
+
+    /**
+     * Apply Bean Validation results and input sanitization to a chatbot request.
+     */
+    private Validated validate(ChatbotMessageRequest request, BindingResult bindingResult, Authentication auth) {
         // Handle Bean Validation errors
         if (bindingResult.hasErrors()) {
             String errorMessage = bindingResult.getFieldErrors().stream()
@@ -62,10 +235,10 @@ public class ChatbotController {
             
             log.warn("Validation error for user {}: {}", auth.getName(), errorMessage);
             
-            return ResponseEntity.badRequest().body(Map.of(
+            return new Validated(null, ResponseEntity.badRequest().body(Map.of(
                 "error", "Validation failed",
                 "output", errorMessage
-            ));
+            )));
         }
         
         // Apply additional input validation and sanitization
@@ -74,32 +247,63 @@ public class ChatbotController {
         if (!validationResult.isValid()) {
             log.warn("Input validation failed for user {}: {}", auth.getName(), validationResult.getErrorMessage());
             
-            return ResponseEntity.badRequest().body(Map.of(
+            return new Validated(null, ResponseEntity.badRequest().body(Map.of(
                 "error", "Invalid input",
                 "output", validationResult.getErrorMessage()
-            ));
+            )));
         }
         
         // Use the sanitized message
-        String sanitizedMessage = validationResult.getSanitizedInput();
+        return new Validated(validationResult.getSanitizedInput(), null);
+    }
 
-        // Get the authenticated user's email
-        String userEmail = auth.getName();
-        
-        // Get the session ID for conversation continuity
-        String sessionId = request.getSessionId();
-        
-        // Extract JWT token from Authorization header
-        String jwtToken = null;
+    /**
+     * 503 telling the client when to retry, for a full queue or a queue wait that timed out.
+     */
+    private static ResponseEntity<Object> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ChatbotDispatcher.RETRY_AFTER_SECONDS))
+                .body(ChatbotDispatcher.busyResponse());
+    }
+
+    private static boolean isBusy(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof ChatbotDispatcher.BusyException;
+    }
+
+    private static String extractJwt(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwtToken = authHeader.substring(7);
+            return authHeader.substring(7);
         }
+        return null;
+    }
 
-        log.debug("Processing chatbot request for user: {}, message length: {}", 
-                userEmail, sanitizedMessage.length());
+    /**
+     * Last event of a stream: "done" with the full answer, or "error" with the message to show.
+     */
+    private static ChatbotStreamEvent finalEvent(String streamId, int sequence, Object response, Throwable error) {
+        if (error != null && isBusy(error)) {
+            return finalEvent(streamId, sequence, ChatbotDispatcher.busyResponse(), null);
+        }
+        if (error != null) {
+            log.error("Chatbot stream {} failed: {}", streamId, error.getMessage());
+            return new ChatbotStreamEvent(streamId, sequence, "error",
+                    "Sorry, I'm experiencing technical difficulties. Please try again in a few moments.");
+        }
+        if (response instanceof Map<?, ?> map) {
+            Object output = map.get("output");
+            return new ChatbotStreamEvent(streamId, sequence, map.containsKey("error") ? "error" : "done",
+                    output != null ? output.toString() : null);
+        }
+        return new ChatbotStreamEvent(streamId, sequence, "done", response != null ? response.toString() : null);
+    }
 
-        // Send message with user context, session ID, and JWT for personalized AI responses
-        Object response = chatbotService.sendMessage(sanitizedMessage, userEmail, sessionId, jwtToken);
-        return ResponseEntity.ok(response);
+    private static void sendSse(SseEmitter emitter, ChatbotStreamEvent event) {
+        try {
+            emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the rest of the answer is dropped
+            log.debug("Could not send chatbot stream event {}: {}", event.getStreamId(), e.getMessage());
+        }
     }
 }
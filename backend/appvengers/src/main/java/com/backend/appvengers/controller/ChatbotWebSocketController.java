@@ -0,0 +1,41 @@
+package com.backend.appvengers.controller;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import com.backend.appvengers.dto.ChatbotStreamEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * WebSocket controller for relaying streamed chatbot answers to users.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class ChatbotWebSocketController {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Destination a user subscribes to for streamed chatbot answers.
+     * Uses the /topic/user/{userId} prefix like notifications; only that user's
+     * authenticated session may subscribe to it.
+     */
+    public static String destination(int userId) {
+        return "/topic/user/" + userId + "/chatbot";
+    }
+
+    /**
+     * Send one stream event to a specific user.
+     *
+     * @param userId The target user's ID
+     * @param event The chunk or final event
+     */
+    public void sendStreamEvent(int userId, ChatbotStreamEvent event) {
+        log.debug("Sending chatbot {} #{} of stream {} to user {}",
+                event.getType(), event.getSequence(), event.getStreamId(), userId);
+        messagingTemplate.convertAndSend(destination(userId), event);
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.appvengers.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.backend.appvengers.dto.ApiResponse;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.ExportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulk export of the current user's data.
+ * GET /api/export/{dataset}?format=ndjson|csv where dataset is one of
+ * transactions, budgets, savings or saving-transactions.
+ */
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+  private final ExportService exportService;
+  private final UserIdentityCache userIdentityCache;
+
+  @Value("${export.timeout-ms:600000}")
+  private long exportTimeoutMs;
+
+  private int currentUserId(Authentication auth) {
+    String email = auth.getName();
+    return userIdentityCache.requireUserId(email);
+  }
+
+  @GetMapping("/{dataset}")
+  public ResponseEntity<?> export(
+      @PathVariable String dataset,
+      @RequestParam(defaultValue = "ndjson") String format,
+      Authentication auth,
+      HttpServletRequest request) {
+    ExportService.Dataset exportDataset;
+    ExportService.Format exportFormat;
+    try {
+      exportDataset = ExportService.Dataset.fromPath(dataset);
+      exportFormat = ExportService.Format.fromParam(format);
+    } catch (RuntimeException e) {
+      return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage()));
+    }
+
+    int userId = currentUserId(auth);
+    // Rows are written straight to the response on an async thread as they are read.
+    // Large exports outlive the default async timeout, so give this request its own.
+    AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+    if (asyncWebRequest != null) {
+      asyncWebRequest.setTimeout(exportTimeoutMs);
+    }
+    StreamingResponseBody body = out -> exportService.export(userId, exportDataset, exportFormat, out);
+
+    String filename = exportDataset.getPath() + "." + exportFormat.getExtension();
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+        .body(body);
+  }
+}
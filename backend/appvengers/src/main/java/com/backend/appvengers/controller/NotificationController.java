@@ -13,8 +13,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.backend.appvengers.dto.NotificationResponse;
-import com.backend.appvengers.entity.User;
-import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.UserIdentityCache;
 import com.backend.appvengers.service.NotificationService;
 
 import lombok.RequiredArgsConstructor;
@@ -25,16 +24,14 @@ import lombok.RequiredArgsConstructor;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     /**
      * Get the current user's ID from authentication.
      */
     private int currentUserId(Authentication auth) {
         String email = auth.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        return userIdentityCache.requireUserId(email);
     }
 
     /**
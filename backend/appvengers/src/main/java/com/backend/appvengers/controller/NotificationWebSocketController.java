@@ -1,5 +1,8 @@
 package com.backend.appvengers.controller;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
@@ -36,6 +39,22 @@ public class NotificationWebSocketController {
         messagingTemplate.convertAndSend(destination, notification);
     }
 
+    /**
+     * Send a batch of notifications with one message per user: each user's
+     * destination receives a JSON array of their notifications.
+     *
+     * @param notificationsByUser Notifications to send, by target user ID
+     */
+    public void sendNotificationsToUsers(Map<Integer, List<NotificationResponse>> notificationsByUser) {
+        int sent = 0;
+        for (Map.Entry<Integer, List<NotificationResponse>> entry : notificationsByUser.entrySet()) {
+            String destination = "/topic/user/" + entry.getKey() + "/notifications";
+            messagingTemplate.convertAndSend(destination, entry.getValue());
+            sent += entry.getValue().size();
+        }
+        log.info("📬 Sent {} WebSocket notifications in {} messages", sent, notificationsByUser.size());
+    }
+
     /**
      * Broadcast a notification to all connected users.
      * Users subscribe to /topic/notifications to receive broadcasts.
@@ -16,10 +16,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.backend.appvengers.dto.ApiResponse;
 import com.backend.appvengers.dto.SavingTransaction;
 import com.backend.appvengers.entity.Saving;
-import com.backend.appvengers.entity.User;
 import com.backend.appvengers.repository.SavingRepository;
-import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.UserIdentityCache;
 import com.backend.appvengers.service.SavingService;
+import com.backend.appvengers.service.UserChangeTracker;
 import org.springframework.lang.NonNull;
 
 import lombok.RequiredArgsConstructor;
@@ -30,14 +30,13 @@ import lombok.RequiredArgsConstructor;
 public class SavingController {
 
   private final SavingRepository savingRepository;
-  private final UserRepository userRepository;
+  private final UserIdentityCache userIdentityCache;
   private final SavingService savingService;
+  private final UserChangeTracker userChangeTracker;
 
   private int currentUserId(Authentication auth) {
     String email = auth.getName();
-    User user = userRepository.findByEmail(email)
-        .orElseThrow(() -> new RuntimeException("User not found"));
-    return user.getId();
+    return userIdentityCache.requireUserId(email);
   }
 
   // Working Endpoint: Get all active savings for current user
@@ -65,7 +64,9 @@ public class SavingController {
   public Saving createSaving(@RequestBody Saving saving, Authentication auth) {
     int userId = currentUserId(auth);
     saving.setUserId(userId);
-    return savingRepository.save(saving);
+    Saving saved = savingRepository.save(saving);
+    userChangeTracker.markChanged(userId);
+    return saved;
   }
 
   // Working Endpoint: Update Saving
@@ -92,7 +93,9 @@ public class SavingController {
     }
     saving.setHeaderColor(headerColor);
     
-    return savingRepository.save(saving);
+    Saving updated = savingRepository.save(saving);
+    userChangeTracker.markChanged(userId);
+    return updated;
   }
 
   // Working Endpoint: Soft Delete Saving
@@ -107,6 +110,7 @@ public class SavingController {
 
     // Soft delete the saving if found
     savingRepository.delete(saving);
+    userChangeTracker.markChanged(userId);
     return ResponseEntity.noContent().build();
   }
 
@@ -136,6 +140,7 @@ public class SavingController {
     }
 
     savingService.refreshCurrentAmount(savingId);
+    userChangeTracker.markChanged(userId);
     return ResponseEntity.ok(new ApiResponse(true, "Current amount refreshed successfully"));
   }
 }
\ No newline at end of file
@@ -9,8 +9,10 @@ import com.backend.appvengers.entity.User;
 import com.backend.appvengers.repository.SavingRepository;
 import com.backend.appvengers.repository.TransactionRepository;
 import com.backend.appvengers.repository.UserRepository;
+import com.backend.appvengers.security.UserIdentityCache;
 import com.backend.appvengers.service.NotificationService;
 import com.backend.appvengers.service.SavingService;
+import com.backend.appvengers.service.UserChangeTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,14 +36,14 @@ public class SavingTransactionController {
   private final SavingRepository savingRepository;
   private final TransactionRepository transactionRepository;
   private final UserRepository userRepository;
+  private final UserIdentityCache userIdentityCache;
   private final SavingService savingService;
   private final NotificationService notificationService;
+  private final UserChangeTracker userChangeTracker;
 
   private int currentUserId(Authentication auth) {
     String email = auth.getName();
-    User user = userRepository.findByEmail(email)
-        .orElseThrow(() -> new RuntimeException("User not found"));
-    return user.getId();
+    return userIdentityCache.requireUserId(email);
   }
 
   // DONE: Add saving transaction
@@ -69,6 +71,7 @@ public class SavingTransactionController {
     // Map category and type for general Transaction entity
     
     Transaction saved = transactionRepository.save(t);
+    userChangeTracker.markChanged(userId);
     
     // Update the saving's current amount and check for milestones/completion
     try {
@@ -157,6 +160,7 @@ public class SavingTransactionController {
     transaction.setSavingsAction(req.getSavingsAction());
     transaction.setTransactionDate(req.getTransactionDate());
     Transaction updated = transactionRepository.save(transaction);
+    userChangeTracker.markChanged(userId);
     
     // Update the saving's current amount and check for milestones/completion
     try {
@@ -207,6 +211,7 @@ public class SavingTransactionController {
     // Soft delete by setting deletedAt
     transaction.setDeletedAt(java.time.LocalDate.now());
     transactionRepository.save(transaction);
+    userChangeTracker.markChanged(userId);
     
     // Update the saving's current amount after delete
     try {
@@ -251,6 +256,7 @@ public class SavingTransactionController {
     }
     
     transactionRepository.saveAll(transactions);
+    userChangeTracker.markChanged(userId);
 
     // Refresh amounts
     for (Integer savingId : savingIdsToRefresh) {
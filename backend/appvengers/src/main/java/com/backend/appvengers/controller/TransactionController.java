@@ -9,11 +9,16 @@ import com.backend.appvengers.dto.IncomeSummary;
 import com.backend.appvengers.dto.MonthlyReportResponse;
 import com.backend.appvengers.entity.Transaction;
 import com.backend.appvengers.repository.TransactionRepository;
+import com.backend.appvengers.dto.TransactionImportResult;
+import com.backend.appvengers.dto.TransactionPageResponse;
 import com.backend.appvengers.dto.TransactionRequest;
 import com.backend.appvengers.dto.TransactionResponse;
 import com.backend.appvengers.dto.TransactionWithCategoryResponse;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.TransactionImportService;
 import com.backend.appvengers.service.TransactionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
@@ -21,6 +26,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.lang.NonNull;
 
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +40,8 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final TransactionRepository transactionRepository;
+    private final TransactionImportService transactionImportService;
+    private final UserIdentityCache userIdentityCache;
 
     @GetMapping
     public ResponseEntity<ApiResponse> list(Authentication auth) {
@@ -48,6 +58,26 @@ public class TransactionController {
         return ResponseEntity.ok(new ApiResponse(true, "Transactions with category fetched", txs));
     }
 
+    // Keyset-paginated listing with optional filters; pass data.nextCursor as cursor for the next page
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse> listPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) Integer budgetId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication auth) {
+        try {
+            TransactionPageResponse page = transactionService.findPageForUser(
+                auth.getName(), from, to, type, categoryId, budgetId, cursor, size);
+            return ResponseEntity.ok(new ApiResponse(true, "Transactions fetched", page));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse> create(@Valid @RequestBody TransactionRequest req,
                                               BindingResult bindingResult,
@@ -66,6 +96,24 @@ public class TransactionController {
         );
     }
 
+    // Bulk import: raw CSV (with header) or JSON body, parsed as it is read; see TransactionImportService
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse> importTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            InputStream body,
+            Authentication auth) throws IOException {
+        try {
+            TransactionImportService.Format importFormat = TransactionImportService.Format.fromParam(format);
+            int userId = userIdentityCache.requireUserId(auth.getName());
+            TransactionImportResult result = transactionImportService.importTransactions(userId, importFormat, body);
+            // A partial import still answers 200 with what was saved and what was not
+            return ResponseEntity.ok(new ApiResponse(result.failed() == 0 && result.errors().isEmpty(),
+                "Imported " + result.imported() + " of " + result.totalRows() + " transactions", result));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse(false, e.getMessage(), null));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse> update(@PathVariable Long id,
                                               @Valid @RequestBody TransactionRequest req,
@@ -0,0 +1,16 @@
+package com.backend.appvengers.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Flat budget row written by the data export (one NDJSON line / CSV row).
+ */
+public record BudgetExportRow(
+    int budgetId,
+    String name,
+    int categoryId,
+    String categoryName,
+    int limitAmount,
+    LocalDate startDate,
+    LocalDate endDate
+) {}
@@ -0,0 +1,11 @@
+package com.backend.appvengers.dto;
+
+// Projection for the batch budget threshold query: an in-window budget whose
+// spending crossed a threshold and has no matching notification yet
+public interface BudgetThresholdCandidate {
+  Integer getBudgetId();
+  Integer getUserId();
+  Integer getLimitAmount();
+  String getCategoryName();
+  Double getTotalSpent();
+}
@@ -0,0 +1,22 @@
+package com.backend.appvengers.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event of a streamed chatbot answer, sent over STOMP or SSE.
+ * A stream is a series of "chunk" events followed by one "done" or "error" event.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatbotStreamEvent {
+    private String streamId;
+    private int sequence; // Position in the stream, starting at 0
+    private String type; // chunk, done or error
+    private String content; // Chunk text, or the full answer / error message on the last event
+}
@@ -0,0 +1,15 @@
+package com.backend.appvengers.dto;
+
+import java.time.LocalDateTime;
+
+// Projection for the notification digest scan: one unread notification with its recipient
+public interface NotificationDigestRow {
+  Integer getUserId();
+  Long getNotificationId();
+  String getEmail();
+  String getUsername();
+  String getTitle();
+  String getMessage();
+  String getUrgency();
+  LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,12 @@
+package com.backend.appvengers.dto;
+
+import com.backend.appvengers.entity.Notification.NotificationType;
+import com.backend.appvengers.entity.Notification.Urgency;
+
+// Projection for notification deduplication: the fields that identify an existing notification
+public interface NotificationKeyRow {
+  Integer getUserId();
+  NotificationType getType();
+  Integer getReferenceId();
+  Urgency getUrgency();
+}
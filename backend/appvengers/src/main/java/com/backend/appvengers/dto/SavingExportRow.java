@@ -0,0 +1,18 @@
+package com.backend.appvengers.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat saving goal row written by the data export (one NDJSON line / CSV row).
+ */
+public record SavingExportRow(
+    int savingId,
+    String name,
+    LocalDate goalDate,
+    String frequency,
+    int targetAmount,
+    int currentAmount,
+    String description,
+    LocalDateTime createdAt
+) {}
@@ -0,0 +1,17 @@
+package com.backend.appvengers.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat saving transaction row written by the data export (one NDJSON line / CSV row).
+ */
+public record SavingTransactionExportRow(
+    Long id,
+    int savingId,
+    String savingName,
+    LocalDate transactionDate,
+    String savingsAction,
+    String description,
+    BigDecimal amount
+) {}
@@ -0,0 +1,19 @@
+package com.backend.appvengers.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat transaction row written by the data export (one NDJSON line / CSV row).
+ */
+public record TransactionExportRow(
+    Long id,
+    LocalDate transactionDate,
+    BigDecimal amount,
+    String description,
+    Integer categoryId,
+    String categoryName,
+    String categoryType,
+    Integer budgetId,
+    LocalDate createdAt
+) {}
@@ -0,0 +1,18 @@
+package com.backend.appvengers.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk transaction import.
+ * Row numbers are 1-based data rows (the CSV header is not counted).
+ * Only the first errors are listed; {@code failed} always has the full count.
+ * An import that stopped part way lists the reason as its last error.
+ */
+public record TransactionImportResult(
+    int totalRows,
+    int imported,
+    int failed,
+    List<RowError> errors
+) {
+    public record RowError(int row, String message) {}
+}
@@ -0,0 +1,14 @@
+package com.backend.appvengers.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated transaction listing.
+ * Pass {@code nextCursor} back as the {@code cursor} parameter to fetch the next page;
+ * it is null when there are no more rows.
+ */
+public record TransactionPageResponse(
+    List<TransactionWithCategoryResponse> items,
+    String nextCursor,
+    boolean hasMore
+) {}
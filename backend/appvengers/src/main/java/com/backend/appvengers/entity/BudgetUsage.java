@@ -0,0 +1,46 @@
+package com.backend.appvengers.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running total of the non-deleted expenses linked to a budget.
+ * Maintained on every budget expense write so spent amounts are read in O(1)
+ * instead of summing tbl_transaction each time.
+ */
+@Entity
+@Table(name = "tbl_budget_usage")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetUsage {
+
+  @Id
+  @Column(name = "budget_id")
+  private int budgetId;
+
+  @Column(name = "spent_total", nullable = false)
+  private BigDecimal spentTotal = BigDecimal.ZERO;
+
+  @Column(name = "tx_count", nullable = false)
+  private long txCount;
+
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,62 @@
+package com.backend.appvengers.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-user monthly aggregate of non-deleted categorized transactions,
+ * keyed by (user, month, category type, category).
+ * Maintained incrementally on transaction writes so summaries and monthly
+ * reports don't rescan the user's whole transaction history.
+ */
+@Entity
+@Table(name = "tbl_monthly_rollup")
+@IdClass(MonthlyRollup.MonthlyRollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRollup {
+
+  @Id
+  @Column(name = "user_id")
+  private int userId;
+
+  // Year and month as yyyyMM (e.g. 202510); 0 for transactions without a date
+  @Id
+  @Column(name = "month_key")
+  private int monthKey;
+
+  // Category type in upper case (EXPENSE/INCOME)
+  @Id
+  @Column(name = "type", length = 20)
+  private String type;
+
+  @Id
+  @Column(name = "category_id")
+  private int categoryId;
+
+  @Column(name = "total_amount", nullable = false)
+  private BigDecimal totalAmount = BigDecimal.ZERO;
+
+  @Column(name = "tx_count", nullable = false)
+  private long txCount;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class MonthlyRollupId implements Serializable {
+    private int userId;
+    private int monthKey;
+    private String type;
+    private int categoryId;
+  }
+}
@@ -9,13 +9,18 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tbl_notification")
+@Table(name = "tbl_notification", indexes = {
+    // Keyset scan of unread notifications by user (see NotificationRepository.findUnreadForDigest)
+    @Index(name = "idx_notification_unread_user_id",
+           columnList = "is_read, is_deleted, user_id, notification_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
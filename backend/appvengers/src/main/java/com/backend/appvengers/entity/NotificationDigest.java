@@ -0,0 +1,49 @@
+package com.backend.appvengers.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Record that a user was sent the digest of a period, so a restarted or
+ * repeated run skips them. Written in bulk by {@code NotificationDigestService}.
+ */
+@Entity
+@Table(name = "tbl_notification_digest", uniqueConstraints = {
+    // Also serves the "not sent yet" check in NotificationRepository.findUnreadForDigest
+    @UniqueConstraint(name = "uk_notification_digest_user_period", columnNames = {"user_id", "period", "period_key"})
+}, indexes = {
+    @Index(name = "idx_notification_digest_sent_at", columnList = "sent_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "digest_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "period", nullable = false, length = 20)
+    private String period;
+
+    @Column(name = "period_key", nullable = false, length = 20)
+    private String periodKey;
+
+    @Column(name = "sent_at", nullable = false)
+    private LocalDateTime sentAt;
+}
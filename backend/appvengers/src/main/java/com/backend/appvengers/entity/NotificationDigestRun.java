@@ -0,0 +1,52 @@
+package com.backend.appvengers.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One notification digest run (e.g. the daily digest of 2026-10-17). The row is
+ * the lock that lets a single backend instance send the run: the owner holds it
+ * until {@code lockedUntil}, renewing while it sends, and marks it completed.
+ */
+@Entity
+@Table(name = "tbl_notification_digest_run", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_notification_digest_run_period", columnNames = {"period", "period_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDigestRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "run_id")
+    private Long id;
+
+    // DAILY or WEEKLY
+    @Column(name = "period", nullable = false, length = 20)
+    private String period;
+
+    // The day (2026-10-17) or ISO week (2026-W42) the run covers
+    @Column(name = "period_key", nullable = false, length = 20)
+    private String periodKey;
+
+    // Instance currently sending the run
+    @Column(name = "owner", nullable = false, length = 36)
+    private String owner;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
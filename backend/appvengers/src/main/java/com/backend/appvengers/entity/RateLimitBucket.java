@@ -0,0 +1,44 @@
+package com.backend.appvengers.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Serialized Bucket4j state of one rate limit bucket, shared by all backend
+ * instances when {@code ratelimit.store=jdbc}. Only mapped so the schema is
+ * managed with the others; reads and writes go through
+ * {@code JdbcCompareAndSwapProxyManager}.
+ */
+@Entity
+@Table(name = "tbl_rate_limit_bucket", indexes = {
+    @Index(name = "idx_rate_limit_bucket_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    // Limiter name and key, e.g. "login:10.0.0.1"
+    @Id
+    @Column(name = "bucket_key", length = 320)
+    private String bucketKey;
+
+    @Lob
+    @Column(name = "state", nullable = false)
+    private byte[] state;
+
+    // Incremented on every write, for compare-and-swap
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Epoch millis after which the bucket has refilled and the row can be deleted
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
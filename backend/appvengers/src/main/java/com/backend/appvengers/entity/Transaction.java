@@ -12,7 +12,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tbl_transaction")
+@Table(name = "tbl_transaction", indexes = {
+    // Keyset pagination of a user's active transactions (see TransactionRepository.findPageForUser)
+    @Index(name = "idx_transaction_user_deleted_date_id",
+           columnList = "user_id, deleted_at, transaction_date, transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
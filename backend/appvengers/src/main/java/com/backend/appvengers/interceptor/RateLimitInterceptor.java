@@ -2,6 +2,7 @@ package com.backend.appvengers.interceptor;
 
 import com.backend.appvengers.service.RateLimitService;
 import io.github.bucket4j.ConsumptionProbe;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +37,11 @@ public class RateLimitInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) 
             throws IOException {
         
+        // Async chatbot responses are re-dispatched through the chain; the token was already consumed
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
         // Extract user email from security context (set by JwtAuthenticationFilter)
         String userEmail = extractUserEmail();
         
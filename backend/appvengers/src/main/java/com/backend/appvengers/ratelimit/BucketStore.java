@@ -0,0 +1,46 @@
+package com.backend.appvengers.ratelimit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Storage for the rate limit buckets of one limiter.
+ *
+ * Implementations decide where bucket state lives: {@link InMemoryBucketStore}
+ * keeps it in this JVM, {@link JdbcBucketStore} in the database so that all
+ * backend instances share the same limits. Create stores with {@link BucketStoreFactory}.
+ */
+public interface BucketStore {
+
+    /**
+     * Get the bucket for a key, creating it with the configuration on first use.
+     */
+    Bucket getBucket(String key, Supplier<BucketConfiguration> configuration);
+
+    /**
+     * Get the bucket for a key if it exists, without creating it.
+     */
+    Optional<Bucket> findBucket(String key);
+
+    /**
+     * Remove buckets that have not been used for the given time. A bucket idle
+     * that long has refilled completely, so dropping it does not change any limit.
+     *
+     * @return Number of buckets removed
+     */
+    int evictIdle(Duration idleFor);
+
+    /**
+     * Number of buckets currently stored.
+     */
+    int size();
+
+    /**
+     * Remove all buckets of this store.
+     */
+    void clear();
+}
@@ -0,0 +1,96 @@
+package com.backend.appvengers.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the bucket store for each rate limiter, according to {@code ratelimit.store}:
+ * {@code memory} (default, per instance) or {@code jdbc} (shared through the database,
+ * for running several backend instances).
+ *
+ * The factory also evicts idle buckets from every store it created, so each
+ * limiter (chatbot, login, ...) is cleaned up on the same schedule.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BucketStoreFactory {
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+
+    @Value("${ratelimit.store:memory}")
+    private String storeType;
+
+    @Value("${ratelimit.memory.max-entries:100000}")
+    private int maxEntries = InMemoryBucketStore.DEFAULT_MAX_ENTRIES;
+
+    private record ManagedStore(String name, BucketStore store, Duration idleTimeout) {}
+
+    private final List<ManagedStore> stores = new CopyOnWriteArrayList<>();
+
+    // Runs the asynchronous operations of JDBC stores; created with the first one
+    private ExecutorService jdbcExecutor;
+
+    /**
+     * @param name Limiter name, keeps the limiter's buckets apart in a shared store
+     * @param idleTimeout How long an unused bucket is kept in memory; the JDBC store
+     *                    expires rows by refill time instead
+     */
+    public BucketStore create(String name, Duration idleTimeout) {
+        BucketStore store;
+        if ("jdbc".equalsIgnoreCase(storeType)) {
+            log.info("Rate limiter '{}' uses the shared JDBC bucket store", name);
+            store = new JdbcBucketStore(jdbcTemplate.getObject(), name, jdbcExecutor());
+        } else {
+            store = new InMemoryBucketStore(idleTimeout, maxEntries);
+        }
+        stores.add(new ManagedStore(name, store, idleTimeout));
+        return store;
+    }
+
+    /**
+     * Scheduled eviction of idle buckets from every limiter's store.
+     */
+    @Scheduled(initialDelayString = "${ratelimit.cleanup-interval-ms:600000}",
+            fixedDelayString = "${ratelimit.cleanup-interval-ms:600000}")
+    public void evictIdle() {
+        for (ManagedStore managed : stores) {
+            try {
+                int removed = managed.store().evictIdle(managed.idleTimeout());
+                if (removed > 0) {
+                    log.info("Cleaned up {} expired '{}' rate limit buckets. Active buckets: {}",
+                            removed, managed.name(), managed.store().size());
+                }
+            } catch (Exception e) {
+                log.error("Rate limit bucket cleanup of '{}' failed: {}", managed.name(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (jdbcExecutor != null) {
+            jdbcExecutor.shutdown();
+        }
+    }
+
+    private synchronized ExecutorService jdbcExecutor() {
+        if (jdbcExecutor == null) {
+            jdbcExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("rate-limit-jdbc-", 0).factory());
+        }
+        return jdbcExecutor;
+    }
+}
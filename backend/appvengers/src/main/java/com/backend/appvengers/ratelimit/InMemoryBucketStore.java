@@ -0,0 +1,158 @@
+package com.backend.appvengers.ratelimit;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bucket store local to this JVM. Limits are enforced per backend instance.
+ *
+ * Each entry holds its bucket and last access time, so a lookup of an existing
+ * key allocates nothing. Expiry is amortized over inserts: once the map grows
+ * past a sweep threshold (twice the live size after the previous sweep), the
+ * inserting thread drops idle entries. The map never holds more than
+ * {@code maxEntries} buckets; when it is full of active keys (e.g. a flood of
+ * distinct keys) the least recently used eighth is evicted, approximated from
+ * a sample of access times.
+ */
+@Slf4j
+public class InMemoryBucketStore implements BucketStore {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private static final int MIN_SWEEP_SIZE = 1024;
+    private static final int EVICTION_SAMPLE_SIZE = 256;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long idleNanos;
+    private final int maxEntries;
+
+    // Size at which the next insert sweeps; guarded by this for writes
+    private volatile int sweepAt;
+
+    private static final class Entry {
+        private final Bucket bucket;
+        private volatile long lastAccessNanos;
+
+        Entry(Bucket bucket, long now) {
+            this.bucket = bucket;
+            this.lastAccessNanos = now;
+        }
+    }
+
+    public InMemoryBucketStore() {
+        this(DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param idleTimeout Entries unused for this long are dropped; must be at least the
+     *                    time a bucket takes to refill, or dropping it would reset a limit
+     * @param maxEntries Hard cap on the number of buckets kept
+     */
+    public InMemoryBucketStore(Duration idleTimeout, int maxEntries) {
+        this.idleNanos = idleTimeout.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.sweepAt = Math.min(MIN_SWEEP_SIZE, this.maxEntries);
+    }
+
+    @Override
+    public Bucket getBucket(String key, Supplier<BucketConfiguration> configuration) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= sweepAt) {
+                maintain(now);
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry(newBucket(configuration.get()), now));
+        }
+        entry.lastAccessNanos = now;
+        return entry.bucket;
+    }
+
+    @Override
+    public Optional<Bucket> findBucket(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? Optional.empty() : Optional.of(entry.bucket);
+    }
+
+    @Override
+    public int evictIdle(Duration idleFor) {
+        return removeOlderThan(System.nanoTime() - idleFor.toNanos());
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        sweepAt = Math.min(MIN_SWEEP_SIZE, maxEntries);
+    }
+
+    /**
+     * Drop idle entries and, if the store is still full, the least recently used ones.
+     */
+    private synchronized void maintain(long now) {
+        if (entries.size() < sweepAt) {
+            return; // Another thread swept meanwhile
+        }
+        int removed = removeOlderThan(now - idleNanos);
+        if (entries.size() >= maxEntries) {
+            int evicted = removeOlderThan(evictionCutoff());
+            log.warn("Rate limit bucket store full ({} buckets), evicted {} least recently used",
+                    maxEntries, evicted);
+        } else if (removed > 0) {
+            log.debug("Expired {} idle rate limit buckets, {} remaining", removed, entries.size());
+        }
+        sweepAt = Math.max(Math.min(MIN_SWEEP_SIZE, maxEntries),
+                (int) Math.min(maxEntries, 2L * entries.size()));
+    }
+
+    /**
+     * Access time at the 1/8 quantile of a sample of entries. Hash order is unrelated
+     * to access time, so the first entries in iteration order are a fair sample.
+     */
+    private long evictionCutoff() {
+        long[] sample = new long[EVICTION_SAMPLE_SIZE];
+        int count = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (count < sample.length && iterator.hasNext()) {
+            sample[count++] = iterator.next().lastAccessNanos;
+        }
+        Arrays.sort(sample, 0, count);
+        return count == 0 ? Long.MIN_VALUE : sample[count / 8];
+    }
+
+    private int removeOlderThan(long thresholdNanos) {
+        int removed = 0;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastAccessNanos - thresholdNanos <= 0) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private static Bucket newBucket(BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+}
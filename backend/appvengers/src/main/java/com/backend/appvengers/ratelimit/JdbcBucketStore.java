@@ -0,0 +1,74 @@
+package com.backend.appvengers.ratelimit;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+
+/**
+ * Bucket store backed by the database, shared by all backend instances.
+ *
+ * Bucket state lives in {@code tbl_rate_limit_bucket} and is updated with
+ * compare-and-swap (see {@link JdbcCompareAndSwapProxyManager}), so concurrent
+ * consumption on different nodes never over-grants tokens. Rows expire once
+ * their bucket would have refilled completely. The table is mapped by
+ * {@link com.backend.appvengers.entity.RateLimitBucket}.
+ */
+public class JdbcBucketStore implements BucketStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+    private final JdbcCompareAndSwapProxyManager proxyManager;
+
+    /**
+     * @param name Limiter name, used to keep this store's keys apart from other limiters' in the shared table
+     * @param asyncExecutor Runs the statements of asynchronous bucket operations
+     */
+    public JdbcBucketStore(JdbcTemplate jdbcTemplate, String name, Executor asyncExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = name + ":";
+        this.proxyManager = new JdbcCompareAndSwapProxyManager(jdbcTemplate, ClientSideConfig.getDefault()
+                .withExpirationAfterWriteStrategy(
+                        ExpirationAfterWriteStrategy.basedOnTimeForRefillingBucketUpToMax(Duration.ofMinutes(1))),
+                asyncExecutor);
+    }
+
+    @Override
+    public Bucket getBucket(String key, Supplier<BucketConfiguration> configuration) {
+        return proxyManager.builder().build(prefix + key, configuration);
+    }
+
+    @Override
+    public Optional<Bucket> findBucket(String key) {
+        return proxyManager.getProxyConfiguration(prefix + key)
+                .map(configuration -> proxyManager.builder().build(prefix + key, () -> configuration));
+    }
+
+    @Override
+    public int evictIdle(Duration idleFor) {
+        // Rows carry their own expiry, which is never later than a full refill
+        return jdbcTemplate.update(
+                "DELETE FROM tbl_rate_limit_bucket WHERE bucket_key LIKE ? AND expires_at < ?",
+                prefix + "%", System.currentTimeMillis());
+    }
+
+    @Override
+    public int size() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tbl_rate_limit_bucket WHERE bucket_key LIKE ? AND expires_at >= ?",
+                Integer.class, prefix + "%", System.currentTimeMillis());
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM tbl_rate_limit_bucket WHERE bucket_key LIKE ?", prefix + "%");
+    }
+}
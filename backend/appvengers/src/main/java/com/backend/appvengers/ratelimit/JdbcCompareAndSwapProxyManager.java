@@ -0,0 +1,129 @@
+package com.backend.appvengers.ratelimit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.github.bucket4j.distributed.ExpirationAfterWriteStrategy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+
+/**
+ * Bucket4j proxy manager keeping bucket state in {@code tbl_rate_limit_bucket}.
+ *
+ * Each operation reads the row and its version, lets Bucket4j compute the new
+ * state, and writes it back only if the version is unchanged; Bucket4j retries
+ * the operation when another node updated the bucket in between. A missing
+ * bucket is created by an insert that fails if another node inserted it first.
+ * The asynchronous API runs the same statements on the given executor.
+ */
+class JdbcCompareAndSwapProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor asyncExecutor;
+
+    JdbcCompareAndSwapProxyManager(JdbcTemplate jdbcTemplate, ClientSideConfig clientSideConfig,
+                                   Executor asyncExecutor) {
+        super(clientSideConfig);
+        this.jdbcTemplate = jdbcTemplate;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    private record StoredState(byte[] state, long version) {}
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+
+            // Version read by getStateData, expected unchanged by compareAndSwap
+            private Long version;
+
+            @Override
+            public Optional<byte[]> getStateData(Optional<Long> timeoutNanos) {
+                List<StoredState> rows = jdbcTemplate.query(
+                        "SELECT state, version FROM tbl_rate_limit_bucket WHERE bucket_key = ?",
+                        (rs, rowNum) -> new StoredState(rs.getBytes("state"), rs.getLong("version")), key);
+                if (rows.isEmpty()) {
+                    version = null;
+                    return Optional.empty();
+                }
+                version = rows.get(0).version();
+                return Optional.of(rows.get(0).state());
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState,
+                                          Optional<Long> timeoutNanos) {
+                long expiresAt = expiresAt(newState);
+                if (version == null) {
+                    try {
+                        return jdbcTemplate.update(
+                                "INSERT INTO tbl_rate_limit_bucket (bucket_key, state, version, expires_at) VALUES (?, ?, 0, ?)",
+                                key, newData, expiresAt) == 1;
+                    } catch (DuplicateKeyException e) {
+                        return false; // Created concurrently by another node
+                    }
+                }
+                return jdbcTemplate.update(
+                        "UPDATE tbl_rate_limit_bucket SET state = ?, version = version + 1, expires_at = ? "
+                                + "WHERE bucket_key = ? AND version = ?",
+                        newData, expiresAt, key, version) == 1;
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        // JDBC blocks, so run each step of the synchronous operation on the executor
+        CompareAndSwapOperation operation = beginCompareAndSwapOperation(key);
+        return new AsyncCompareAndSwapOperation() {
+
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData(Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(() -> operation.getStateData(timeoutNanos), asyncExecutor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData,
+                                                             RemoteBucketState newState, Optional<Long> timeoutNanos) {
+                return CompletableFuture.supplyAsync(
+                        () -> operation.compareAndSwap(originalData, newData, newState, timeoutNanos), asyncExecutor);
+            }
+        };
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        jdbcTemplate.update("DELETE FROM tbl_rate_limit_bucket WHERE bucket_key = ?", key);
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean isExpireAfterWriteSupported() {
+        return true;
+    }
+
+    private long expiresAt(RemoteBucketState newState) {
+        long nowMillis = System.currentTimeMillis();
+        Optional<ExpirationAfterWriteStrategy> expiration = getClientSideConfig().getExpirationAfterWriteStrategy();
+        return expiration
+                .map(strategy -> nowMillis + strategy.calculateTimeToLiveMillis(newState, nowMillis * 1_000_000L))
+                .orElse(Long.MAX_VALUE);
+    }
+}
@@ -1,16 +1,25 @@
 package com.backend.appvengers.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.backend.appvengers.entity.Budget;
+import com.backend.appvengers.dto.BudgetExportRow;
+import com.backend.appvengers.dto.BudgetThresholdCandidate;
 import com.backend.appvengers.dto.BudgetWithCategoryResponse;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
 public interface BudgetRepository extends JpaRepository<Budget, Integer> {
   @Query(value = "SELECT * FROM tbl_budget WHERE deleted_at IS NULL", nativeQuery = true)
   List<Budget> findAllActiveBudgets();
@@ -26,9 +35,21 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
     "IS NULL AND tb.user_id = :userId", nativeQuery = true)
   List<BudgetWithCategoryResponse> findBudgetsWithCategoryByUserId(@Param("userId") int userId);
 
+  // Export: stream a user's active budgets as flat rows (consume inside a transaction and close)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+  @Query("SELECT new com.backend.appvengers.dto.BudgetExportRow(" +
+    "b.budgetId, b.name, b.categoryId, c.name, b.limitAmount, b.startDate, b.endDate) " +
+    "FROM Budget b LEFT JOIN Category c ON c.id = b.categoryId " +
+    "WHERE b.userId = :userId AND b.deletedAt IS NULL ORDER BY b.budgetId")
+  Stream<BudgetExportRow> streamExportRowsByUserId(@Param("userId") int userId);
+
   // Find budgets ending on a specific date
   @Query(value = "SELECT * FROM tbl_budget WHERE deleted_at IS NULL AND end_date = :endDate", nativeQuery = true)
   List<Budget> findByEndDate(@Param("endDate") LocalDate endDate);
+
+  // Find owners of budgets whose period starts on a specific date
+  @Query(value = "SELECT DISTINCT user_id FROM tbl_budget WHERE deleted_at IS NULL AND start_date = :startDate", nativeQuery = true)
+  List<Integer> findUserIdsWithBudgetsStartingOn(@Param("startDate") LocalDate startDate);
   
   // Find active budget (non soft-deleted) by ID
   @Query("SELECT b FROM Budget b WHERE b.budgetId = :id AND b.deletedAt IS NULL")
@@ -46,4 +67,38 @@ public interface BudgetRepository extends JpaRepository<Budget, Integer> {
     "OR LOWER(tc.name) LIKE LOWER(CONCAT('%', :query, '%')))",
     nativeQuery = true)
   List<BudgetWithCategoryResponse> searchBudgetsByUserIdAndQuery(@Param("userId") int userId, @Param("query") String query);
+
+  // Batch budget threshold evaluation: every in-window budget with its spent total
+  // (from tbl_budget_usage, summing tbl_transaction only if the ledger row is missing)
+  // and category name. Keeps only budgets that spent at least 50% of their limit and
+  // anti-joins the notification they would trigger (BUDGET_EXCEEDED at 100%+,
+  // BUDGET_WARNING otherwise), so every row returned needs a new notification.
+  // Split around the budget filter so the per-user variant shares the same SQL.
+  String THRESHOLD_CANDIDATES_SELECT =
+    "SELECT x.budgetId, x.userId, x.limitAmount, x.categoryName, x.totalSpent FROM (" +
+    "SELECT tb.budget_id AS budgetId, tb.user_id AS userId, tb.limit_amount AS limitAmount, " +
+    "COALESCE(tc.name, 'Unknown Category') AS categoryName, " +
+    "COALESCE(bu.spent_total, (SELECT COALESCE(SUM(tt.amount), 0) FROM tbl_transaction tt " +
+    "WHERE tt.budget_id = tb.budget_id AND tt.deleted_at IS NULL)) AS totalSpent " +
+    "FROM tbl_budget tb " +
+    "LEFT JOIN tbl_category tc ON tb.category_id = tc.category_id " +
+    "LEFT JOIN tbl_budget_usage bu ON bu.budget_id = tb.budget_id " +
+    "WHERE tb.deleted_at IS NULL AND tb.limit_amount > 0 " +
+    "AND tb.start_date <= :today AND tb.end_date >= :today ";
+
+  String THRESHOLD_CANDIDATES_FILTER =
+    ") x " +
+    "WHERE x.totalSpent >= x.limitAmount * 0.5 " +
+    "AND NOT EXISTS (SELECT 1 FROM tbl_notification n WHERE n.user_id = x.userId " +
+    "AND n.reference_id = x.budgetId AND n.is_deleted = false " +
+    "AND n.type = CASE WHEN x.totalSpent >= x.limitAmount THEN 'BUDGET_EXCEEDED' ELSE 'BUDGET_WARNING' END)";
+
+  @Query(value = THRESHOLD_CANDIDATES_SELECT + THRESHOLD_CANDIDATES_FILTER, nativeQuery = true)
+  List<BudgetThresholdCandidate> findBudgetThresholdCandidates(@Param("today") LocalDate today);
+
+  // Same as above, restricted to a set of users
+  @Query(value = THRESHOLD_CANDIDATES_SELECT + "AND tb.user_id IN (:userIds) " + THRESHOLD_CANDIDATES_FILTER,
+    nativeQuery = true)
+  List<BudgetThresholdCandidate> findBudgetThresholdCandidatesForUsers(
+    @Param("today") LocalDate today, @Param("userIds") Collection<Integer> userIds);
 }
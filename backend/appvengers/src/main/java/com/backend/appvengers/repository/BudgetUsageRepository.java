@@ -0,0 +1,59 @@
+package com.backend.appvengers.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.backend.appvengers.entity.BudgetUsage;
+
+public interface BudgetUsageRepository extends JpaRepository<BudgetUsage, Integer> {
+
+  // Atomically apply a delta to a budget's running total; returns 0 if the row does not exist yet
+  @Modifying
+  @Query("UPDATE BudgetUsage u SET u.spentTotal = u.spentTotal + :amountDelta, " +
+    "u.txCount = u.txCount + :countDelta, u.version = u.version + 1 " +
+    "WHERE u.budgetId = :budgetId")
+  int applyDelta(@Param("budgetId") int budgetId,
+                 @Param("amountDelta") BigDecimal amountDelta,
+                 @Param("countDelta") long countDelta);
+
+  // Create a budget's ledger row from tbl_transaction; returns 0 if another writer created it first.
+  // The primary key makes the first writer the only one that builds the row.
+  @Modifying
+  @Query(value =
+    "INSERT IGNORE INTO tbl_budget_usage (budget_id, spent_total, tx_count, version, updated_at) " +
+    "SELECT :budgetId, COALESCE(SUM(t.amount), 0), COUNT(t.transaction_id), 0, CURRENT_TIMESTAMP " +
+    "FROM tbl_transaction t WHERE t.budget_id = :budgetId AND t.deleted_at IS NULL", nativeQuery = true)
+  int insertFromTransactions(@Param("budgetId") int budgetId);
+
+  // Overwrite a drifted row unless an expense write changed it since it was read
+  @Modifying
+  @Query("UPDATE BudgetUsage u SET u.spentTotal = :spentTotal, u.txCount = :txCount, " +
+    "u.version = u.version + 1 WHERE u.budgetId = :budgetId AND u.version = :version")
+  int correct(@Param("budgetId") int budgetId,
+              @Param("spentTotal") BigDecimal spentTotal,
+              @Param("txCount") long txCount,
+              @Param("version") long version);
+
+  List<BudgetUsage> findByBudgetIdIn(Collection<Integer> budgetIds);
+
+  // Recompute the total and count for a single budget from tbl_transaction
+  @Query(value =
+    "SELECT COALESCE(SUM(t.amount), 0), COUNT(t.transaction_id) FROM tbl_transaction t " +
+    "WHERE t.budget_id = :budgetId AND t.deleted_at IS NULL", nativeQuery = true)
+  List<Object[]> computeUsageFromTransactions(@Param("budgetId") int budgetId);
+
+  // Recompute totals and counts for every active budget (reconciliation)
+  @Query(value =
+    "SELECT tb.budget_id, COALESCE(SUM(tt.amount), 0), COUNT(tt.transaction_id) " +
+    "FROM tbl_budget tb " +
+    "LEFT JOIN tbl_transaction tt ON tt.budget_id = tb.budget_id AND tt.deleted_at IS NULL " +
+    "WHERE tb.deleted_at IS NULL " +
+    "GROUP BY tb.budget_id", nativeQuery = true)
+  List<Object[]> computeAllUsageFromTransactions();
+}
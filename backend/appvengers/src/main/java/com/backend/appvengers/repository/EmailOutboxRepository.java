@@ -0,0 +1,48 @@
+package com.backend.appvengers.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.appvengers.entity.EmailOutbox;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+  // Messages ready to be (re)tried: pending and due, or sending with an expired lease
+  @Query("SELECT e.id FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now " +
+    "ORDER BY e.nextAttemptAt")
+  List<Long> findDueIds(@Param("statuses") Collection<EmailOutbox.Status> statuses,
+                        @Param("now") LocalDateTime now,
+                        Pageable pageable);
+
+  // Take a message for sending until the lease ends; returns 0 if another worker has it
+  @Transactional
+  @Modifying
+  @Query("UPDATE EmailOutbox e SET e.status = :sending, e.nextAttemptAt = :leaseUntil, " +
+    "e.attempts = e.attempts + 1 " +
+    "WHERE e.id = :id AND e.status IN :statuses AND e.nextAttemptAt <= :now")
+  int claim(@Param("id") long id,
+            @Param("statuses") Collection<EmailOutbox.Status> statuses,
+            @Param("sending") EmailOutbox.Status sending,
+            @Param("now") LocalDateTime now,
+            @Param("leaseUntil") LocalDateTime leaseUntil);
+
+  // Finished messages (sent or given up) whose last attempt was before the cutoff;
+  // for those, nextAttemptAt holds the end of the last lease
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt < :cutoff")
+  int deleteFinishedBefore(@Param("statuses") Collection<EmailOutbox.Status> statuses,
+                           @Param("cutoff") LocalDateTime cutoff);
+
+  boolean existsByDedupKeyAndStatusIn(String dedupKey, Collection<EmailOutbox.Status> statuses);
+
+  long countByStatus(EmailOutbox.Status status);
+}
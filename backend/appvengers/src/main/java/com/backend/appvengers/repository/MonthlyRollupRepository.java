@@ -0,0 +1,109 @@
+package com.backend.appvengers.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.backend.appvengers.entity.MonthlyRollup;
+import com.backend.appvengers.entity.MonthlyRollup.MonthlyRollupId;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+
+  boolean existsByUserId(int userId);
+
+  // Atomically add a delta to a rollup bucket, creating the bucket if needed
+  @Modifying
+  @Query(value =
+    "INSERT INTO tbl_monthly_rollup (user_id, month_key, type, category_id, total_amount, tx_count) " +
+    "VALUES (:userId, :monthKey, :type, :categoryId, :amountDelta, :countDelta) " +
+    "ON DUPLICATE KEY UPDATE total_amount = total_amount + :amountDelta, tx_count = tx_count + :countDelta",
+    nativeQuery = true)
+  int upsertDelta(@Param("userId") int userId,
+                  @Param("monthKey") int monthKey,
+                  @Param("type") String type,
+                  @Param("categoryId") int categoryId,
+                  @Param("amountDelta") BigDecimal amountDelta,
+                  @Param("countDelta") long countDelta);
+
+  // Whether the user's rollup is built, as a locking read: sees a build committed after this
+  // transaction started, and makes a build still in progress finish first
+  @Query(value = "SELECT 1 FROM tbl_monthly_rollup WHERE user_id = :userId LIMIT 1 FOR SHARE", nativeQuery = true)
+  Optional<Integer> findAnyForShare(@Param("userId") int userId);
+
+  // Build a user's rollup from tbl_transaction (same filters as the summary queries:
+  // non-deleted and linked to a category); rows another build created first are kept
+  @Modifying
+  @Query(value =
+    "INSERT IGNORE INTO tbl_monthly_rollup (user_id, month_key, type, category_id, total_amount, tx_count) " +
+    "SELECT t.user_id, COALESCE(YEAR(t.transaction_date) * 100 + MONTH(t.transaction_date), 0), " +
+    "UPPER(c.type), c.category_id, SUM(t.amount), COUNT(*) " +
+    "FROM tbl_transaction t JOIN tbl_category c ON c.category_id = t.category_id " +
+    "WHERE t.user_id = :userId AND t.deleted_at IS NULL " +
+    "GROUP BY t.user_id, COALESCE(YEAR(t.transaction_date) * 100 + MONTH(t.transaction_date), 0), " +
+    "UPPER(c.type), c.category_id",
+    nativeQuery = true)
+  int rebuildForUser(@Param("userId") int userId);
+
+  // Move a category's buckets to its new type, e.g. after its type changed
+  @Modifying
+  @Query(value = "UPDATE tbl_monthly_rollup SET type = :type WHERE user_id = :userId AND category_id = :categoryId",
+    nativeQuery = true)
+  int retypeCategory(@Param("userId") int userId, @Param("categoryId") int categoryId, @Param("type") String type);
+
+  // Backfill: users with categorized transactions whose rollup has not been built yet
+  @Query(value =
+    "SELECT DISTINCT t.user_id FROM tbl_transaction t " +
+    "WHERE t.deleted_at IS NULL AND t.category_id IS NOT NULL " +
+    "AND NOT EXISTS (SELECT 1 FROM tbl_monthly_rollup r WHERE r.user_id = t.user_id) " +
+    "LIMIT :limit",
+    nativeQuery = true)
+  List<Integer> findUserIdsWithoutRollup(@Param("limit") int limit);
+
+  // All-time totals per category name for one type
+  @Query(value =
+    "SELECT COALESCE(c.name, 'Uncategorized'), SUM(r.total_amount) " +
+    "FROM tbl_monthly_rollup r LEFT JOIN tbl_category c ON c.category_id = r.category_id " +
+    "WHERE r.user_id = :userId AND r.type = :type " +
+    "GROUP BY COALESCE(c.name, 'Uncategorized') " +
+    "HAVING SUM(r.tx_count) > 0",
+    nativeQuery = true)
+  List<Object[]> sumByCategoryName(@Param("userId") int userId, @Param("type") String type);
+
+  // Totals per month, type and category name for a set of months
+  @Query(value =
+    "SELECT r.month_key, r.type, COALESCE(c.name, 'Uncategorized'), SUM(r.total_amount) " +
+    "FROM tbl_monthly_rollup r LEFT JOIN tbl_category c ON c.category_id = r.category_id " +
+    "WHERE r.user_id = :userId AND r.month_key IN (:monthKeys) " +
+    "GROUP BY r.month_key, r.type, COALESCE(c.name, 'Uncategorized') " +
+    "HAVING SUM(r.tx_count) > 0",
+    nativeQuery = true)
+  List<Object[]> sumByMonthTypeAndCategoryName(@Param("userId") int userId,
+                                               @Param("monthKeys") Collection<Integer> monthKeys);
+
+  // Same as sumByCategoryName, straight from tbl_transaction for users not backfilled yet
+  @Query(value =
+    "SELECT c.name, SUM(t.amount) " +
+    "FROM tbl_transaction t JOIN tbl_category c ON c.category_id = t.category_id " +
+    "WHERE t.user_id = :userId AND UPPER(c.type) = :type AND t.deleted_at IS NULL " +
+    "GROUP BY c.name",
+    nativeQuery = true)
+  List<Object[]> sumByCategoryNameFromTransactions(@Param("userId") int userId, @Param("type") String type);
+
+  // Same as sumByMonthTypeAndCategoryName, straight from tbl_transaction for users not backfilled yet
+  @Query(value =
+    "SELECT COALESCE(YEAR(t.transaction_date) * 100 + MONTH(t.transaction_date), 0) AS month_key, " +
+    "UPPER(c.type), c.name, SUM(t.amount) " +
+    "FROM tbl_transaction t JOIN tbl_category c ON c.category_id = t.category_id " +
+    "WHERE t.user_id = :userId AND t.deleted_at IS NULL " +
+    "AND COALESCE(YEAR(t.transaction_date) * 100 + MONTH(t.transaction_date), 0) IN (:monthKeys) " +
+    "GROUP BY COALESCE(YEAR(t.transaction_date) * 100 + MONTH(t.transaction_date), 0), UPPER(c.type), c.name",
+    nativeQuery = true)
+  List<Object[]> sumByMonthTypeAndCategoryNameFromTransactions(@Param("userId") int userId,
+                                                               @Param("monthKeys") Collection<Integer> monthKeys);
+}
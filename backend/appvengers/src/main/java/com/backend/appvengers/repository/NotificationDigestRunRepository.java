@@ -0,0 +1,38 @@
+package com.backend.appvengers.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.appvengers.entity.NotificationDigestRun;
+
+public interface NotificationDigestRunRepository extends JpaRepository<NotificationDigestRun, Long> {
+
+  boolean existsByPeriodAndPeriodKey(String period, String periodKey);
+
+  // Take (or renew) the lock of an unfinished run whose lease expired or that this owner holds;
+  // returns 0 if another instance holds it or the run is complete
+  @Transactional
+  @Modifying
+  @Query("UPDATE NotificationDigestRun r SET r.owner = :owner, r.lockedUntil = :lockedUntil " +
+    "WHERE r.period = :period AND r.periodKey = :periodKey AND r.completedAt IS NULL " +
+    "AND (r.lockedUntil < :now OR r.owner = :owner)")
+  int claim(@Param("period") String period,
+            @Param("periodKey") String periodKey,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("lockedUntil") LocalDateTime lockedUntil);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE NotificationDigestRun r SET r.completedAt = :now " +
+    "WHERE r.period = :period AND r.periodKey = :periodKey AND r.owner = :owner")
+  int complete(@Param("period") String period,
+               @Param("periodKey") String periodKey,
+               @Param("owner") String owner,
+               @Param("now") LocalDateTime now);
+}
@@ -1,5 +1,7 @@
 package com.backend.appvengers.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,6 +10,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.backend.appvengers.dto.NotificationDigestRow;
+import com.backend.appvengers.dto.NotificationKeyRow;
 import com.backend.appvengers.entity.Notification;
 import com.backend.appvengers.entity.Notification.NotificationType;
 
@@ -49,6 +53,38 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
             @Param("type") NotificationType type,
             @Param("referenceId") Integer referenceId);
 
+    // Batch deduplication: keys of existing (non-deleted) notifications of the given types for the given references
+    @Query("SELECT n.userId AS userId, n.type AS type, n.referenceId AS referenceId, n.urgency AS urgency " +
+           "FROM Notification n WHERE n.type IN :types AND n.referenceId IN :referenceIds AND n.isDeleted = false")
+    List<NotificationKeyRow> findKeys(
+            @Param("types") Collection<NotificationType> types,
+            @Param("referenceIds") Collection<Integer> referenceIds);
+
+    // Notification digests: one keyset page of unread notifications created since a time, for
+    // active verified users not yet sent this period's digest, ordered by (user, notification) so
+    // each user's rows are contiguous.
+    // Pass the last row's user and notification ids to get the next page; start from (0, 0).
+    @Query(value =
+        "SELECT n.user_id AS userId, n.notification_id AS notificationId, u.email AS email, " +
+        "u.username AS username, n.title AS title, n.message AS message, n.urgency AS urgency, " +
+        "n.created_at AS createdAt " +
+        "FROM tbl_notification n JOIN tbl_user u ON u.user_id = n.user_id " +
+        "WHERE n.is_read = false AND n.is_deleted = false AND n.created_at >= :since " +
+        "AND u.is_active = true AND u.email_verified = true AND u.is_deleted = false " +
+        "AND NOT EXISTS (SELECT 1 FROM tbl_notification_digest d WHERE d.user_id = n.user_id " +
+        "AND d.period = :period AND d.period_key = :periodKey) " +
+        "AND (n.user_id > :afterUserId OR (n.user_id = :afterUserId AND n.notification_id > :afterNotificationId)) " +
+        "ORDER BY n.user_id, n.notification_id " +
+        "LIMIT :limit",
+        nativeQuery = true)
+    List<NotificationDigestRow> findUnreadForDigest(
+            @Param("since") LocalDateTime since,
+            @Param("period") String period,
+            @Param("periodKey") String periodKey,
+            @Param("afterUserId") int afterUserId,
+            @Param("afterNotificationId") long afterNotificationId,
+            @Param("limit") int limit);
+
     // Delete old read notifications (cleanup - optional)
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.userId = :userId AND n.isRead = true AND n.readAt < :olderThan")
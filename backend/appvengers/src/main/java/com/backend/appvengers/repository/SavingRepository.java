@@ -1,13 +1,20 @@
 package com.backend.appvengers.repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.backend.appvengers.dto.SavingExportRow;
 import com.backend.appvengers.dto.SavingTransaction;
+import jakarta.persistence.QueryHint;
 import com.backend.appvengers.entity.Saving;
 
 public interface SavingRepository extends JpaRepository<Saving, Integer> {
@@ -17,6 +24,18 @@ public interface SavingRepository extends JpaRepository<Saving, Integer> {
   @Query("SELECT s FROM Saving s WHERE s.deletedAt IS NULL AND s.userId = :userId")
   List<Saving> findActiveSavingsByUserId(@Param("userId") int userId);
 
+  // JPA Query to find active savings (all users) with a goal date inside a range
+  @Query("SELECT s FROM Saving s WHERE s.deletedAt IS NULL AND s.goalDate BETWEEN :fromDate AND :toDate")
+  List<Saving> findActiveSavingsWithGoalDateBetween(@Param("fromDate") LocalDate fromDate,
+                                                    @Param("toDate") LocalDate toDate);
+
+  // Export: stream a user's active savings as flat rows (consume inside a transaction and close)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+  @Query("SELECT new com.backend.appvengers.dto.SavingExportRow(" +
+    "s.savingId, s.name, s.goalDate, s.frequency, s.targetAmount, s.currentAmount, s.description, s.createdAt) " +
+    "FROM Saving s WHERE s.deletedAt IS NULL AND s.userId = :userId ORDER BY s.savingId")
+  Stream<SavingExportRow> streamExportRowsByUserId(@Param("userId") int userId);
+
   // JPQL Query to fetch transactions with saving details
   @Query("SELECT new com.backend.appvengers.dto.SavingTransaction(" +
 		"t.id, t.saving.savingId, t.user.id, t.transactionDate, " +
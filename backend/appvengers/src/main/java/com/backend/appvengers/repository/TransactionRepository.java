@@ -1,14 +1,23 @@
 package com.backend.appvengers.repository;
 
+import com.backend.appvengers.dto.SavingTransactionExportRow;
+import com.backend.appvengers.dto.TransactionExportRow;
+import com.backend.appvengers.dto.TransactionResponse;
 import com.backend.appvengers.entity.Transaction;
 import com.backend.appvengers.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -31,6 +40,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     """)
     List<Transaction> findByUserAndDeletedAtIsNull(@Param("user") User user);
 
+    // Keyset page of a user's transactions, newest first (transaction_date DESC, transaction_id DESC).
+    // Rows after the cursor (cursorDate, cursorId) only; null dates sort last. Without a budget
+    // filter it lists the same rows as findByUserAndDeletedAtIsNull, with one it lists that budget's
+    // expenses. Served by idx_transaction_user_deleted_date_id.
+    @Query("""
+        SELECT t FROM Transaction t
+        LEFT JOIN FETCH t.categoryRef c
+        WHERE t.user.id = :userId
+          AND t.deletedAt IS NULL
+          AND t.saving IS NULL
+          AND t.categoryRef IS NOT NULL
+          AND ((:budgetId IS NULL AND t.budget IS NULL) OR t.budget.budgetId = :budgetId)
+          AND (:categoryId IS NULL OR c.id = :categoryId)
+          AND (:type IS NULL OR UPPER(c.type) = :type)
+          AND (:fromDate IS NULL OR t.transactionDate >= :fromDate)
+          AND (:toDate IS NULL OR t.transactionDate <= :toDate)
+          AND (:cursorId IS NULL
+               OR (:cursorDate IS NOT NULL AND (t.transactionDate < :cursorDate
+                   OR (t.transactionDate = :cursorDate AND t.id < :cursorId)
+                   OR t.transactionDate IS NULL))
+               OR (:cursorDate IS NULL AND t.transactionDate IS NULL AND t.id < :cursorId))
+        ORDER BY t.transactionDate DESC, t.id DESC
+    """)
+    List<Transaction> findPageForUser(@Param("userId") Integer userId,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate,
+                                      @Param("type") String type,
+                                      @Param("categoryId") Integer categoryId,
+                                      @Param("budgetId") Integer budgetId,
+                                      @Param("cursorDate") LocalDate cursorDate,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+
+    // Chatbot context: totals per upper-case type and category name over the same rows as
+    // findByUserAndDeletedAtIsNull, largest first. Rows are [type, categoryName, total].
+    @Query("""
+        SELECT UPPER(c.type), c.name, SUM(t.amount)
+        FROM Transaction t JOIN t.categoryRef c
+        WHERE t.user.id = :userId
+          AND t.deletedAt IS NULL
+          AND t.saving IS NULL
+          AND t.budget IS NULL
+        GROUP BY UPPER(c.type), c.name
+        ORDER BY SUM(t.amount) DESC
+    """)
+    List<Object[]> sumByTypeAndCategoryName(@Param("userId") Integer userId);
+
+    // Chatbot context: a user's most recent transactions (same rows as findByUserAndDeletedAtIsNull),
+    // newest first. Served by idx_transaction_user_deleted_date_id; size it with the Pageable.
+    @Query("""
+        SELECT new com.backend.appvengers.dto.TransactionResponse(
+            t.id, t.amount, c.id, c.name, c.type, t.description, t.transactionDate)
+        FROM Transaction t JOIN t.categoryRef c
+        WHERE t.user.id = :userId
+          AND t.deletedAt IS NULL
+          AND t.saving IS NULL
+          AND t.budget IS NULL
+        ORDER BY t.transactionDate DESC, t.id DESC
+    """)
+    List<TransactionResponse> findRecentForUser(@Param("userId") Integer userId, Pageable pageable);
+
+    // Export: stream a user's non-saving transactions as flat rows, oldest first.
+    // Must be consumed inside a transaction and closed; a fetch size of Integer.MIN_VALUE
+    // makes the MySQL driver stream this result set row by row instead of buffering it.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.backend.appvengers.dto.TransactionExportRow(
+            t.id, t.transactionDate, t.amount, t.description,
+            c.id, c.name, c.type, t.budget.budgetId, t.createdAt)
+        FROM Transaction t LEFT JOIN t.categoryRef c
+        WHERE t.user.id = :userId AND t.saving IS NULL AND t.deletedAt IS NULL
+        ORDER BY t.transactionDate, t.id
+    """)
+    Stream<TransactionExportRow> streamExportRowsByUserId(@Param("userId") Integer userId);
+
+    // Export: stream a user's saving deposits/withdrawals as flat rows, oldest first
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+        SELECT new com.backend.appvengers.dto.SavingTransactionExportRow(
+            t.id, s.savingId, s.name, t.transactionDate, t.savingsAction, t.description, t.amount)
+        FROM Transaction t JOIN t.saving s
+        WHERE t.user.id = :userId AND t.deletedAt IS NULL
+        ORDER BY t.transactionDate, t.id
+    """)
+    Stream<SavingTransactionExportRow> streamSavingExportRowsByUserId(@Param("userId") Integer userId);
+
     // Expense summary - only non-deleted transactions, using Category relation
     @Query("""
         SELECT COALESCE(c.name, 'Uncategorized'), SUM(t.amount)
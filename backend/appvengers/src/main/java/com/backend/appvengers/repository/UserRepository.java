@@ -23,6 +23,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByPasswordResetToken(String token);
 
+    // Current JWT token version of an active (non-deleted) user
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Integer id);
+
     // Query methods that bypass @SQLRestriction to include soft-deleted users
     @Query("SELECT u FROM User u WHERE u.email = :email")
     Optional<User> findByEmailIncludingDeleted(@Param("email") String email);
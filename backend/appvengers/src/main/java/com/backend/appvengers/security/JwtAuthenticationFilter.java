@@ -1,25 +1,30 @@
 package com.backend.appvengers.security;
 
 import org.springframework.lang.NonNull;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired private JwtService jwtService;
-    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private UserIdentityCache userIdentityCache;
+    @Autowired private TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
@@ -37,20 +42,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserIdentityCache.UserIdentity identity = authenticate(authHeader.substring(7));
+            if (identity != null) {
+                // JWT authentication never checks the password, so the principal doesn't carry it
+                UserDetails userDetails = new User(identity.email(), "",
+                        List.of(new SimpleGrantedAuthority("ROLE_USER")));
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -60,4 +63,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolve the user a JWT belongs to. Also used to authenticate WebSocket
+     * (STOMP) connections, which carry the token in their CONNECT frame.
+     *
+     * @return The identity, or null when the token is invalid, expired or revoked
+     */
+    public UserIdentityCache.UserIdentity authenticate(String token) {
+        // One parse verifies signature and expiry and yields every claim we need
+        JwtService.TokenClaims claims;
+        try {
+            claims = jwtService.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.email() == null) {
+            return null;
+        }
+        return resolveIdentity(claims);
+    }
+
+    /**
+     * Tokens carrying userId and token version are checked against the in-memory
+     * version table only (no database query); the identity is then shared with
+     * controllers for the rest of the request. Older tokens without those claims
+     * fall back to the identity cache. Returns null when the token is revoked or
+     * the user no longer exists.
+     */
+    private UserIdentityCache.UserIdentity resolveIdentity(JwtService.TokenClaims claims) {
+        if (claims.userId() != null && claims.tokenVersion() != null) {
+            if (!tokenVersionRegistry.isCurrent(claims.userId(), claims.tokenVersion())) {
+                return null;
+            }
+            // Deactivation and deletion bump the version, so a current token implies an active user
+            UserIdentityCache.UserIdentity identity =
+                    new UserIdentityCache.UserIdentity(claims.userId(), claims.email(), true);
+            userIdentityCache.remember(identity);
+            return identity;
+        }
+        return userIdentityCache.find(claims.email()).orElse(null);
+    }
+}
@@ -2,27 +2,35 @@ package com.backend.appvengers.security;
 
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import org.springframework.stereotype.Component;
+
+import com.backend.appvengers.ratelimit.BucketStore;
+import com.backend.appvengers.ratelimit.BucketStoreFactory;
+
 import java.time.Duration;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class LoginRateLimiter {
 
-    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder()
+                    .capacity(5)
+                    .refillIntervally(5, Duration.ofMinutes(15))
+                    .build())
+            .build();
 
-    public Bucket resolveBucket(String key) {
-        return buckets.computeIfAbsent(key, this::newBucket);
-    }
+    // A bucket idle this long has refilled, so dropping it does not reset a limit
+    private static final Duration IDLE_TIMEOUT = Duration.ofMinutes(15);
 
-    private Bucket newBucket(String ignored) {
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(5) 
-                .refillIntervally(5, Duration.ofMinutes(15)) 
-                .build();
+    // Shared across backend instances when ratelimit.store=jdbc
+    private final BucketStore buckets;
 
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    public LoginRateLimiter(BucketStoreFactory bucketStoreFactory) {
+        this.buckets = bucketStoreFactory.create("login", IDLE_TIMEOUT);
+    }
+
+    public Bucket resolveBucket(String key) {
+        return buckets.getBucket(key, () -> CONFIGURATION);
     }
-}
\ No newline at end of file
+}
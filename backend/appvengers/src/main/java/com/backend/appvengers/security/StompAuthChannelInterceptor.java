@@ -0,0 +1,88 @@
+package com.backend.appvengers.security;
+
+import java.security.Principal;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates STOMP sessions and guards per-user destinations.
+ *
+ * The WebSocket handshake itself is public (browsers cannot set headers on it),
+ * so the JWT travels in the CONNECT frame's {@code Authorization} header and is
+ * checked like an HTTP request's. A SUBSCRIBE to {@code /topic/user/{userId}/...}
+ * is only allowed for that user's own session, so notifications and streamed
+ * chatbot answers cannot be read by guessing another user's id.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    static final String USER_DESTINATION_PREFIX = "/topic/user/";
+
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    /**
+     * Principal of an authenticated STOMP session; its name is the user id.
+     */
+    public record StompUser(int userId, String email) implements Principal {
+        @Override
+        public String getName() {
+            return String.valueOf(userId);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            checkSubscription(accessor.getUser(), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private StompUser authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+        UserIdentityCache.UserIdentity identity = jwtAuthenticationFilter.authenticate(authHeader.substring(7));
+        if (identity == null || !identity.active()) {
+            throw new MessageDeliveryException("Invalid or expired token");
+        }
+        return new StompUser(identity.userId(), identity.email());
+    }
+
+    private void checkSubscription(Principal user, String destination) {
+        if (!(user instanceof StompUser stompUser)) {
+            throw new MessageDeliveryException("Not authenticated");
+        }
+        if (destination == null || !destination.startsWith(USER_DESTINATION_PREFIX)) {
+            return;
+        }
+
+        String rest = destination.substring(USER_DESTINATION_PREFIX.length());
+        int slash = rest.indexOf('/');
+        String owner = slash < 0 ? rest : rest.substring(0, slash);
+        if (!owner.equals(stompUser.getName())) {
+            log.warn("Rejected subscription of user {} to {}", stompUser.userId(), destination);
+            throw new MessageDeliveryException("Cannot subscribe to another user's destination");
+        }
+    }
+}
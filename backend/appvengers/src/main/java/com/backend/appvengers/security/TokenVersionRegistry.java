@@ -0,0 +1,85 @@
+package com.backend.appvengers.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory table of each user's current JWT token version.
+ *
+ * Tokens carry the version they were issued with; a token is accepted only
+ * while that version is still current. Bumping the version (password change,
+ * deactivation, deletion, email change) revokes every token issued before it.
+ * The version is persisted on tbl_user and loaded here once per user, then
+ * re-read after a refresh interval so changes made by other instances are
+ * picked up.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    // Stored for users that no longer exist (or are deleted): no version matches it
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.token-version.refresh-seconds:300}")
+    private long refreshSeconds;
+
+    private final Map<Integer, Entry> versions = new ConcurrentHashMap<>();
+
+    private record Entry(int version, long loadedAtNanos) {}
+
+    /**
+     * Whether a token issued with {@code tokenVersion} is still valid for the user.
+     */
+    public boolean isCurrent(int userId, int tokenVersion) {
+        return currentVersion(userId) == tokenVersion;
+    }
+
+    /**
+     * The user's current token version, loading it when unknown or stale.
+     */
+    public int currentVersion(int userId) {
+        long now = System.nanoTime();
+        Entry entry = versions.get(userId);
+        if (entry == null || now - entry.loadedAtNanos() > refreshSeconds * 1_000_000_000L) {
+            int version = userRepository.findTokenVersionById(userId).orElse(REVOKED);
+            entry = new Entry(version, now);
+            versions.put(userId, entry);
+        }
+        return entry.version();
+    }
+
+    /**
+     * Revoke all of a user's existing tokens by moving to the next version.
+     * The caller saves the user; the in-memory table follows after commit.
+     */
+    public void revokeAll(User user) {
+        int next = user.getTokenVersion() + 1;
+        user.setTokenVersion(next);
+        int userId = user.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Until commit, reject both the old and new version rather than accepting stale tokens
+            versions.put(userId, new Entry(REVOKED, System.nanoTime()));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versions.remove(userId);
+                }
+            });
+        } else {
+            versions.put(userId, new Entry(next, System.nanoTime()));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.backend.appvengers.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves an authenticated email to the user's id and status without a
+ * database round trip on every call.
+ *
+ * Lookups are memoized for the current request (the JWT filter resolves the
+ * user once, controllers and services reuse it) and kept in a bounded,
+ * short-lived shared cache across requests. Account changes that affect the
+ * identity (email change, deactivation, deletion) must call {@link #invalidate(String)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserIdentityCache {
+
+    private static final String REQUEST_ATTRIBUTE_PREFIX = UserIdentityCache.class.getName() + ".";
+
+    private final UserRepository userRepository;
+
+    @Value("${user.identity-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${user.identity-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Identity fields needed by request handling.
+     */
+    public record UserIdentity(int userId, String email, boolean active) {}
+
+    private record Entry(UserIdentity identity, long expiresAtNanos) {}
+
+    /**
+     * Find the identity for an email: request memo, then shared cache, then database.
+     */
+    public Optional<UserIdentity> find(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String attribute = REQUEST_ATTRIBUTE_PREFIX + email;
+        if (request != null) {
+            Object memo = request.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST);
+            if (memo instanceof UserIdentity identity) {
+                return Optional.of(identity);
+            }
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(email);
+        UserIdentity identity;
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            identity = entry.identity();
+        } else {
+            Optional<User> user = userRepository.findByEmail(email);
+            if (user.isEmpty()) {
+                entries.remove(email);
+                return Optional.empty();
+            }
+            identity = new UserIdentity(user.get().getId(), user.get().getEmail(), user.get().isActive());
+            put(email, new Entry(identity, now + ttlSeconds * 1_000_000_000L));
+        }
+
+        if (request != null) {
+            request.setAttribute(attribute, identity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(identity);
+    }
+
+    /**
+     * Make an identity already verified by other means (a current JWT) available
+     * to the rest of the current request without a lookup.
+     */
+    public void remember(UserIdentity identity) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE_PREFIX + identity.email(), identity, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * Resolve the id of an authenticated user, failing like the existing lookups when missing.
+     */
+    public int requireUserId(String email) {
+        return find(email)
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .userId();
+    }
+
+    /**
+     * Drop a cached identity. When called inside a transaction the entry is
+     * dropped again after commit, so a concurrent request cannot re-cache the
+     * pre-commit state.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        entries.remove(email);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + email, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of identities in the shared cache (for monitoring).
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void put(String email, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            evict(entry.expiresAtNanos() - ttlSeconds * 1_000_000_000L);
+        }
+        entries.put(email, entry);
+    }
+
+    // Drop expired entries; if the cache is still full, drop arbitrary entries down to 90%
+    private void evict(long now) {
+        entries.values().removeIf(e -> now - e.expiresAtNanos() >= 0);
+        int excess = entries.size() - (maxEntries * 9 / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.backend.appvengers.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.appvengers.entity.BudgetUsage;
+import com.backend.appvengers.repository.BudgetUsageRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the per-budget spent-total ledger (tbl_budget_usage).
+ *
+ * Budget expense writes apply their amount delta atomically inside the same
+ * transaction, so budget spent reads are a primary-key lookup instead of a
+ * SUM over tbl_transaction. A budget's row is built from tbl_transaction by
+ * its first expense write (the primary key lets only one concurrent writer
+ * build it) or by the scheduled reconciliation, which also corrects and
+ * reports any drift. Reads never build it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BudgetUsageService {
+
+    private final BudgetUsageRepository budgetUsageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Result of a reconciliation run.
+     *
+     * @param checked number of active budgets compared
+     * @param created ledger rows that were missing and got created
+     * @param drifted ledger rows whose total or count differed and got corrected
+     */
+    public record ReconciliationReport(int checked, int created, int drifted) {}
+
+    /**
+     * Apply an expense delta to a budget's running total.
+     * Must be called inside the transaction that wrote the expense.
+     *
+     * @param budgetId The budget the expense belongs to
+     * @param amountDelta Change in spent amount (negative for deletes)
+     * @param countDelta Change in expense count (+1 create, 0 update, -1 delete)
+     */
+    @Transactional
+    public void applyDelta(int budgetId, BigDecimal amountDelta, long countDelta) {
+        if (budgetUsageRepository.applyDelta(budgetId, amountDelta, countDelta) > 0) {
+            return;
+        }
+
+        // No ledger row yet: build it from tbl_transaction, which already includes this write.
+        // Make pending expense writes visible to the aggregate first.
+        budgetUsageRepository.flush();
+        if (budgetUsageRepository.insertFromTransactions(budgetId) == 0) {
+            // A concurrent writer built the row without this write; apply it on top
+            budgetUsageRepository.applyDelta(budgetId, amountDelta, countDelta);
+        }
+    }
+
+    /**
+     * Get the total spent for a budget. Summed from tbl_transaction if the
+     * ledger row does not exist yet.
+     */
+    @Transactional(readOnly = true)
+    public Double getSpentTotal(int budgetId) {
+        return budgetUsageRepository.findById(budgetId)
+                .map(usage -> usage.getSpentTotal().doubleValue())
+                .orElseGet(() -> computeSpentTotal(budgetId));
+    }
+
+    /**
+     * Get the totals spent for several budgets with a single lookup.
+     * Budgets without a ledger row are summed from tbl_transaction.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Double> getSpentTotals(Collection<Integer> budgetIds) {
+        Map<Integer, Double> totals = new HashMap<>();
+        if (budgetIds.isEmpty()) {
+            return totals;
+        }
+
+        for (BudgetUsage usage : budgetUsageRepository.findByBudgetIdIn(budgetIds)) {
+            totals.put(usage.getBudgetId(), usage.getSpentTotal().doubleValue());
+        }
+        for (Integer budgetId : budgetIds) {
+            if (!totals.containsKey(budgetId)) {
+                totals.put(budgetId, computeSpentTotal(budgetId));
+            }
+        }
+        return totals;
+    }
+
+    private double computeSpentTotal(int budgetId) {
+        Object[] row = budgetUsageRepository.computeUsageFromTransactions(budgetId).get(0);
+        return toBigDecimal(row[0]).doubleValue();
+    }
+
+    /**
+     * Scheduled reconciliation of the ledger against tbl_transaction.
+     * Runs shortly after startup (to backfill budgets created before the ledger
+     * existed) and then every hour by default.
+     */
+    @Scheduled(initialDelayString = "${budget.usage.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${budget.usage.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        try {
+            // Called on this instance, so the transaction is started explicitly
+            transactionTemplate.execute(status -> reconcile());
+        } catch (Exception e) {
+            log.error("Budget usage reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild every active budget's total from tbl_transaction with one GROUP BY,
+     * create missing ledger rows and correct any that drifted.
+     * The ledger and the totals are read in one transaction; rows modified
+     * concurrently by an expense write are skipped until the next run.
+     *
+     * @return Summary of what was checked and corrected
+     */
+    @Transactional
+    public ReconciliationReport reconcile() {
+        Map<Integer, BudgetUsage> ledger = budgetUsageRepository.findAll().stream()
+                .collect(Collectors.toMap(BudgetUsage::getBudgetId, Function.identity()));
+        List<Object[]> actualRows = budgetUsageRepository.computeAllUsageFromTransactions();
+
+        int created = 0;
+        int drifted = 0;
+        for (Object[] row : actualRows) {
+            int budgetId = ((Number) row[0]).intValue();
+            BigDecimal actualTotal = toBigDecimal(row[1]);
+            long actualCount = ((Number) row[2]).longValue();
+
+            BudgetUsage usage = ledger.get(budgetId);
+            if (usage == null) {
+                // Built the same way as on a first expense write; 0 if one got there first
+                created += budgetUsageRepository.insertFromTransactions(budgetId);
+                continue;
+            }
+            if (usage.getSpentTotal().compareTo(actualTotal) == 0 && usage.getTxCount() == actualCount) {
+                continue;
+            }
+
+            log.warn("Budget usage drift for budget {}: ledger {} ({} tx), actual {} ({} tx)",
+                    budgetId, usage.getSpentTotal(), usage.getTxCount(), actualTotal, actualCount);
+            if (budgetUsageRepository.correct(budgetId, actualTotal, actualCount, usage.getVersion()) > 0) {
+                drifted++;
+            } else {
+                log.debug("Budget usage for budget {} changed during reconciliation, skipping", budgetId);
+            }
+        }
+
+        ReconciliationReport report = new ReconciliationReport(actualRows.size(), created, drifted);
+        if (created > 0 || drifted > 0) {
+            log.info("Budget usage reconciliation: {}", report);
+        }
+        return report;
+    }
+
+    private BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    }
+}
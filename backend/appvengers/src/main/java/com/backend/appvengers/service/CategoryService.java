@@ -4,19 +4,23 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.backend.appvengers.repository.CategoryRepository;
 import com.backend.appvengers.config.CategoryDefaults;
+import com.backend.appvengers.entity.Category;
 
 @Service
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryDefaults categoryDefaults;
+    private final MonthlyRollupService monthlyRollupService;
 
     public CategoryService(
         CategoryRepository categoryRepository, 
-        CategoryDefaults categoryDefaults) {
+        CategoryDefaults categoryDefaults,
+        MonthlyRollupService monthlyRollupService) {
             
         this.categoryRepository = categoryRepository;
         this.categoryDefaults = categoryDefaults;
+        this.monthlyRollupService = monthlyRollupService;
     }
 
     @Transactional
@@ -26,4 +30,20 @@ public class CategoryService {
             categoryRepository.saveAll(defaults);
         }
     }
+
+    // Rename or retype a category; the monthly rollup is keyed by type, so a type
+    // change moves the category's buckets in the same transaction
+    @Transactional
+    public Category updateCategory(Category category, String name, String type) {
+        boolean typeChanged = type != null && !type.equalsIgnoreCase(category.getType());
+
+        category.setName(name);
+        category.setType(type);
+        Category saved = categoryRepository.save(category);
+
+        if (typeChanged) {
+            monthlyRollupService.recordCategoryTypeChange(saved.getUserId(), saved.getId(), saved.getType());
+        }
+        return saved;
+    }
 }
\ No newline at end of file
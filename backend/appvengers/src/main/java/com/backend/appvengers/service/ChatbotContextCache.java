@@ -0,0 +1,151 @@
+package com.backend.appvengers.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.appvengers.dto.UserFinancialContext;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.security.UserIdentityCache.UserIdentity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user cache of the serialized chatbot context.
+ *
+ * A snapshot is tagged with the user's data version from {@link UserChangeTracker}
+ * and reused until a transaction, budget or saving change bumps that version,
+ * so consecutive chatbot turns skip rebuilding and re-serializing the context.
+ * Snapshots are kept in LRU order within a total size budget and also expire
+ * after a TTL as a safety net for writes that bypass the tracker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatbotContextCache {
+
+    private final UserIdentityCache userIdentityCache;
+    private final UserChangeTracker userChangeTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${chatbot.context-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${chatbot.context-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Integer, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cache statistics for monitoring.
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {}
+
+    private record Snapshot(String email, long version, RawValue json, long bytes, long expiresAtNanos) {}
+
+    /**
+     * Get the user's context as pre-serialized JSON, building it with the loader
+     * only when there is no current snapshot. The result can be embedded directly
+     * in a Jackson-serialized request body.
+     *
+     * @param email Authenticated user's email
+     * @param loader Builds the context on a miss
+     * @return The serialized context
+     */
+    public RawValue getSerializedContext(String email, Supplier<UserFinancialContext> loader) {
+        Optional<UserIdentity> identity = userIdentityCache.find(email);
+        if (identity.isEmpty()) {
+            // Unknown user: let the loader fail (or succeed) as it would without the cache
+            misses.increment();
+            return serialize(loader.get());
+        }
+
+        int userId = identity.get().userId();
+        // Read the version before building, so a change made meanwhile makes this snapshot stale
+        long version = userChangeTracker.getDataVersion(userId);
+        RawValue cached = lookup(userId, email, version);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        RawValue json = serialize(loader.get());
+        store(userId, new Snapshot(email, version, json, estimateBytes(json),
+                System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        return json;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), snapshots.size(), totalBytes, maxBytes);
+    }
+
+    private synchronized RawValue lookup(int userId, String email, long version) {
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            return null;
+        }
+        if (snapshot.version() != version || !snapshot.email().equals(email)
+                || System.nanoTime() - snapshot.expiresAtNanos() >= 0) {
+            snapshots.remove(userId);
+            totalBytes -= snapshot.bytes();
+            return null;
+        }
+        return snapshot.json();
+    }
+
+    private synchronized void store(int userId, Snapshot snapshot) {
+        if (snapshot.bytes() > maxBytes) {
+            log.debug("Chatbot context for user {} ({} bytes) exceeds the cache budget, not caching",
+                    userId, snapshot.bytes());
+            return;
+        }
+
+        Snapshot previous = snapshots.put(userId, snapshot);
+        if (previous != null) {
+            totalBytes -= previous.bytes();
+        }
+        totalBytes += snapshot.bytes();
+
+        // Evict least recently used snapshots until back within budget
+        Iterator<Map.Entry<Integer, Snapshot>> eldest = snapshots.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Integer, Snapshot> entry = eldest.next();
+            if (entry.getKey() == userId) {
+                continue;
+            }
+            totalBytes -= entry.getValue().bytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private RawValue serialize(UserFinancialContext context) {
+        try {
+            return new RawValue(objectMapper.writeValueAsString(context));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize user context");
+        }
+    }
+
+    // Upper bound of the retained size: two bytes per char plus object overhead
+    private static long estimateBytes(RawValue json) {
+        return 2L * ((String) json.rawValue()).length() + 64;
+    }
+}
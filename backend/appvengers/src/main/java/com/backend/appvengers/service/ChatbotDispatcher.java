@@ -0,0 +1,194 @@
+package com.backend.appvengers.service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs chatbot calls off the request thread.
+ *
+ * Each call runs on its own virtual thread, so a slow n8n webhook (timeouts,
+ * retry backoff) parks a virtual thread instead of holding a Tomcat worker.
+ * At most {@code chatbot.async.max-concurrent} calls talk to n8n at once; further
+ * calls wait in a bounded queue, and submissions beyond the queue are rejected.
+ * A call that waits longer than {@code chatbot.async.queue-timeout-ms} fails with
+ * {@link BusyException}, so callers can answer 503 like for a full queue.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatbotDispatcher {
+
+    /**
+     * Seconds a client is asked to wait before retrying when the chatbot is busy.
+     */
+    public static final int RETRY_AFTER_SECONDS = 5;
+
+    private final ChatbotService chatbotService;
+
+    @Value("${chatbot.async.max-concurrent:32}")
+    private int maxConcurrent;
+
+    @Value("${chatbot.async.max-queued:200}")
+    private int maxQueued;
+
+    @Value("${chatbot.async.queue-timeout-ms:30000}")
+    private long queueTimeoutMs;
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chatbot-", 0).factory());
+
+    private Semaphore permits;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder dequeued = new LongAdder();
+    private final LongAdder totalQueueWaitMillis = new LongAdder();
+    private final AtomicLong maxQueueWaitMillis = new AtomicLong();
+
+    /**
+     * Dispatcher load and queueing statistics for monitoring.
+     */
+    public record Stats(int active, int queued, int maxConcurrent, int maxQueued,
+                        long submitted, long completed, long failed, long rejected, long timedOut,
+                        double averageQueueWaitMillis, long maxQueueWaitMillis) {}
+
+    /**
+     * A queued call gave up waiting for a free slot; the chatbot was never called.
+     */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        log.info("ChatbotDispatcher initialized with {} concurrent calls, {} queued", maxConcurrent, maxQueued);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Submit a chatbot message for asynchronous processing.
+     *
+     * @return The pending response, or empty if the queue is full. The response fails with
+     *         {@link BusyException} if it waits too long in the queue.
+     */
+    public Optional<CompletableFuture<Object>> trySubmit(String message, String userEmail,
+                                                        String sessionId, String jwtToken) {
+        return submit(userEmail, () -> chatbotService.sendMessage(message, userEmail, sessionId, jwtToken));
+    }
+
+    /**
+     * Submit a chatbot message whose answer is relayed in chunks as n8n streams it.
+     * Streams share the concurrency limit and queue with regular calls.
+     *
+     * @param onChunk Receives each piece of the answer, on the worker thread
+     * @return The pending complete response, or empty if the queue is full
+     */
+    public Optional<CompletableFuture<Object>> trySubmitStream(String message, String userEmail, String sessionId,
+                                                              String jwtToken, Consumer<String> onChunk) {
+        return submit(userEmail,
+                () -> chatbotService.streamMessage(message, userEmail, sessionId, jwtToken, onChunk));
+    }
+
+    private Optional<CompletableFuture<Object>> submit(String userEmail, Supplier<Object> call) {
+        // Only take a free slot directly when nobody is waiting, so queued calls keep their turn
+        boolean acquired = queued.get() == 0 && permits.tryAcquire();
+        if (!acquired) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.increment();
+                log.warn("Chatbot queue full ({} waiting), rejecting request for user: {}", maxQueued, userEmail);
+                return Optional.empty();
+            }
+        }
+
+        submitted.increment();
+        long enqueuedAt = System.nanoTime();
+        return Optional.of(CompletableFuture.supplyAsync(
+                () -> run(call, userEmail, acquired, enqueuedAt), executor));
+    }
+
+    public Stats getStats() {
+        long waits = dequeued.sum();
+        return new Stats(active.get(), queued.get(), maxConcurrent, maxQueued,
+                submitted.sum(), completed.sum(), failed.sum(), rejected.sum(), timedOut.sum(),
+                waits == 0 ? 0.0 : (double) totalQueueWaitMillis.sum() / waits,
+                maxQueueWaitMillis.get());
+    }
+
+    private Object run(Supplier<Object> call, String userEmail, boolean acquired, long enqueuedAt) {
+        if (!acquired) {
+            try {
+                if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    timedOut.increment();
+                    log.warn("Chatbot request for user {} waited {} ms in queue, giving up", userEmail, queueTimeoutMs);
+                    throw new BusyException("Chatbot request waited " + queueTimeoutMs + " ms in queue");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusyException("Interrupted while waiting in the chatbot queue");
+            } finally {
+                queued.decrementAndGet();
+            }
+            recordQueueWait(enqueuedAt);
+        }
+
+        active.incrementAndGet();
+        try {
+            Object response = call.get();
+            completed.increment();
+            return response;
+        } catch (RuntimeException e) {
+            failed.increment();
+            throw e;
+        } finally {
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    private void recordQueueWait(long enqueuedAt) {
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt);
+        dequeued.increment();
+        totalQueueWaitMillis.add(waitMillis);
+        maxQueueWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    /**
+     * Response body returned when the chatbot has no capacity left for a request.
+     */
+    public static Map<String, String> busyResponse() {
+        return Map.of(
+                "error", "Chatbot is busy.",
+                "output", "Sorry, I'm handling a lot of conversations right now. Please try again in a few moments.");
+    }
+}
@@ -0,0 +1,171 @@
+package com.backend.appvengers.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.appvengers.security.UserIdentityCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user cache of chatbot answers to repeated questions.
+ *
+ * Answers are keyed on the user, the chat session and the normalized (sanitized,
+ * lower-cased, whitespace-collapsed) question, and tagged with the user's data version from
+ * {@link UserChangeTracker}: asking the same question again while the user's
+ * transactions, budgets and savings are unchanged returns the previous answer
+ * without a webhook call. The agent answers in the context of the conversation,
+ * so an answer is only reused within the session it was given in, and very short
+ * messages ("yes", "why?") that only make sense in context are never cached.
+ * Entries are kept in LRU order within a total size budget and expire after a TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatbotResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?!.]+$");
+
+    private final UserIdentityCache userIdentityCache;
+    private final UserChangeTracker userChangeTracker;
+
+    @Value("${chatbot.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chatbot.response-cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    @Value("${chatbot.response-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${chatbot.response-cache.min-length:10}")
+    private int minLength;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Question, Answer> answers = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Cache key of a question, with the user's data version at the time it was asked.
+     * Take the key before calling the chatbot, so a change made meanwhile makes the answer stale.
+     */
+    public record Key(Question question, long version) {}
+
+    public record Question(int userId, String sessionId, String text) {}
+
+    /**
+     * Cache statistics for monitoring.
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes, long maxBytes) {}
+
+    private record Answer(long version, Object response, long bytes, long expiresAtNanos) {}
+
+    /**
+     * Build the cache key for a user's question.
+     *
+     * @param email Authenticated user's email
+     * @param sessionId Chat session the question is asked in (may be null)
+     * @param message Sanitized message
+     * @return The key, or empty when caching is disabled, the user is unknown or the
+     *         message is too short to be answered out of context
+     */
+    public Optional<Key> keyFor(String email, String sessionId, String message) {
+        if (!enabled || email == null || message == null) {
+            return Optional.empty();
+        }
+        String text = normalize(message);
+        if (text.length() < minLength) {
+            return Optional.empty();
+        }
+        return userIdentityCache.find(email).map(identity -> new Key(
+                new Question(identity.userId(), sessionId, text),
+                userChangeTracker.getDataVersion(identity.userId())));
+    }
+
+    /**
+     * Get the cached answer for the key, or null on a miss.
+     */
+    public Object get(Key key) {
+        Object response = lookup(key);
+        if (response == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return response;
+    }
+
+    /**
+     * Cache a chatbot answer. Error responses are not cached.
+     */
+    public void put(Key key, Object response) {
+        if (response == null || (response instanceof Map<?, ?> map && map.containsKey("error"))) {
+            return;
+        }
+        long bytes = 2L * (key.question().text().length() + String.valueOf(response).length()) + 128;
+        store(key.question(), new Answer(key.version(), response, bytes,
+                System.nanoTime() + ttlSeconds * 1_000_000_000L));
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), answers.size(), totalBytes, maxBytes);
+    }
+
+    static String normalize(String message) {
+        String collapsed = WHITESPACE.matcher(message.strip().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(collapsed).replaceAll("");
+    }
+
+    private synchronized Object lookup(Key key) {
+        Answer answer = answers.get(key.question());
+        if (answer == null) {
+            return null;
+        }
+        if (answer.version() != key.version() || System.nanoTime() - answer.expiresAtNanos() >= 0) {
+            answers.remove(key.question());
+            totalBytes -= answer.bytes();
+            return null;
+        }
+        return answer.response();
+    }
+
+    private synchronized void store(Question question, Answer answer) {
+        if (answer.bytes() > maxBytes) {
+            return;
+        }
+
+        Answer previous = answers.put(question, answer);
+        if (previous != null) {
+            totalBytes -= previous.bytes();
+        }
+        totalBytes += answer.bytes();
+
+        // Evict least recently used answers until back within budget
+        Iterator<Map.Entry<Question, Answer>> eldest = answers.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Question, Answer> entry = eldest.next();
+            if (entry.getKey().equals(question)) {
+                continue;
+            }
+            totalBytes -= entry.getValue().bytes();
+            eldest.remove();
+            evictions.increment();
+        }
+        log.debug("Cached chatbot answer for user {} ({} answers, {} bytes)", question.userId(),
+                answers.size(), totalBytes);
+    }
+}
@@ -1,6 +1,5 @@
 package com.backend.appvengers.service;
 
-import com.backend.appvengers.dto.UserFinancialContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,11 +12,31 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.security.SecureRandom;
 
 @Slf4j
@@ -37,7 +56,33 @@ public class ChatbotService {
     @Value("${n8n.webhook.failover.timeout:15000}")
     private long failoverTimeout;
 
+    // Off by default: a hedged request runs the agent twice, so both webhooks append the
+    // turn to the session's agent memory and the LLM is billed for both calls
+    @Value("${n8n.webhook.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${n8n.webhook.hedge.percentile:95}")
+    private double hedgePercentile;
+
+    @Value("${n8n.webhook.hedge.min-delay-ms:2000}")
+    private long hedgeMinDelayMs;
+
+    // Samples needed before the observed percentile replaces the failover timeout as hedge delay
+    private static final int HEDGE_MIN_SAMPLES = 20;
+
+    // Calls currently talking to n8n, keyed by conversation and message, so duplicates can join them
+    private final ConcurrentHashMap<InFlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    private record InFlightKey(String traceableSessionId, String message) {}
+
+    private final ExecutorService webhookExecutor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("n8n-webhook-", 0).factory());
+
     private final UserContextService userContextService;
+    private final ChatbotContextCache chatbotContextCache;
+    private final WebhookHealthTracker webhookHealthTracker;
+    private final ObjectMapper objectMapper;
     private final RestTemplate restTemplate; // Injected from RestTemplateConfig
 
     /**
@@ -47,6 +92,15 @@ public class ChatbotService {
      * The JWT token is forwarded to n8n for webhook authentication.
      * 
      * Implements automatic failover to fallback webhook if primary fails.
+     * In hedging mode (opt-in) the fallback is also started when the primary has not
+     * answered within the hedge delay; the first usable response wins. Both agents
+     * still run to completion, so the turn is stored twice in the session's agent
+     * memory and the LLM cost of a hedged request doubles.
+     * A webhook whose circuit is open (see {@link WebhookHealthTracker}) is skipped
+     * and the request goes straight to the other one.
+     * A duplicate of a call that is still in flight (same session and message,
+     * e.g. a double submit or client retry) waits for and shares that call's
+     * response instead of calling n8n again.
      * Retries up to 3 times with exponential backoff (3s, 6s, 12s) on transient errors.
      * Total retry window: ~21 seconds between attempts, plus 45s connect timeout per attempt.
      *
@@ -62,6 +116,128 @@ public class ChatbotService {
         backoff = @Backoff(delay = 3000, multiplier = 2)
     )
     public Object sendMessage(String message, String userEmail, String sessionId, String jwtToken) {
+        String traceableSessionId = buildTraceableSessionId(sessionId, userEmail);
+        InFlightKey key = new InFlightKey(traceableSessionId, message);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.info("Joining in-flight chatbot call for session {}", traceableSessionId);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            Object response = send(buildRequest(message, userEmail, traceableSessionId, jwtToken));
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Number of calls that joined an identical in-flight call instead of calling n8n.
+     */
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    private Object send(HttpEntity<Map<String, Object>> request) {
+        if (hedgeEnabled) {
+            return sendHedged(request);
+        }
+        
+        // Try primary webhook first, unless its circuit is open
+        if (isAllowed("Primary")) {
+            log.info("[Primary] Sending request to n8n webhook: {}", n8nWebhookUrl);
+            Object primaryResponse = tryWebhook(request, n8nWebhookUrl, "Primary");
+
+            // The fallback would reject the request the same way
+            if (primaryResponse instanceof ClientErrorResponse) {
+                return primaryResponse;
+            }
+
+            // If primary succeeds, return immediately
+            if (primaryResponse != null && !isErrorResponse(primaryResponse)) {
+                log.info("[Primary] Successfully received response from primary webhook");
+                return primaryResponse;
+            }
+            log.warn("[Fallback] Primary webhook failed or returned error, attempting fallback webhook: {}", n8nWebhookFallbackUrl);
+        }
+        
+        // If primary fails or is unavailable, try fallback webhook
+        if (isAllowed("Fallback")) {
+            Object fallbackResponse = tryWebhook(request, n8nWebhookFallbackUrl, "Fallback");
+
+            if (fallbackResponse instanceof ClientErrorResponse) {
+                return fallbackResponse;
+            }
+
+            // If fallback succeeds, return
+            if (fallbackResponse != null && !isErrorResponse(fallbackResponse)) {
+                log.info("[Fallback] Successfully received response from fallback webhook");
+                return fallbackResponse;
+            }
+        }
+        
+        // Both webhooks failed, return generic error
+        log.error("[Failover] Both primary and fallback webhooks failed");
+        return allWebhooksFailedResponse();
+    }
+
+    /**
+     * Sends a message to the AI chatbot and relays the answer in chunks as the n8n
+     * webhook streams them. Accepts both n8n's streaming format (one JSON object
+     * per chunk: begin, item..., end) and a regular single JSON reply, which is
+     * relayed as one chunk.
+     *
+     * Falls back to the fallback webhook only if the primary fails before sending
+     * any chunk; a stream is never hedged or retried once output has been relayed.
+     *
+     * @param onChunk Receives each piece of the answer, in order, on the calling thread
+     * @return The complete response ({@code output} holds the full answer), or an error response
+     */
+    public Object streamMessage(String message, String userEmail, String sessionId, String jwtToken,
+                                Consumer<String> onChunk) {
+        HttpEntity<Map<String, Object>> request = buildRequest(message, userEmail,
+                buildTraceableSessionId(sessionId, userEmail), jwtToken);
+        AtomicBoolean relayed = new AtomicBoolean();
+
+        if (isAllowed("Primary")) {
+            log.info("[Primary] Streaming request to n8n webhook: {}", n8nWebhookUrl);
+            Object primaryResponse = tryStreamWebhook(request, n8nWebhookUrl, "Primary", onChunk, relayed);
+            if (primaryResponse instanceof ClientErrorResponse) {
+                return primaryResponse;
+            }
+            if (relayed.get() || (primaryResponse != null && !isErrorResponse(primaryResponse))) {
+                return primaryResponse != null ? primaryResponse : streamInterruptedResponse();
+            }
+            log.warn("[Fallback] Primary webhook stream failed, attempting fallback webhook: {}", n8nWebhookFallbackUrl);
+        }
+
+        if (isAllowed("Fallback")) {
+            Object fallbackResponse = tryStreamWebhook(request, n8nWebhookFallbackUrl, "Fallback", onChunk, relayed);
+            if (fallbackResponse instanceof ClientErrorResponse) {
+                return fallbackResponse;
+            }
+            if (relayed.get() || (fallbackResponse != null && !isErrorResponse(fallbackResponse))) {
+                return fallbackResponse != null ? fallbackResponse : streamInterruptedResponse();
+            }
+        }
+
+        log.error("[Failover] Both primary and fallback webhook streams failed");
+        return allWebhooksFailedResponse();
+    }
+
+    private HttpEntity<Map<String, Object>> buildRequest(String message, String userEmail,
+                                                         String traceableSessionId, String jwtToken) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         
@@ -77,60 +253,259 @@ public class ChatbotService {
         Map<String, Object> body = new HashMap<>();
         body.put("message", message);
         
-        // Build traceable session ID with user email prefix
-        String traceableSessionId = buildTraceableSessionId(sessionId, userEmail);
+        // Traceable session ID with user email prefix
         body.put("sessionId", traceableSessionId);
         log.debug("Using traceable session ID: {}", traceableSessionId);
 
-        // Fetch and include user's financial context
+        // Fetch and include user's financial context (reused while the user's data is unchanged)
         try {
-            UserFinancialContext userContext = userContextService.buildUserContext(userEmail);
-            body.put("userContext", userContext);
+            body.put("userContext", chatbotContextCache.getSerializedContext(userEmail,
+                    () -> userContextService.buildUserContext(userEmail)));
         } catch (Exception e) {
             log.error("Failed to fetch user context for {}: {}", userEmail, e.getMessage());
             body.put("userContextError", "Could not fetch user financial data");
         }
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-        
-        // Try primary webhook first
-        log.info("[Primary] Sending request to n8n webhook: {}", n8nWebhookUrl);
-        Object primaryResponse = tryWebhook(request, n8nWebhookUrl, "Primary");
-        
-        // If primary succeeds, return immediately
-        if (primaryResponse != null && !isErrorResponse(primaryResponse)) {
-            log.info("[Primary] Successfully received response from primary webhook");
-            return primaryResponse;
+        return new HttpEntity<>(body, headers);
+    }
+
+    /**
+     * Sends the request to the primary webhook and, if it has not answered within
+     * the hedge delay (or fails sooner), to the fallback as well. Returns the first
+     * usable response (or a client error, which the other webhook would return as
+     * well) and cancels the other call. Webhooks with an open circuit are not called.
+     */
+    private Object sendHedged(HttpEntity<Map<String, Object>> request) {
+        ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(webhookExecutor);
+        long hedgeDelay = currentHedgeDelay();
+
+        Future<Object> primary = startIfAllowed(completion, request, n8nWebhookUrl, "Primary");
+        Future<Object> fallback = null;
+        boolean fallbackTried = false;
+        if (primary != null) {
+            log.info("[Primary] Sending request to n8n webhook: {} (hedge after {} ms)", n8nWebhookUrl, hedgeDelay);
+        } else {
+            fallback = startIfAllowed(completion, request, n8nWebhookFallbackUrl, "Fallback");
+            fallbackTried = true;
         }
-        
-        // If primary fails, try fallback webhook
-        log.warn("[Fallback] Primary webhook failed or returned error, attempting fallback webhook: {}", n8nWebhookFallbackUrl);
-        Object fallbackResponse = tryWebhook(request, n8nWebhookFallbackUrl, "Fallback");
-        
-        // If fallback succeeds, return
-        if (fallbackResponse != null && !isErrorResponse(fallbackResponse)) {
-            log.info("[Fallback] Successfully received response from fallback webhook");
-            return fallbackResponse;
+        int outstanding = (primary != null ? 1 : 0) + (fallback != null ? 1 : 0);
+
+        try {
+            while (outstanding > 0) {
+                Future<Object> done = fallbackTried
+                        ? completion.take()
+                        : completion.poll(hedgeDelay, TimeUnit.MILLISECONDS);
+
+                if (done == null) {
+                    log.warn("[Hedge] Primary webhook has not answered within {} ms, also trying fallback: {}",
+                            hedgeDelay, n8nWebhookFallbackUrl);
+                    fallback = startIfAllowed(completion, request, n8nWebhookFallbackUrl, "Fallback");
+                    fallbackTried = true;
+                    outstanding += fallback != null ? 1 : 0;
+                    continue;
+                }
+
+                outstanding--;
+                Object response = done.get();
+                if (response instanceof ClientErrorResponse) {
+                    return response;
+                }
+                if (response != null && !isErrorResponse(response)) {
+                    String winner = done == primary ? "Primary" : "Fallback";
+                    log.info("[{}] Successfully received response from {} webhook", winner, winner.toLowerCase());
+                    return response;
+                }
+
+                if (!fallbackTried) {
+                    log.warn("[Fallback] Primary webhook failed or returned error, attempting fallback webhook: {}",
+                            n8nWebhookFallbackUrl);
+                    fallback = startIfAllowed(completion, request, n8nWebhookFallbackUrl, "Fallback");
+                    fallbackTried = true;
+                    outstanding += fallback != null ? 1 : 0;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("[Hedge] Webhook call failed unexpectedly: {}", e.getCause().getMessage());
+        } finally {
+            // Cancel whichever call is still running
+            if (primary != null) {
+                primary.cancel(true);
+            }
+            if (fallback != null) {
+                fallback.cancel(true);
+            }
         }
-        
-        // Both webhooks failed, return generic error
+
         log.error("[Failover] Both primary and fallback webhooks failed");
+        return allWebhooksFailedResponse();
+    }
+
+    /**
+     * Hedge delay: the configured percentile of recent primary latencies, kept between
+     * the minimum delay and the failover timeout. Until enough samples are collected
+     * the failover timeout is used.
+     */
+    long currentHedgeDelay() {
+        if (webhookHealthTracker.latencySamples("Primary") < HEDGE_MIN_SAMPLES) {
+            return failoverTimeout;
+        }
+        long observed = webhookHealthTracker.latencyPercentile("Primary", hedgePercentile);
+        return Math.min(failoverTimeout, Math.max(hedgeMinDelayMs, observed));
+    }
+
+    private Future<Object> startIfAllowed(ExecutorCompletionService<Object> completion,
+                                          HttpEntity<Map<String, Object>> request,
+                                          String webhookUrl, String webhookLabel) {
+        if (!isAllowed(webhookLabel)) {
+            return null;
+        }
+        return completion.submit(() -> tryWebhook(request, webhookUrl, webhookLabel));
+    }
+
+    private boolean isAllowed(String webhookLabel) {
+        if (webhookHealthTracker.allowRequest(webhookLabel)) {
+            return true;
+        }
+        log.warn("[{}] Circuit open, skipping {} webhook", webhookLabel, webhookLabel.toLowerCase());
+        return false;
+    }
+
+    private Map<String, String> streamInterruptedResponse() {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Chatbot response was interrupted.");
+        errorResponse.put("output", "Sorry, my answer was cut off. Please try again.");
+        return errorResponse;
+    }
+
+    private Map<String, String> allWebhooksFailedResponse() {
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", "All chatbot services are currently unavailable.");
         errorResponse.put("output", "Sorry, I'm experiencing technical difficulties. Please try again in a few moments.");
         return errorResponse;
     }
     
+    /**
+     * Calls a webhook and records the outcome and latency with the health tracker.
+     * Only server errors, timeouts and connection errors count against the webhook;
+     * a client error (4xx) means the endpoint is up but refused this request, and
+     * calls interrupted by hedge cancellation are not counted either.
+     */
+    private Object tryWebhook(HttpEntity<Map<String, Object>> request, String webhookUrl, String webhookLabel) {
+        long startNanos = System.nanoTime();
+        Object response;
+        try {
+            response = callWebhook(request, webhookUrl, webhookLabel);
+        } catch (HttpClientErrorException e) {
+            webhookHealthTracker.recordRejected(webhookLabel);
+            return clientError(webhookLabel, e);
+        }
+        recordOutcome(webhookLabel, response, startNanos);
+        return response;
+    }
+
+    /**
+     * Streams a webhook response into the chunk consumer and records the outcome.
+     * Returns null if the call fails or the stream ends without any answer;
+     * {@code relayed} tells whether chunks were already passed on before that.
+     */
+    private Object tryStreamWebhook(HttpEntity<Map<String, Object>> request, String webhookUrl, String webhookLabel,
+                                    Consumer<String> onChunk, AtomicBoolean relayed) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        HttpEntity<Map<String, Object>> streamRequest = new HttpEntity<>(request.getBody(), headers);
+
+        long startNanos = System.nanoTime();
+        Object response;
+        try {
+            response = restTemplate.execute(webhookUrl, HttpMethod.POST,
+                    restTemplate.httpEntityCallback(streamRequest),
+                    httpResponse -> readStream(httpResponse, onChunk, relayed));
+        } catch (HttpClientErrorException e) {
+            webhookHealthTracker.recordRejected(webhookLabel);
+            return clientError(webhookLabel, e);
+        } catch (Exception e) {
+            log.error("[{}] n8n stream failed: {}", webhookLabel, e.getMessage());
+            response = null;
+        }
+        recordOutcome(webhookLabel, response, startNanos);
+        return response;
+    }
+
+    /**
+     * Reads consecutive JSON values from the response as they arrive, passing
+     * each streamed item's content to the consumer immediately.
+     */
+    private Object readStream(ClientHttpResponse httpResponse, Consumer<String> onChunk, AtomicBoolean relayed)
+            throws IOException {
+        StringBuilder output = new StringBuilder();
+        try (MappingIterator<JsonNode> values = objectMapper.readerFor(JsonNode.class)
+                .readValues(httpResponse.getBody())) {
+            while (values.hasNextValue()) {
+                JsonNode value = values.nextValue();
+                if (value.isArray() && !value.isEmpty()) {
+                    value = value.get(0);
+                }
+
+                switch (value.path("type").asText("")) {
+                    case "item" -> {
+                        String content = value.path("content").asText("");
+                        if (!content.isEmpty()) {
+                            output.append(content);
+                            relayed.set(true);
+                            onChunk.accept(content);
+                        }
+                    }
+                    case "begin", "end" -> {
+                        // Stream framing, no content
+                    }
+                    case "error" -> throw new IOException("n8n stream error: " + value.path("content").asText());
+                    default -> {
+                        // Regular (non-streaming) reply: the whole answer in one object
+                        Object reply = objectMapper.convertValue(value, Object.class);
+                        String text = value.path("output").asText("");
+                        if (!isErrorResponse(reply) && !text.isEmpty()) {
+                            relayed.set(true);
+                            onChunk.accept(text);
+                        }
+                        return reply;
+                    }
+                }
+            }
+        }
+
+        if (output.isEmpty()) {
+            return null;
+        }
+        Map<String, String> reply = new HashMap<>();
+        reply.put("output", output.toString());
+        return reply;
+    }
+
+    private void recordOutcome(String webhookLabel, Object response, long startNanos) {
+        if (Thread.currentThread().isInterrupted()) {
+            webhookHealthTracker.recordCancelled(webhookLabel);
+        } else if (response != null && !isErrorResponse(response)) {
+            webhookHealthTracker.recordSuccess(webhookLabel,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } else {
+            webhookHealthTracker.recordFailure(webhookLabel);
+        }
+    }
+
     /**
      * Attempts to send a request to a specific webhook URL and handles errors.
      * Returns null if the webhook fails (timeout, server error, etc.).
+     * Client errors (4xx) are thrown to the caller.
      * 
      * @param request The HTTP request entity to send
      * @param webhookUrl The webhook URL to send to
      * @param webhookLabel Label for logging (e.g., "Primary" or "Fallback")
      * @return Response object if successful, null if failed
      */
-    private Object tryWebhook(HttpEntity<Map<String, Object>> request, String webhookUrl, String webhookLabel) {
+    private Object callWebhook(HttpEntity<Map<String, Object>> request, String webhookUrl, String webhookLabel) {
         try {
             ResponseEntity<Object> response = restTemplate.postForEntity(webhookUrl, request, Object.class);
             log.info("[{}] n8n response status: {}", webhookLabel, response.getStatusCode());
@@ -144,17 +519,7 @@ public class ChatbotService {
             
             return responseBody;
         } catch (HttpClientErrorException e) {
-            log.error("[{}] n8n client error ({}): {}", webhookLabel, e.getStatusCode(), e.getResponseBodyAsString());
-            // For 404 errors (workflow not active), trigger fallback instead of returning error
-            if (e.getStatusCode().value() == 404) {
-                log.warn("[{}] Webhook not found or workflow inactive (404), triggering fallback", webhookLabel);
-                return null; // Trigger fallback
-            }
-            // For other client errors (401, 403), return error response
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Authentication failed with chatbot service.");
-            errorResponse.put("output", "Sorry, I couldn't authenticate with the AI service. Status: " + e.getStatusCode());
-            return errorResponse;
+            throw e; // Not a webhook failure, handled by the caller
         } catch (HttpServerErrorException e) {
             log.error("[{}] n8n server error ({}): {}", webhookLabel, e.getStatusCode(), e.getResponseBodyAsString());
             return null; // Trigger fallback
@@ -167,6 +532,39 @@ public class ChatbotService {
         }
     }
     
+    @PreDestroy
+    public void shutdown() {
+        webhookExecutor.shutdownNow();
+    }
+
+    /**
+     * Error response for a request n8n refused; returned to the caller as is,
+     * without trying the other webhook.
+     */
+    private static final class ClientErrorResponse extends HashMap<String, String> {}
+
+    /**
+     * Maps a webhook client error. A 404 (workflow not active) is specific to that
+     * webhook, so it returns null to trigger the fallback; any other 4xx (401, 403,
+     * 400...) is returned to the caller.
+     */
+    private Object clientError(String webhookLabel, HttpClientErrorException e) {
+        log.error("[{}] n8n client error ({}): {}", webhookLabel, e.getStatusCode(), e.getResponseBodyAsString());
+        if (e.getStatusCode().value() == 404) {
+            log.warn("[{}] Webhook not found or workflow inactive (404), triggering fallback", webhookLabel);
+            return null; // Trigger fallback
+        }
+        ClientErrorResponse errorResponse = new ClientErrorResponse();
+        if (e.getStatusCode().value() == 401 || e.getStatusCode().value() == 403) {
+            errorResponse.put("error", "Authentication failed with chatbot service.");
+            errorResponse.put("output", "Sorry, I couldn't authenticate with the AI service. Status: " + e.getStatusCode());
+        } else {
+            errorResponse.put("error", "The chatbot service rejected the request.");
+            errorResponse.put("output", "Sorry, the AI service couldn't process that request. Status: " + e.getStatusCode());
+        }
+        return errorResponse;
+    }
+
     /**
      * Checks if the response is an error response.
      * 
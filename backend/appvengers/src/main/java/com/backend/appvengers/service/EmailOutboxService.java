@@ -0,0 +1,114 @@
+package com.backend.appvengers.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.backend.appvengers.entity.EmailOutbox;
+import com.backend.appvengers.repository.EmailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queues outbound email in tbl_email_outbox.
+ *
+ * Messages are written in the caller's transaction, so an email goes out if and
+ * only if the change that triggered it commits, and the request never waits on
+ * SMTP. {@link EmailOutboxWorker} delivers them after commit. An identical
+ * message that is still waiting to be sent is not queued again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private static final List<EmailOutbox.Status> UNSENT =
+            List.of(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxWorker emailOutboxWorker;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * Outbox statistics for monitoring.
+     */
+    public record Stats(long enqueued, long deduplicated, long pending, EmailOutboxWorker.Stats delivery) {}
+
+    @Transactional
+    public void enqueueVerification(String to, String username, String verificationLink) {
+        enqueue(EmailOutbox.Kind.VERIFICATION, to, "Verify your iBudget account", username, verificationLink, null);
+    }
+
+    @Transactional
+    public void enqueuePasswordReset(String to, String username, String resetLink) {
+        enqueue(EmailOutbox.Kind.PASSWORD_RESET, to, "Reset Your iBudget Password", username, resetLink, null);
+    }
+
+    @Transactional
+    public void enqueueNotice(String to, String subject, String text) {
+        enqueue(EmailOutbox.Kind.NOTICE, to, subject, null, null, text);
+    }
+
+    public Stats getStats() {
+        return new Stats(enqueued.sum(), deduplicated.sum(),
+                emailOutboxRepository.countByStatus(EmailOutbox.Status.PENDING), emailOutboxWorker.getStats());
+    }
+
+    private void enqueue(EmailOutbox.Kind kind, String to, String subject, String username, String link,
+                         String body) {
+        String dedupKey = dedupKey(kind, to, subject, link, body);
+        if (emailOutboxRepository.existsByDedupKeyAndStatusIn(dedupKey, UNSENT)) {
+            deduplicated.increment();
+            log.debug("Identical {} email to {} is already queued", kind, to);
+            return;
+        }
+
+        EmailOutbox email = new EmailOutbox();
+        email.setKind(kind);
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setUsername(username);
+        email.setLink(link);
+        email.setBody(body);
+        email.setDedupKey(dedupKey);
+        email.setNextAttemptAt(LocalDateTime.now());
+        emailOutboxRepository.save(email);
+        enqueued.increment();
+
+        long id = email.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxWorker.submit(id);
+                }
+            });
+        } else {
+            emailOutboxWorker.submit(id);
+        }
+    }
+
+    static String dedupKey(EmailOutbox.Kind kind, String to, String subject, String link, String body) {
+        String content = String.join("\u0000", kind.name(), to.toLowerCase(Locale.ROOT), subject,
+                String.valueOf(link), String.valueOf(body));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.backend.appvengers.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.backend.appvengers.entity.EmailOutbox;
+import com.backend.appvengers.repository.EmailOutboxRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the messages in tbl_email_outbox on a bounded pool of worker threads.
+ *
+ * New messages are handed over right after their transaction commits; a poller
+ * picks up whatever that misses (a full queue, a restart, retries that have come
+ * due). Each send first claims the row with a lease, so several backend instances
+ * never send the same message at once, and a worker that dies mid-send only
+ * delays the message until the lease ends. Failed sends are retried with
+ * exponential backoff up to {@code email.outbox.max-attempts}; verification and
+ * password reset emails are dropped instead once their link has expired.
+ * Sent and failed messages are purged after {@code email.outbox.retention-days}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxWorker {
+
+    private static final List<EmailOutbox.Status> DUE =
+            List.of(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING);
+
+    private static final List<EmailOutbox.Status> FINISHED =
+            List.of(EmailOutbox.Status.SENT, EmailOutbox.Status.FAILED);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+
+    @Value("${app.email.from:noreply@ibudget.site}")
+    private String emailFrom;
+
+    @Value("${email.outbox.workers:4}")
+    private int workers;
+
+    @Value("${email.outbox.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${email.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Value("${email.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    @Value("${email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.verification.expiration:24}")
+    private long verificationExpirationHours;
+
+    private ThreadPoolExecutor executor;
+
+    // Messages queued or being sent by this instance, so the poller does not queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder totalSendMillis = new LongAdder();
+    private final long startedAtNanos = System.nanoTime();
+
+    /**
+     * Delivery statistics for monitoring. Throughput is averaged since startup.
+     */
+    public record Stats(int workers, int queued, int inFlight, long sent, long retried, long failed,
+                        long expired, long rejected, double averageSendMillis, double sentPerMinute) {}
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("email-outbox-", 0).daemon().factory());
+        log.info("EmailOutboxWorker initialized with {} workers, queue of {}", workers, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        // Unfinished sends keep their lease and are retried after restart
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a committed message for delivery. When the queue is full the message
+     * is left for the poller.
+     */
+    public void submit(long id) {
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> deliver(id));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            rejected.increment();
+            log.debug("Email outbox queue full, message {} left for the poller", id);
+        }
+    }
+
+    /**
+     * Queue messages that are due: never handed over, retries, or expired leases.
+     */
+    @Scheduled(initialDelayString = "${email.outbox.poll-interval-ms:5000}",
+               fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        int room = Math.min(batchSize, executor.getQueue().remainingCapacity());
+        if (room == 0) {
+            return;
+        }
+        List<Long> due = emailOutboxRepository.findDueIds(DUE, LocalDateTime.now(), PageRequest.of(0, room));
+        if (!due.isEmpty()) {
+            log.debug("Email outbox poll found {} due messages", due.size());
+            due.forEach(this::submit);
+        }
+    }
+
+    /**
+     * Delete sent and failed messages whose last attempt is older than the retention.
+     */
+    @Scheduled(initialDelayString = "${email.outbox.purge-interval-ms:3600000}",
+               fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = emailOutboxRepository.deleteFinishedBefore(FINISHED,
+                LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            log.info("Purged {} finished messages older than {} days from the email outbox", purged, retentionDays);
+        }
+    }
+
+    public Stats getStats() {
+        double minutes = (System.nanoTime() - startedAtNanos) / 60_000_000_000.0;
+        long sentCount = sent.sum();
+        return new Stats(workers, executor == null ? 0 : executor.getQueue().size(), inFlight.size(),
+                sentCount, retried.sum(), failed.sum(), expired.sum(), rejected.sum(),
+                sentCount == 0 ? 0.0 : (double) totalSendMillis.sum() / sentCount,
+                minutes <= 0 ? 0.0 : sentCount / minutes);
+    }
+
+    void deliver(long id) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (emailOutboxRepository.claim(id, DUE, EmailOutbox.Status.SENDING, now,
+                    now.plus(leaseMs, ChronoUnit.MILLIS)) == 0) {
+                return; // Already sent, not due yet, or claimed by another instance
+            }
+            EmailOutbox email = emailOutboxRepository.findById(id).orElse(null);
+            if (email == null) {
+                return;
+            }
+            if (isExpired(email, LocalDateTime.now())) {
+                expire(email);
+                emailOutboxRepository.save(email);
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                send(email);
+                totalSendMillis.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                sent.increment();
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setSentAt(LocalDateTime.now());
+                email.setLastError(null);
+            } catch (Exception e) {
+                scheduleRetry(email, e);
+            }
+            emailOutboxRepository.save(email);
+        } catch (RuntimeException e) {
+            // The lease runs out and the poller tries again
+            log.error("Email outbox delivery of message {} failed", id, e);
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    private void send(EmailOutbox email) throws Exception {
+        switch (email.getKind()) {
+            case VERIFICATION -> emailService.sendHtmlEmail(emailFrom, email.getRecipient(), email.getSubject(),
+                    email.getLink(), email.getUsername());
+            case PASSWORD_RESET -> emailService.sendPasswordResetEmail(emailFrom, email.getRecipient(),
+                    email.getUsername(), email.getLink());
+            case NOTICE -> emailService.sendSimpleEmail(email.getRecipient(), email.getSubject(), email.getBody());
+        }
+    }
+
+    /**
+     * Whether the message carries a verification or reset link that is no longer
+     * valid at the given time. Links are issued just before the message is queued.
+     */
+    private boolean isExpired(EmailOutbox email, LocalDateTime at) {
+        if (email.getCreatedAt() == null) {
+            return false;
+        }
+        return switch (email.getKind()) {
+            case VERIFICATION -> at.isAfter(email.getCreatedAt().plusHours(verificationExpirationHours));
+            case PASSWORD_RESET -> at.isAfter(email.getCreatedAt().plusMinutes(UserService.PASSWORD_RESET_TOKEN_MINUTES));
+            case NOTICE -> false;
+        };
+    }
+
+    private void expire(EmailOutbox email) {
+        expired.increment();
+        email.setStatus(EmailOutbox.Status.FAILED);
+        email.setLastError("Link expired before the email could be sent");
+        log.warn("Dropping {} email {} to {}: its link expired after {} attempts", email.getKind(), email.getId(),
+                email.getRecipient(), email.getAttempts());
+    }
+
+    private void scheduleRetry(EmailOutbox email, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        email.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+
+        if (email.getAttempts() >= maxAttempts) {
+            failed.increment();
+            email.setStatus(EmailOutbox.Status.FAILED);
+            log.error("Giving up on {} email {} to {} after {} attempts: {}", email.getKind(), email.getId(),
+                    email.getRecipient(), email.getAttempts(), error);
+            return;
+        }
+
+        long backoffMs = Math.min(maxBackoffMs, retryBackoffMs << Math.min(20, email.getAttempts() - 1));
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoffMs, ChronoUnit.MILLIS);
+        if (isExpired(email, nextAttemptAt)) {
+            expire(email);
+            return;
+        }
+        retried.increment();
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setNextAttemptAt(nextAttemptAt);
+        log.warn("Sending {} email {} failed (attempt {}), retrying in {} ms: {}", email.getKind(), email.getId(),
+                email.getAttempts(), backoffMs, error);
+    }
+}
@@ -1,12 +1,20 @@
 package com.backend.appvengers.service;
 
-import java.io.IOException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import jakarta.mail.Address;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
@@ -17,6 +25,13 @@ import lombok.RequiredArgsConstructor;
 public class EmailService {
 
   private final JavaMailSender emailSender;
+  private final EmailTemplateEngine emailTemplateEngine;
+  private final SmtpTransportPool smtpTransportPool;
+
+  /**
+   * Result of one message of a batch, at the message's position in the batch.
+   */
+  public record SendOutcome(int index, String recipients, boolean sent, String error) {}
 
   public void sendSimpleEmail(String to, String subject, String text) {
     SimpleMailMessage message = new SimpleMailMessage();
@@ -28,52 +43,109 @@ public class EmailService {
     emailSender.send(message);
   }
 
-  public void sendHtmlEmail(String from, String to, String subject, String verificationLink, String username) throws MessagingException, IOException {
-    MimeMessage message = emailSender.createMimeMessage();
-
-    message.setFrom(new InternetAddress(from));
-    message.setRecipients(MimeMessage.RecipientType.TO, to);
-    message.setSubject(subject);
-
-    String htmlTemplate = readFileFromClasspath("template.html");
+  public void sendHtmlEmail(String from, String to, String subject, String verificationLink, String username) throws MessagingException {
+    emailSender.send(createVerificationEmail(from, to, subject, verificationLink, username));
+  }
 
+  public MimeMessage createVerificationEmail(String from, String to, String subject, String verificationLink, String username) throws MessagingException {
     // build a resend link that leads to a frontend page which will call your resend API
     // frontend resend page (preferred) — browser click opens page which issues POST to backend
     String resendLink = "http://i-budget.site/resend-verification?email=" +
-        java.net.URLEncoder.encode(to, java.nio.charset.StandardCharsets.UTF_8);
+        URLEncoder.encode(to, StandardCharsets.UTF_8);
 
-    String htmlContent = htmlTemplate.replace("${name}", username)
-                                         .replace("${verificationLink}", verificationLink)
-                                         .replace("${resendLink}", resendLink);
+    String htmlContent = emailTemplateEngine.render(EmailTemplateEngine.VERIFICATION, Map.of(
+        "name", username,
+        "verificationLink", verificationLink,
+        "resendLink", resendLink));
 
-    message.setContent(htmlContent, "text/html; charset=utf-8");
+    return createHtmlEmail(from, to, subject, htmlContent);
+  }
 
-    emailSender.send(message);
+  public void sendPasswordResetEmail(String from, String to, String username, String resetLink) throws MessagingException {
+    emailSender.send(createPasswordResetEmail(from, to, username, resetLink));
   }
 
-  public void sendPasswordResetEmail(String from, String to, String username, String resetLink) throws MessagingException, IOException {
+  public MimeMessage createPasswordResetEmail(String from, String to, String username, String resetLink) throws MessagingException {
+    String htmlContent = emailTemplateEngine.render(EmailTemplateEngine.PASSWORD_RESET, Map.of(
+        "name", username,
+        "resetLink", resetLink));
+
+    return createHtmlEmail(from, to, "Reset Your iBudget Password", htmlContent);
+  }
+
+  public MimeMessage createHtmlEmail(String from, String to, String subject, String htmlContent) throws MessagingException {
     MimeMessage message = emailSender.createMimeMessage();
 
     message.setFrom(new InternetAddress(from));
     message.setRecipients(MimeMessage.RecipientType.TO, to);
-    message.setSubject("Reset Your iBudget Password");
-
-    String htmlTemplate = readFileFromClasspath("password-reset-template.html");
-    String htmlContent = htmlTemplate.replace("${name}", username)
-                                     .replace("${resetLink}", resetLink);
-
+    message.setSubject(subject);
     message.setContent(htmlContent, "text/html; charset=utf-8");
+    return message;
+  }
 
-    emailSender.send(message);
+  /**
+   * Send many messages over pooled SMTP connections: each connection carries
+   * many messages, with up to the pool size sending at once. A failed message
+   * does not stop the batch.
+   *
+   * @return One outcome per message, in batch order
+   */
+  public List<SendOutcome> sendBatch(List<MimeMessage> messages) {
+    SendOutcome[] outcomes = new SendOutcome[messages.size()];
+    AtomicInteger next = new AtomicInteger();
+    int workers = Math.min(smtpTransportPool.getPoolSize(), messages.size());
+
+    // Platform threads: Jakarta Mail blocks on sockets inside synchronized methods, which
+    // pins virtual threads. Closing the executor waits for every worker.
+    try (ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("smtp-batch-", 0).factory())) {
+      for (int i = 0; i < workers; i++) {
+        executor.execute(() -> drain(messages, next, outcomes));
+      }
+    }
+    return Arrays.asList(outcomes);
   }
 
-  // Read the template.html from classpath (works in both dev and production JAR)
-  public String readFileFromClasspath(String fileName) throws IOException {
-    try (var inputStream = getClass().getClassLoader().getResourceAsStream(fileName)) {
-      if (inputStream == null) {
-        throw new IOException("Template file not found: " + fileName);
+  // Send messages from the shared cursor on one connection, replacing it if it breaks
+  // or reaches the per-connection message cap
+  private void drain(List<MimeMessage> messages, AtomicInteger next, SendOutcome[] outcomes) {
+    SmtpTransportPool.PooledTransport transport = null;
+    try {
+      int index;
+      while ((index = next.getAndIncrement()) < messages.size()) {
+        MimeMessage message = messages.get(index);
+        try {
+          if (transport == null) {
+            transport = smtpTransportPool.borrow();
+          }
+          transport.send(message);
+          outcomes[index] = new SendOutcome(index, recipients(message), true, null);
+          if (transport.isExhausted()) {
+            smtpTransportPool.release(transport, true);
+            transport = null;
+          }
+        } catch (MessagingException | RuntimeException e) {
+          outcomes[index] = new SendOutcome(index, recipients(message), false, String.valueOf(e.getMessage()));
+          if (transport != null && !transport.isConnected()) {
+            smtpTransportPool.release(transport, false);
+            transport = null;
+          }
+        }
+      }
+    } finally {
+      if (transport != null) {
+        smtpTransportPool.release(transport, true);
       }
-      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String recipients(MimeMessage message) {
+    try {
+      Address[] addresses = message.getAllRecipients();
+      return addresses == null ? "" : Arrays.stream(addresses).map(Address::toString)
+          .collect(Collectors.joining(", "));
+    } catch (MessagingException e) {
+      return "";
     }
   }
 }
@@ -0,0 +1,176 @@
+package com.backend.appvengers.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Renders the HTML email templates on the classpath.
+ *
+ * Each template is read and split into literal text and {@code ${name}}
+ * placeholders once; rendering is then a single pass into a presized builder,
+ * with no I/O. Values are HTML-escaped, so user input such as a username cannot
+ * inject markup, and links stay valid inside {@code href} attributes.
+ */
+@Slf4j
+@Component
+public class EmailTemplateEngine {
+
+    public static final String VERIFICATION = "template.html";
+    public static final String PASSWORD_RESET = "password-reset-template.html";
+    public static final String NOTIFICATION_DIGEST = "notification-digest-template.html";
+    public static final String NOTIFICATION_DIGEST_ITEM = "notification-digest-item.html";
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        template(VERIFICATION);
+        template(PASSWORD_RESET);
+        template(NOTIFICATION_DIGEST);
+        template(NOTIFICATION_DIGEST_ITEM);
+        log.info("Email templates compiled: {}", templates.keySet());
+    }
+
+    /**
+     * Render a template. Every placeholder in the template must have a value.
+     *
+     * @param templateName Classpath resource name, e.g. {@link #VERIFICATION}
+     * @param values Placeholder values by name, unescaped
+     */
+    public String render(String templateName, Map<String, String> values) {
+        return render(templateName, values, Map.of());
+    }
+
+    /**
+     * Render a template where some placeholders take markup, inserted as is.
+     * Only pass markup that was itself rendered by this engine.
+     *
+     * @param html Placeholder markup by name, not escaped
+     */
+    public String render(String templateName, Map<String, String> values, Map<String, String> html) {
+        return template(templateName).render(templateName, values, html);
+    }
+
+    private Template template(String templateName) {
+        return templates.computeIfAbsent(templateName, name -> Template.compile(readFromClasspath(name)));
+    }
+
+    // Works in both dev and production JAR
+    private static String readFromClasspath(String fileName) {
+        try (InputStream inputStream = EmailTemplateEngine.class.getClassLoader().getResourceAsStream(fileName)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Template file not found: " + fileName);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read template: " + fileName, e);
+        }
+    }
+
+    static String escapeHtml(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 16);
+        appendEscaped(out, value);
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    /**
+     * A compiled template: {@code literals[i]} is followed by placeholder
+     * {@code names[i]}, and the last literal ends the document.
+     */
+    record Template(String[] literals, String[] names, int literalLength) {
+
+        static Template compile(String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            int literalStart = 0;
+            int from = 0;
+            int open;
+            while ((open = source.indexOf("${", from)) >= 0) {
+                int close = source.indexOf('}', open + 2);
+                if (close < 0) {
+                    break;
+                }
+                String name = source.substring(open + 2, close);
+                if (!isPlaceholderName(name)) {
+                    from = open + 2; // Not a placeholder, keep as text
+                    continue;
+                }
+                literals.add(source.substring(literalStart, open));
+                names.add(name);
+                literalStart = close + 1;
+                from = literalStart;
+            }
+            literals.add(source.substring(literalStart));
+
+            int literalLength = literals.stream().mapToInt(String::length).sum();
+            return new Template(literals.toArray(String[]::new), names.toArray(String[]::new), literalLength);
+        }
+
+        String render(String templateName, Map<String, String> values, Map<String, String> html) {
+            String[] resolved = new String[names.length];
+            boolean[] escape = new boolean[names.length];
+            int capacity = literalLength;
+            for (int i = 0; i < names.length; i++) {
+                String value = values.get(names[i]);
+                escape[i] = value != null;
+                if (value == null) {
+                    value = html.get(names[i]);
+                }
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for ${" + names[i] + "} in " + templateName);
+                }
+                resolved[i] = value;
+                capacity += value.length();
+            }
+
+            // Escaping rarely grows a value much; leave a little room for it
+            StringBuilder out = new StringBuilder(capacity + capacity / 16);
+            for (int i = 0; i < names.length; i++) {
+                out.append(literals[i]);
+                if (escape[i]) {
+                    appendEscaped(out, resolved[i]);
+                } else {
+                    out.append(resolved[i]);
+                }
+            }
+            return out.append(literals[names.length]).toString();
+        }
+
+        private static boolean isPlaceholderName(String name) {
+            if (name.isEmpty()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (!Character.isLetterOrDigit(name.charAt(i)) && name.charAt(i) != '_') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
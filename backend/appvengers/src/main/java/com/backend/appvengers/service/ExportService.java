@@ -0,0 +1,228 @@
+package com.backend.appvengers.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.backend.appvengers.dto.BudgetExportRow;
+import com.backend.appvengers.dto.SavingExportRow;
+import com.backend.appvengers.dto.SavingTransactionExportRow;
+import com.backend.appvengers.dto.TransactionExportRow;
+import com.backend.appvengers.repository.BudgetRepository;
+import com.backend.appvengers.repository.SavingRepository;
+import com.backend.appvengers.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Streams a user's data out as NDJSON or CSV.
+ *
+ * Rows come from forward-only repository streams of flat projection records,
+ * so nothing is attached to the persistence context, and each row is written
+ * to the output as soon as it is read. Memory use does not depend on how many
+ * rows the user has.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private final TransactionRepository transactionRepository;
+    private final BudgetRepository budgetRepository;
+    private final SavingRepository savingRepository;
+    private final ObjectMapper objectMapper;
+
+    // Record accessors per row type, resolved once for CSV output
+    private final Map<Class<?>, Method[]> accessorCache = new ConcurrentHashMap<>();
+
+    public enum Dataset {
+        TRANSACTIONS("transactions"),
+        BUDGETS("budgets"),
+        SAVINGS("savings"),
+        SAVING_TRANSACTIONS("saving-transactions");
+
+        private final String path;
+
+        Dataset(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public static Dataset fromPath(String path) {
+            for (Dataset dataset : values()) {
+                if (dataset.path.equalsIgnoreCase(path)) {
+                    return dataset;
+                }
+            }
+            throw new RuntimeException("Unknown export dataset: " + path);
+        }
+    }
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParam(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Write one dataset of a user's data to the given stream.
+     * Runs in a read-only transaction that stays open while rows are streamed.
+     */
+    @Transactional(readOnly = true)
+    public void export(int userId, Dataset dataset, Format format, OutputStream out) throws IOException {
+        switch (dataset) {
+            case TRANSACTIONS -> {
+                try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRowsByUserId(userId)) {
+                    write(rows, TransactionExportRow.class, format, out);
+                }
+            }
+            case BUDGETS -> {
+                try (Stream<BudgetExportRow> rows = budgetRepository.streamExportRowsByUserId(userId)) {
+                    write(rows, BudgetExportRow.class, format, out);
+                }
+            }
+            case SAVINGS -> {
+                try (Stream<SavingExportRow> rows = savingRepository.streamExportRowsByUserId(userId)) {
+                    write(rows, SavingExportRow.class, format, out);
+                }
+            }
+            case SAVING_TRANSACTIONS -> {
+                try (Stream<SavingTransactionExportRow> rows = transactionRepository.streamSavingExportRowsByUserId(userId)) {
+                    write(rows, SavingTransactionExportRow.class, format, out);
+                }
+            }
+        }
+    }
+
+    private <T extends Record> void write(Stream<T> rows, Class<T> type, Format format, OutputStream out)
+            throws IOException {
+        if (format == Format.NDJSON) {
+            writeNdjson(rows, out);
+        } else {
+            writeCsv(rows, type, out);
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter json = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            rows.forEachOrdered(row -> {
+                try {
+                    json.writeValue(writer, row);
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private <T extends Record> void writeCsv(Stream<T> rows, Class<T> type, OutputStream out) throws IOException {
+        Method[] accessors = accessorCache.computeIfAbsent(type, t ->
+                Arrays.stream(t.getRecordComponents()).map(RecordComponent::getAccessor).toArray(Method[]::new));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RecordComponent[] components = type.getRecordComponents();
+        for (int i = 0; i < components.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(components[i].getName());
+        }
+        writer.write("\r\n");
+
+        try {
+            rows.forEachOrdered(row -> {
+                try {
+                    for (int i = 0; i < accessors.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writeCsvValue(writer, accessors[i].invoke(row));
+                    }
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException("Failed to read export row", e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // RFC 4180 quoting: quote fields containing separators, quotes or line breaks
+    private void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean needsQuotes = false;
+        for (int i = 0; i < text.length() && !needsQuotes; i++) {
+            char ch = text.charAt(i);
+            needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '"') {
+                writer.write('"');
+            }
+            writer.write(ch);
+        }
+        writer.write('"');
+    }
+}
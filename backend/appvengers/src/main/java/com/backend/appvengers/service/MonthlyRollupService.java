@@ -0,0 +1,185 @@
+package com.backend.appvengers.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.appvengers.entity.Category;
+import com.backend.appvengers.entity.Transaction;
+import com.backend.appvengers.repository.MonthlyRollupRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the per-user monthly rollup (tbl_monthly_rollup) that backs the
+ * expense/income summaries and monthly reports.
+ *
+ * Transaction writes apply their delta to the affected (month, type, category)
+ * buckets inside the same transaction. A user's rollup is only ever built from
+ * tbl_transaction by the scheduled backfill, in its own transaction; until then
+ * writes skip it and reads are answered from tbl_transaction. Writes check for
+ * the rollup with a locking read, so a write either waits for a concurrent build
+ * and applies its delta on top, or is already included in the build.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MonthlyRollupService {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rollup.backfill.batch-size:50}")
+    private int backfillBatchSize;
+
+    /**
+     * The parts of a transaction that decide which rollup bucket it counts towards.
+     * Taken before a transaction is modified so the old bucket can be debited.
+     */
+    public record Contribution(Category category, LocalDate transactionDate, BigDecimal amount, boolean active) {
+
+        public static Contribution of(Transaction t) {
+            return new Contribution(t.getCategoryRef(), t.getTransactionDate(), t.getAmount(), t.getDeletedAt() == null);
+        }
+
+        boolean counted() {
+            return active && category != null && category.getType() != null && amount != null;
+        }
+    }
+
+    /**
+     * Record the change between a transaction's state before and after a write.
+     * Pass {@code null} as {@code before} for a newly created transaction.
+     */
+    @Transactional
+    public void recordChange(int userId, Contribution before, Contribution after) {
+        if (!isBuiltForWrite(userId)) {
+            return; // The backfill builds it, including this write
+        }
+        if (before != null && before.counted()) {
+            apply(userId, before, before.amount().negate(), -1);
+        }
+        if (after != null && after.counted()) {
+            apply(userId, after, after.amount(), 1);
+        }
+    }
+
+    /**
+     * Record a batch of newly inserted transactions with one upsert per affected bucket
+     * instead of one per row. Must run after the rows are written, in the same transaction.
+     */
+    @Transactional
+    public void recordAdded(int userId, Collection<Contribution> added) {
+        if (!isBuiltForWrite(userId)) {
+            return;
+        }
+
+        record Bucket(int monthKey, String type, int categoryId) {}
+        Map<Bucket, BigDecimal> totals = new HashMap<>();
+        Map<Bucket, Long> counts = new HashMap<>();
+        for (Contribution c : added) {
+            if (!c.counted()) {
+                continue;
+            }
+            Bucket bucket = new Bucket(monthKey(c), c.category().getType().toUpperCase(Locale.ROOT), c.category().getId());
+            totals.merge(bucket, c.amount(), BigDecimal::add);
+            counts.merge(bucket, 1L, Long::sum);
+        }
+        totals.forEach((bucket, total) -> monthlyRollupRepository.upsertDelta(
+                userId, bucket.monthKey(), bucket.type(), bucket.categoryId(), total, counts.get(bucket)));
+    }
+
+    /**
+     * All-time totals per category name for a type ("EXPENSE" or "INCOME").
+     * Rows are [categoryName, total].
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getTotalsByCategory(int userId, String type) {
+        String upperType = type.toUpperCase(Locale.ROOT);
+        if (!monthlyRollupRepository.existsByUserId(userId)) {
+            return monthlyRollupRepository.sumByCategoryNameFromTransactions(userId, upperType);
+        }
+        return monthlyRollupRepository.sumByCategoryName(userId, upperType);
+    }
+
+    /**
+     * Totals per month, type and category name for the given months, in one query.
+     * Rows are [monthKey, type, categoryName, total].
+     */
+    @Transactional(readOnly = true)
+    public List<Object[]> getMonthlyTotals(int userId, Collection<YearMonth> months) {
+        List<Integer> monthKeys = months.stream().map(MonthlyRollupService::monthKey).toList();
+        if (!monthlyRollupRepository.existsByUserId(userId)) {
+            return monthlyRollupRepository.sumByMonthTypeAndCategoryNameFromTransactions(userId, monthKeys);
+        }
+        return monthlyRollupRepository.sumByMonthTypeAndCategoryName(userId, monthKeys);
+    }
+
+    /**
+     * Move a category's buckets to its new type. Must run in the transaction that
+     * changed the category.
+     */
+    @Transactional
+    public void recordCategoryTypeChange(int userId, int categoryId, String type) {
+        if (!isBuiltForWrite(userId)) {
+            return;
+        }
+        monthlyRollupRepository.retypeCategory(userId, categoryId, type.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Build the rollups of users that do not have one yet, a batch per run, each
+     * user in their own transaction. This is the only place rollups are built.
+     */
+    @Scheduled(initialDelayString = "${rollup.backfill.initial-delay-ms:60000}",
+            fixedDelayString = "${rollup.backfill.interval-ms:300000}")
+    public void backfill() {
+        List<Integer> userIds = monthlyRollupRepository.findUserIdsWithoutRollup(backfillBatchSize);
+        int built = 0;
+        for (Integer userId : userIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Another instance may have built it since the lookup
+                    if (!monthlyRollupRepository.existsByUserId(userId)) {
+                        monthlyRollupRepository.rebuildForUser(userId);
+                    }
+                });
+                built++;
+            } catch (Exception e) {
+                log.warn("Monthly rollup backfill for user {} failed, retrying next run: {}", userId, e.getMessage());
+            }
+        }
+        if (!userIds.isEmpty()) {
+            log.info("Monthly rollup backfill built {} of {} users", built, userIds.size());
+        }
+    }
+
+    public static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private boolean isBuiltForWrite(int userId) {
+        return monthlyRollupRepository.findAnyForShare(userId).isPresent();
+    }
+
+    private void apply(int userId, Contribution c, BigDecimal amountDelta, long countDelta) {
+        monthlyRollupRepository.upsertDelta(userId, monthKey(c), c.category().getType().toUpperCase(Locale.ROOT),
+                c.category().getId(), amountDelta, countDelta);
+    }
+
+    private static int monthKey(Contribution c) {
+        return c.transactionDate() != null ? monthKey(YearMonth.from(c.transactionDate())) : 0;
+    }
+}
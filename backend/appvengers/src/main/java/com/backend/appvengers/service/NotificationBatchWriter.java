@@ -0,0 +1,223 @@
+package com.backend.appvengers.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.appvengers.controller.NotificationWebSocketController;
+import com.backend.appvengers.dto.NotificationKeyRow;
+import com.backend.appvengers.dto.NotificationResponse;
+import com.backend.appvengers.entity.Notification;
+import com.backend.appvengers.entity.Notification.NotificationType;
+import com.backend.appvengers.entity.Notification.Urgency;
+import com.backend.appvengers.repository.NotificationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the notifications produced by one generation pass in bulk.
+ *
+ * Candidates are collected in a {@link Batch} and deduplicated in memory, both
+ * against each other and against one existence query per chunk, instead of one
+ * exists query per candidate. New rows are written with JDBC batch inserts
+ * (Hibernate cannot batch IDENTITY inserts) and then pushed to the WebSocket
+ * broker a chunk at a time, one message per user and chunk. Inside a caller's
+ * transaction the push waits for its commit, so clients never see notifications
+ * that are rolled back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationBatchWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO tbl_notification (user_id, type, urgency, title, message, reference_id, amount, category, " +
+        "is_read, is_deleted, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationRepository notificationRepository;
+    private final NotificationWebSocketController webSocketController;
+
+    @Value("${notification.batch.insert-size:500}")
+    private int insertSize;
+
+    @Value("${notification.batch.push-size:100}")
+    private int pushSize;
+
+    /**
+     * Identity of a notification for deduplication. Savings deadlines are sent
+     * once per urgency level; every other type once per referenced budget or saving.
+     */
+    record Key(int userId, NotificationType type, Integer referenceId, Urgency urgency) {
+
+        static Key of(int userId, NotificationType type, Integer referenceId, Urgency urgency) {
+            return new Key(userId, type, referenceId, type == NotificationType.SAVINGS_DEADLINE ? urgency : null);
+        }
+
+        static Key of(Notification notification) {
+            return of(notification.getUserId(), notification.getType(), notification.getReferenceId(),
+                    notification.getUrgency());
+        }
+    }
+
+    /**
+     * Start collecting the notifications of one pass.
+     */
+    public Batch begin() {
+        return new Batch();
+    }
+
+    /**
+     * Notifications collected during one pass. Not thread-safe.
+     */
+    public class Batch {
+
+        private final Map<Key, Notification> pending = new LinkedHashMap<>();
+
+        /**
+         * Add a candidate. A candidate equal to one already in the batch is dropped.
+         */
+        public void add(Notification notification) {
+            pending.putIfAbsent(Key.of(notification), notification);
+        }
+
+        public int size() {
+            return pending.size();
+        }
+
+        /**
+         * Insert the candidates that do not exist yet and push them to their users.
+         * Each chunk commits on its own, or joins the caller's transaction and is
+         * pushed after that commits.
+         *
+         * @return Number of notifications created
+         */
+        public int write() {
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            List<Notification> candidates = new ArrayList<>(pending.values());
+            pending.clear();
+
+            int created = 0;
+            for (int from = 0; from < candidates.size(); from += insertSize) {
+                List<Notification> chunk = candidates.subList(from, Math.min(from + insertSize, candidates.size()));
+                List<Notification> fresh = withoutExisting(chunk);
+                if (!fresh.isEmpty()) {
+                    insert(fresh);
+                    pushAfterCommit(fresh);
+                    created += fresh.size();
+                }
+            }
+            if (created > 0) {
+                log.info("Created {} notifications ({} candidates)", created, candidates.size());
+            }
+            return created;
+        }
+    }
+
+    private List<Notification> withoutExisting(List<Notification> chunk) {
+        Set<NotificationType> types = new HashSet<>();
+        Set<Integer> referenceIds = new HashSet<>();
+        for (Notification notification : chunk) {
+            types.add(notification.getType());
+            referenceIds.add(notification.getReferenceId());
+        }
+
+        Set<Key> existing = new HashSet<>();
+        for (NotificationKeyRow row : notificationRepository.findKeys(types, referenceIds)) {
+            existing.add(Key.of(row.getUserId(), row.getType(), row.getReferenceId(), row.getUrgency()));
+        }
+        if (existing.isEmpty()) {
+            return chunk;
+        }
+        return chunk.stream().filter(notification -> !existing.contains(Key.of(notification))).toList();
+    }
+
+    private void insert(List<Notification> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"notification_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Notification notification = notifications.get(i);
+                        ps.setInt(1, notification.getUserId());
+                        ps.setString(2, notification.getType().name());
+                        ps.setString(3, notification.getUrgency() != null ? notification.getUrgency().name() : null);
+                        ps.setString(4, notification.getTitle());
+                        ps.setString(5, notification.getMessage());
+                        ps.setObject(6, notification.getReferenceId(), Types.INTEGER);
+                        ps.setObject(7, notification.getAmount(), Types.DOUBLE);
+                        ps.setString(8, notification.getCategory());
+                        ps.setTimestamp(9, createdAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return notifications.size();
+                    }
+                },
+                keyHolder));
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            if (i < keys.size()) {
+                notification.setNotificationId(((Number) keys.get(i).values().iterator().next()).longValue());
+            }
+            notification.setCreatedAt(now);
+        }
+    }
+
+    private void pushAfterCommit(List<Notification> notifications) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    push(notifications);
+                }
+            });
+        } else {
+            push(notifications);
+        }
+    }
+
+    private void push(List<Notification> notifications) {
+        for (int from = 0; from < notifications.size(); from += pushSize) {
+            Map<Integer, List<NotificationResponse>> byUser = new LinkedHashMap<>();
+            for (Notification notification : notifications.subList(from, Math.min(from + pushSize, notifications.size()))) {
+                byUser.computeIfAbsent(notification.getUserId(), userId -> new ArrayList<>())
+                        .add(NotificationResponse.fromEntity(notification, notification.getCategory()));
+            }
+            try {
+                webSocketController.sendNotificationsToUsers(byUser);
+            } catch (Exception e) {
+                // Log error but don't fail the notification creation
+                log.error("❌ Failed to send WebSocket notifications to {} users: {}", byUser.size(), e.getMessage());
+            }
+        }
+    }
+}
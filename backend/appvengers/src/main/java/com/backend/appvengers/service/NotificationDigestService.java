@@ -0,0 +1,347 @@
+package com.backend.appvengers.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.backend.appvengers.dto.NotificationDigestRow;
+import com.backend.appvengers.entity.NotificationDigestRun;
+import com.backend.appvengers.repository.NotificationDigestRunRepository;
+import com.backend.appvengers.repository.NotificationRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Emails each user a digest of their unread notifications, so users who were
+ * offline still hear about budget and savings alerts.
+ *
+ * A run is one keyset-paginated scan of tbl_notification joined to tbl_user,
+ * ordered by user: the rows of one user arrive together, so each digest is
+ * rendered as soon as the scan moves past its user, and only the current page,
+ * the current user and one batch of messages are in memory. Messages go out
+ * through {@link EmailService#sendBatch} on pooled SMTP connections.
+ *
+ * Runs happen on a thread of their own so a long send never holds up the shared
+ * scheduler. A row in tbl_notification_digest_run, claimed with a lease, lets
+ * only one backend instance send a given day or week; every delivered digest is
+ * recorded in tbl_notification_digest, so a run that is restarted or taken over
+ * skips the users who already got theirs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDigestService {
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("MMM d, yyyy h:mm a", Locale.ENGLISH);
+
+    private static final String RECORD_SQL =
+        "INSERT INTO tbl_notification_digest (user_id, period, period_key, sent_at) VALUES (?, ?, ?, ?)";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationDigestRunRepository digestRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailTemplateEngine emailTemplateEngine;
+    private final EmailService emailService;
+
+    // Identifies this instance as the holder of a run's lease
+    private final String owner = UUID.randomUUID().toString();
+
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.email.from:noreply@ibudget.site}")
+    private String emailFrom;
+
+    @Value("${app.frontend.url:http://i-budget.site}")
+    private String frontendUrl;
+
+    @Value("${notification.digest.page-size:1000}")
+    private int pageSize;
+
+    @Value("${notification.digest.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.digest.max-items:10}")
+    private int maxItems;
+
+    @Value("${notification.digest.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${notification.digest.retention-days:35}")
+    private int retentionDays;
+
+    /**
+     * Digest schedule: covers unread notifications created within the lookback.
+     */
+    public enum Period {
+        DAILY("daily", "day", Duration.ofDays(1)),
+        WEEKLY("weekly", "week", Duration.ofDays(7));
+
+        private final String adjective;
+        private final String noun;
+        private final Duration lookback;
+
+        Period(String adjective, String noun, Duration lookback) {
+            this.adjective = adjective;
+            this.noun = noun;
+            this.lookback = lookback;
+        }
+
+        /**
+         * The day (2026-10-17) or ISO week (2026-W42) a run on {@code date} covers.
+         */
+        String key(LocalDate date) {
+            if (this == DAILY) {
+                return date.toString();
+            }
+            return String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR),
+                    date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        }
+    }
+
+    /**
+     * Outcome of one digest run.
+     */
+    public record DigestReport(Period period, int users, long notifications, int sent, int failed) {
+
+        static DigestReport skipped(Period period) {
+            return new DigestReport(period, 0, 0, 0, 0);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // One run at a time; a run fired while another is queued is dropped, the next one catches up
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1),
+                Thread.ofPlatform().name("notification-digest-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        // An interrupted run keeps its lease; users already sent are recorded and skipped on takeover
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(cron = "${notification.digest.daily-cron:-}")
+    public void sendDailyDigests() {
+        submit(Period.DAILY);
+    }
+
+    @Scheduled(cron = "${notification.digest.weekly-cron:-}")
+    public void sendWeeklyDigests() {
+        submit(Period.WEEKLY);
+    }
+
+    private void submit(Period period) {
+        try {
+            executor.execute(() -> {
+                try {
+                    sendDigests(period);
+                } catch (Exception e) {
+                    log.error("Notification digest run ({}) failed: {}", period.adjective, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Notification digest run ({}) skipped, another run is still queued", period.adjective);
+        }
+    }
+
+    /**
+     * Send the digests of the current day or week, unless another instance is
+     * sending them or they were already sent.
+     */
+    public DigestReport sendDigests(Period period) {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        String periodKey = period.key(now.toLocalDate());
+        if (!acquire(period, periodKey, now)) {
+            log.info("Notification digests ({} {}) already sent or being sent elsewhere", period.adjective, periodKey);
+            return DigestReport.skipped(period);
+        }
+        jdbcTemplate.update("DELETE FROM tbl_notification_digest WHERE sent_at < ?",
+                Timestamp.valueOf(now.minusDays(retentionDays)));
+
+        LocalDateTime since = now.minus(period.lookback);
+        DigestRun run = new DigestRun(period, periodKey);
+
+        int afterUserId = 0;
+        long afterNotificationId = 0;
+        List<NotificationDigestRow> page;
+        do {
+            page = notificationRepository.findUnreadForDigest(since, period.name(), periodKey,
+                    afterUserId, afterNotificationId, pageSize);
+            for (NotificationDigestRow row : page) {
+                run.add(row);
+            }
+            if (!page.isEmpty()) {
+                NotificationDigestRow last = page.get(page.size() - 1);
+                afterUserId = last.getUserId();
+                afterNotificationId = last.getNotificationId();
+            }
+        } while (page.size() == pageSize);
+
+        DigestReport report = run.finish();
+        digestRunRepository.complete(period.name(), periodKey, owner, LocalDateTime.now());
+        log.info("Sent {} notification digests to {} users ({} notifications, {} failed) in {} ms",
+                period.adjective, report.users(), report.notifications(), report.failed(),
+                System.currentTimeMillis() - start);
+        return report;
+    }
+
+    /**
+     * Take the lock of a run: claim its row if the lease expired, or create it.
+     */
+    private boolean acquire(Period period, String periodKey, LocalDateTime now) {
+        LocalDateTime until = now.plus(Duration.ofMillis(leaseMs));
+        if (digestRunRepository.claim(period.name(), periodKey, owner, now, until) > 0) {
+            return true;
+        }
+        if (digestRunRepository.existsByPeriodAndPeriodKey(period.name(), periodKey)) {
+            return false;
+        }
+        try {
+            digestRunRepository.saveAndFlush(new NotificationDigestRun(null, period.name(), periodKey, owner, until, null));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+            return false;
+        }
+    }
+
+    /**
+     * State of one scan: the user being collected and the messages not sent yet.
+     */
+    private class DigestRun {
+
+        private final Period period;
+        private final String periodKey;
+        private final List<MimeMessage> batch = new ArrayList<>();
+        // Recipient user of each message in the batch
+        private final List<Integer> batchUsers = new ArrayList<>();
+
+        private Integer userId;
+        private String email;
+        private String username;
+        private int count;
+        private final StringBuilder items = new StringBuilder();
+
+        private int users;
+        private long notifications;
+        private int sent;
+        private int failed;
+
+        DigestRun(Period period, String periodKey) {
+            this.period = period;
+            this.periodKey = periodKey;
+        }
+
+        void add(NotificationDigestRow row) {
+            if (!row.getUserId().equals(userId)) {
+                finishUser();
+                userId = row.getUserId();
+                email = row.getEmail();
+                username = row.getUsername();
+            }
+            count++;
+            notifications++;
+            if (count <= maxItems) {
+                items.append(emailTemplateEngine.render(EmailTemplateEngine.NOTIFICATION_DIGEST_ITEM, Map.of(
+                        "urgency", row.getUrgency() == null ? "LOW" : row.getUrgency(),
+                        "title", row.getTitle(),
+                        "message", row.getMessage(),
+                        "date", row.getCreatedAt() == null ? "" : DATE_FORMAT.format(row.getCreatedAt()))));
+            }
+        }
+
+        DigestReport finish() {
+            finishUser();
+            flush();
+            return new DigestReport(period, users, notifications, sent, failed);
+        }
+
+        private void finishUser() {
+            if (userId == null) {
+                return;
+            }
+            users++;
+            String html = emailTemplateEngine.render(EmailTemplateEngine.NOTIFICATION_DIGEST, Map.of(
+                    "name", username,
+                    "period", period.adjective,
+                    "lookback", period.noun,
+                    "count", String.valueOf(count),
+                    "more", count > maxItems ? "And " + (count - maxItems) + " more in the app." : "",
+                    "appLink", frontendUrl),
+                    Map.of("items", items.toString()));
+            String subject = "Your iBudget " + period.adjective + " summary: " + count + " unread notification"
+                    + (count == 1 ? "" : "s");
+            try {
+                batch.add(emailService.createHtmlEmail(emailFrom, email, subject, html));
+                batchUsers.add(userId);
+            } catch (MessagingException e) {
+                failed++;
+                log.warn("Could not build notification digest for user {}: {}", userId, e.getMessage());
+            }
+
+            userId = null;
+            count = 0;
+            items.setLength(0);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> delivered = new ArrayList<>();
+            for (EmailService.SendOutcome outcome : emailService.sendBatch(batch)) {
+                if (outcome.sent()) {
+                    sent++;
+                    delivered.add(new Object[] {batchUsers.get(outcome.index()), period.name(), periodKey, sentAt});
+                } else {
+                    failed++;
+                    log.warn("Notification digest to {} failed: {}", outcome.recipients(), outcome.error());
+                }
+            }
+            batch.clear();
+            batchUsers.clear();
+
+            if (!delivered.isEmpty()) {
+                jdbcTemplate.batchUpdate(RECORD_SQL, delivered);
+            }
+            // Renew the lease; losing it means another instance took the run over
+            LocalDateTime now = LocalDateTime.now();
+            if (digestRunRepository.claim(period.name(), periodKey, owner, now,
+                    now.plus(Duration.ofMillis(leaseMs))) == 0) {
+                throw new IllegalStateException("Lost the lease of notification digest run " + periodKey);
+            }
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.backend.appvengers.service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -10,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.backend.appvengers.dto.BudgetThresholdCandidate;
 import com.backend.appvengers.dto.NotificationResponse;
 import com.backend.appvengers.entity.Budget;
 import com.backend.appvengers.entity.Notification;
@@ -22,9 +26,7 @@ import com.backend.appvengers.repository.BudgetRepository;
 import com.backend.appvengers.repository.CategoryRepository;
 import com.backend.appvengers.repository.NotificationRepository;
 import com.backend.appvengers.repository.SavingRepository;
-import com.backend.appvengers.repository.TransactionRepository;
 import com.backend.appvengers.repository.UserRepository;
-import com.backend.appvengers.controller.NotificationWebSocketController;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,26 +39,134 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     private final BudgetRepository budgetRepository;
     private final SavingRepository savingRepository;
-    private final TransactionRepository transactionRepository;
+    private final BudgetUsageService budgetUsageService;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
-    private final NotificationWebSocketController webSocketController;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final UserChangeTracker userChangeTracker;
+
+    // Scheduler state: whether the startup sweep ran, and the last calendar day seen
+    private volatile boolean initialSweepDone = false;
+    private volatile LocalDate lastCalendarDate;
 
 /**
-     * Scheduled task to generate notifications for all users.
+     * Scheduled task to generate notifications.
      * Runs every 60 seconds (1 minute).
+     *
+     * The first pass after startup sweeps every user, since changes made while the
+     * server was down are not tracked. After that, each pass only re-evaluates users
+     * marked by {@link UserChangeTracker} plus the date-driven checks (budgets ending
+     * soon, savings deadlines, budgets whose period starts today), so a tick costs
+     * O(changed users) instead of O(all users).
+     *
+     * The notifications of a pass are collected and written together by
+     * {@link NotificationBatchWriter}, so a date boundary that notifies thousands of
+     * users costs a few batch inserts rather than thousands of exists checks and saves.
      */
     @org.springframework.scheduling.annotation.Scheduled(fixedRate = 60000)
     public void generateAllNotifications() {
+        NotificationBatchWriter.Batch batch = notificationBatchWriter.begin();
+        if (!initialSweepDone) {
+            generateForAllUsers(batch);
+            initialSweepDone = true;
+            lastCalendarDate = LocalDate.now();
+            writeBatch(batch);
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        if (!today.equals(lastCalendarDate)) {
+            // Budgets entering their period today may already be over their thresholds
+            budgetRepository.findUserIdsWithBudgetsStartingOn(today).forEach(userChangeTracker::markChanged);
+            lastCalendarDate = today;
+        }
+
+        Set<Integer> changedUsers = userChangeTracker.drainChangedUsers();
+        if (!changedUsers.isEmpty()) {
+            // One set query evaluates budget thresholds for every changed user
+            try {
+                generateBudgetNotifications(budgetRepository.findBudgetThresholdCandidatesForUsers(today, changedUsers), batch);
+            } catch (Exception e) {
+                log.error("Error generating budget notifications for {} users: {}", changedUsers.size(), e.getMessage());
+            }
+
+            for (Integer userId : changedUsers) {
+                try {
+                    generateSavingsNotifications(userId, today, batch);
+                } catch (Exception e) {
+                    // Log error but continue for other users
+                    log.error("Error generating notifications for user {}: {}", userId, e.getMessage());
+                }
+            }
+            log.debug("Notification pass re-evaluated {} changed users", changedUsers.size());
+        }
+
+        try {
+            generateDateDrivenNotifications(today, changedUsers, batch);
+        } catch (Exception e) {
+            log.error("Error generating date-driven notifications: {}", e.getMessage());
+        }
+        writeBatch(batch);
+    }
+
+    /**
+     * Full sweep over every user. Only used for the first pass after startup.
+     */
+    private void generateForAllUsers(NotificationBatchWriter.Batch batch) {
+        LocalDate today = LocalDate.now();
+        try {
+            generateBudgetNotifications(budgetRepository.findBudgetThresholdCandidates(today), batch);
+        } catch (Exception e) {
+            log.error("Error generating budget notifications: {}", e.getMessage());
+        }
+
         List<User> users = userRepository.findAll();
+        Set<Integer> evaluated = new HashSet<>();
         for (User user : users) {
             try {
-                generateNotifications(user.getId());
+                generateSavingsNotifications(user.getId(), today, batch);
+                evaluated.add(user.getId());
             } catch (Exception e) {
                 // Log error but continue for other users
-                System.err.println("Error generating notifications for user " + user.getId() + ": " + e.getMessage());
+                log.error("Error generating notifications for user {}: {}", user.getId(), e.getMessage());
             }
         }
+
+        try {
+            generateDateDrivenNotifications(today, evaluated, batch);
+        } catch (Exception e) {
+            log.error("Error generating date-driven notifications: {}", e.getMessage());
+        }
+        log.info("Initial notification sweep completed for {} users", users.size());
+    }
+
+    /**
+     * Write the notifications collected by a scheduler pass.
+     */
+    private void writeBatch(NotificationBatchWriter.Batch batch) {
+        int candidates = batch.size();
+        try {
+            batch.write();
+        } catch (Exception e) {
+            log.error("Error writing {} notification candidates: {}", candidates, e.getMessage());
+        }
+    }
+
+    /**
+     * Date-driven checks that can fire without any user write: budgets ending in
+     * 3 days and savings goals due within 7 days. Each is a single query across all
+     * users; savings of users already evaluated in this pass are skipped.
+     */
+    private void generateDateDrivenNotifications(LocalDate today, Set<Integer> alreadyEvaluated,
+            NotificationBatchWriter.Batch batch) {
+        addBudgetNearEndNotifications(budgetRepository.findByEndDate(today.plusDays(3)), batch);
+
+        for (Saving saving : savingRepository.findActiveSavingsWithGoalDateBetween(today, today.plusDays(7))) {
+            if (alreadyEvaluated.contains(saving.getUserId())) {
+                continue;
+            }
+            checkSavingsDeadline(saving.getUserId(), saving, today, batch);
+        }
     }
 
     /**
@@ -65,63 +175,65 @@ public class NotificationService {
      */
     @Transactional
     public void generateNotifications(int userId) {
-        User user = userRepository.findById((long) userId)
+        userRepository.findById((long) userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
+        LocalDate today = LocalDate.now();
+        NotificationBatchWriter.Batch batch = notificationBatchWriter.begin();
+
         // Generate budget-related notifications
-        generateBudgetNotifications(userId, user);
+        generateBudgetNotifications(budgetRepository.findBudgetThresholdCandidatesForUsers(today, List.of(userId)), batch);
 
         // Generate budget near end notifications
-        generateBudgetNearEndNotifications(userId);
+        generateBudgetNearEndNotifications(userId, batch);
 
-        // Generate savings deadline notifications
-        generateSavingsDeadlineNotifications(userId);
+        // Generate savings deadline and milestone notifications
+        generateSavingsNotifications(userId, today, batch);
 
-        // Generate savings milestone notifications
-        generateSavingsMilestoneNotifications(userId);
+        batch.write();
     }
 
     /**
-     * Check all active budgets for the user and generate warnings/alerts.
-     * Uses budget_id to sum transactions, so ALL transactions linked to a budget
-     * are counted regardless of their category.
+     * Savings checks for a single user: approaching deadlines and milestones.
      */
-    private void generateBudgetNotifications(int userId, User user) {
-        List<Budget> budgets = budgetRepository.findActiveBudgetsByUserId(userId);
-        LocalDate today = LocalDate.now();
-
-        for (Budget budget : budgets) {
-            // Skip budgets outside their date range
-            if (today.isBefore(budget.getStartDate()) || today.isAfter(budget.getEndDate())) {
-                continue;
-            }
-
-            // Get category name for this budget (for display purposes)
-            String categoryName = getCategoryName(budget.getCategoryId());
-
-            // Get total spent using budget_id - counts ALL transactions linked to this budget
-            Double totalSpent = transactionRepository.sumByBudgetId(budget.getBudgetId());
-            if (totalSpent == null) {
-                totalSpent = 0.0;
-            }
+    private void generateSavingsNotifications(int userId, LocalDate today, NotificationBatchWriter.Batch batch) {
+        List<Saving> savings = savingRepository.findActiveSavingsByUserId(userId);
 
-            double limitAmount = budget.getLimitAmount();
+        // Generate savings deadline notifications
+        for (Saving saving : savings) {
+            checkSavingsDeadline(userId, saving, today, batch);
+        }
 
-            // Guard against division by zero
-            if (limitAmount <= 0) {
-                continue;
-            }
+        // Generate savings milestone notifications
+        generateSavingsMilestoneNotifications(userId, savings, batch);
+    }
 
+    /**
+     * Create warnings/alerts for budgets returned by the batch threshold query.
+     * Spending is summed by budget_id, so ALL transactions linked to a budget are
+     * counted regardless of their category. The query already excludes budgets
+     * that have the matching notification, so every candidate gets one.
+     */
+    private void generateBudgetNotifications(List<BudgetThresholdCandidate> candidates,
+            NotificationBatchWriter.Batch batch) {
+        for (BudgetThresholdCandidate candidate : candidates) {
+            double totalSpent = candidate.getTotalSpent() != null ? candidate.getTotalSpent() : 0.0;
+            double limitAmount = candidate.getLimitAmount();
             double remainingPercent = ((limitAmount - totalSpent) / limitAmount) * 100;
 
-            // Check if budget is exceeded
-            if (totalSpent >= limitAmount) {
-                createBudgetExceededNotification(userId, budget, categoryName, totalSpent);
-            }
-            // Check if budget is running low (50% or more spent but not exceeded)
-            else if (remainingPercent <= 50) {
-                double spentPercent = 100 - remainingPercent;
-                createBudgetWarningNotification(userId, budget, categoryName, totalSpent, remainingPercent, spentPercent);
+            try {
+                // Check if budget is exceeded
+                if (totalSpent >= limitAmount) {
+                    createBudgetExceededNotification(candidate, totalSpent, batch);
+                }
+                // Otherwise the budget is running low (50% or more spent)
+                else {
+                    double spentPercent = 100 - remainingPercent;
+                    createBudgetWarningNotification(candidate, totalSpent, remainingPercent, spentPercent, batch);
+                }
+            } catch (Exception e) {
+                // Log error but continue for other budgets
+                log.error("Error creating budget notification for budget {}: {}", candidate.getBudgetId(), e.getMessage());
             }
         }
     }
@@ -131,41 +243,46 @@ public class NotificationService {
      * Notifies users to review their spending before the budget period ends.
      * Uses budget_id to sum transactions for accurate spending totals.
      */
-    private void generateBudgetNearEndNotifications(int userId) {
+    private void generateBudgetNearEndNotifications(int userId, NotificationBatchWriter.Batch batch) {
         LocalDate today = LocalDate.now();
         LocalDate threeDaysFromNow = today.plusDays(3);
 
-        // Find budgets ending in exactly 3 days
-        List<Budget> endingBudgets = budgetRepository.findByEndDate(threeDaysFromNow);
-
-        for (Budget budget : endingBudgets) {
-            // Only process budgets belonging to this user
-            if (budget.getUserId() != userId) {
-                continue;
-            }
+        // Find budgets ending in exactly 3 days, keeping only this user's
+        List<Budget> endingBudgets = budgetRepository.findByEndDate(threeDaysFromNow).stream()
+                .filter(budget -> budget.getUserId() == userId)
+                .toList();
 
-            // Check if notification already exists for this budget
-            if (notificationRepository.existsNotification(userId, NotificationType.BUDGET_NEAR_END, budget.getBudgetId())) {
-                continue;
-            }
+        addBudgetNearEndNotifications(endingBudgets, batch);
+    }
 
-            // Get category name (for display purposes)
-            String categoryName = getCategoryName(budget.getCategoryId());
+    /**
+     * Add a near-end candidate for each budget. Spent totals and category names
+     * are looked up once for all budgets; budgets already notified are dropped
+     * when the batch is written.
+     */
+    private void addBudgetNearEndNotifications(List<Budget> budgets, NotificationBatchWriter.Batch batch) {
+        if (budgets.isEmpty()) {
+            return;
+        }
 
-            // Get total spent using budget_id - counts ALL transactions linked to this budget
-            Double totalSpent = transactionRepository.sumByBudgetId(budget.getBudgetId());
-            if (totalSpent == null) {
-                totalSpent = 0.0;
-            }
+        // Totals from the budget usage ledger - counts ALL transactions linked to each budget
+        Map<Integer, Double> spentTotals = budgetUsageService.getSpentTotals(
+                budgets.stream().map(Budget::getBudgetId).collect(Collectors.toSet()));
+        Map<Integer, String> categoryNames = getCategoryNames(
+                budgets.stream().map(Budget::getCategoryId).collect(Collectors.toSet()));
 
-            createBudgetNearEndNotification(userId, budget, categoryName, totalSpent);
+        for (Budget budget : budgets) {
+            String categoryName = categoryNames.getOrDefault(budget.getCategoryId(), "Unknown Category");
+            createBudgetNearEndNotification(budget.getUserId(), budget, categoryName,
+                    spentTotals.getOrDefault(budget.getBudgetId(), 0.0), batch);
         }
     }
 
     /**
      * Create a notification for budget period ending soon.
      */
-    private void createBudgetNearEndNotification(int userId, Budget budget, String categoryName, double totalSpent) {
+    private void createBudgetNearEndNotification(int userId, Budget budget, String categoryName, double totalSpent,
+            NotificationBatchWriter.Batch batch) {
         double remaining = budget.getLimitAmount() - totalSpent;
         double usedPercent = (totalSpent / budget.getLimitAmount()) * 100;
 
@@ -182,48 +299,36 @@ public class NotificationService {
         notification.setCategory(categoryName);
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, categoryName);
-        
-        log.info("Created BUDGET_NEAR_END notification for budget {} (user {})", budget.getBudgetId(), userId);
+        batch.add(notification);
     }
 
     /**
-     * Check all active savings for approaching deadlines.
+     * Create a deadline notification for a single saving based on days remaining.
      */
-    private void generateSavingsDeadlineNotifications(int userId) {
-        List<Saving> savings = savingRepository.findActiveSavingsByUserId(userId);
-        LocalDate today = LocalDate.now();
-
-        for (Saving saving : savings) {
-            if (saving.getGoalDate() == null) {
-                continue;
-            }
+    private void checkSavingsDeadline(int userId, Saving saving, LocalDate today, NotificationBatchWriter.Batch batch) {
+        if (saving.getGoalDate() == null) {
+            return;
+        }
 
-            long daysRemaining = ChronoUnit.DAYS.between(today, saving.getGoalDate());
+        long daysRemaining = ChronoUnit.DAYS.between(today, saving.getGoalDate());
 
-            // Notify based on ranges
-            if (daysRemaining <= 7 && daysRemaining > 3) {
-                createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.LOW);
-            } else if (daysRemaining <= 3 && daysRemaining > 1) {
-                createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.MEDIUM);
-            } else if (daysRemaining <= 1 && daysRemaining >= 0) {
-                createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.HIGH);
-            }
+        // Notify based on ranges
+        if (daysRemaining <= 7 && daysRemaining > 3) {
+            createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.LOW, batch);
+        } else if (daysRemaining <= 3 && daysRemaining > 1) {
+            createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.MEDIUM, batch);
+        } else if (daysRemaining <= 1 && daysRemaining >= 0) {
+            createSavingsDeadlineNotification(userId, saving, daysRemaining, Urgency.HIGH, batch);
         }
     }
 
     /**
      * Create a notification for exceeded budget.
      */
-    private void createBudgetExceededNotification(int userId, Budget budget, String categoryName, double totalSpent) {
-        // Check if notification already exists
-        if (notificationRepository.existsNotification(userId, NotificationType.BUDGET_EXCEEDED,
-                budget.getBudgetId())) {
-            return;
-        }
+    private void createBudgetExceededNotification(BudgetThresholdCandidate budget, double totalSpent,
+            NotificationBatchWriter.Batch batch) {
+        int userId = budget.getUserId();
+        String categoryName = budget.getCategoryName();
 
         Notification notification = new Notification();
         notification.setUserId(userId);
@@ -238,22 +343,16 @@ public class NotificationService {
         notification.setCategory(categoryName);
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-        
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, categoryName);
+        batch.add(notification);
     }
 
-/**
+    /**
      * Create a notification for budget running low.
      */
-    private void createBudgetWarningNotification(int userId, Budget budget, String categoryName, double totalSpent,
-            double remainingPercent, double spentPercent) {
-        // Check if notification already exists
-        if (notificationRepository.existsNotification(userId, NotificationType.BUDGET_WARNING,
-                budget.getBudgetId())) {
-            return;
-        }
+    private void createBudgetWarningNotification(BudgetThresholdCandidate budget, double totalSpent,
+            double remainingPercent, double spentPercent, NotificationBatchWriter.Batch batch) {
+        int userId = budget.getUserId();
+        String categoryName = budget.getCategoryName();
 
         Notification notification = new Notification();
         notification.setUserId(userId);
@@ -268,22 +367,15 @@ public class NotificationService {
         notification.setCategory(categoryName);
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-        
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, categoryName);
+        batch.add(notification);
     }
 
     /**
      * Create a notification for approaching savings deadline.
+     * One is sent per urgency level; the batch drops levels already notified.
      */
-    private void createSavingsDeadlineNotification(int userId, Saving saving, long daysRemaining, Urgency urgencyLevel) {
-        // Check if notification of THIS urgency level already exists
-        if (notificationRepository.existsByUserIdAndTypeAndReferenceIdAndUrgencyAndIsDeletedFalse(
-                userId, NotificationType.SAVINGS_DEADLINE, saving.getSavingId(), urgencyLevel)) {
-            return;
-        }
-
+    private void createSavingsDeadlineNotification(int userId, Saving saving, long daysRemaining, Urgency urgencyLevel,
+            NotificationBatchWriter.Batch batch) {
         String timeLabel = daysRemaining <= 1 ? "Tomorrow" : daysRemaining + " days";
         if (daysRemaining == 0) timeLabel = "Today";
         
@@ -304,18 +396,14 @@ public class NotificationService {
         notification.setCategory(saving.getName());
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-        
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, saving.getName());
+        batch.add(notification);
     }
 
     /**
      * Check all active savings for milestone completion (50%, 75%, 100%).
      */
-    private void generateSavingsMilestoneNotifications(int userId) {
-        List<Saving> savings = savingRepository.findActiveSavingsByUserId(userId);
-
+    private void generateSavingsMilestoneNotifications(int userId, List<Saving> savings,
+            NotificationBatchWriter.Batch batch) {
         for (Saving saving : savings) {
             if (saving.getTargetAmount() <= 0) {
                 continue;
@@ -325,15 +413,15 @@ public class NotificationService {
 
             // Check 100% completion (Goal Completed)
             if (progress >= 100) {
-                createSavingsCompletedNotification(userId, saving, progress);
+                createSavingsCompletedNotification(userId, saving, progress, batch);
             }
             // Check 75% milestone
             else if (progress >= 75 && progress < 100) {
-                createSavingsMilestoneNotification(userId, saving, 75, progress, Urgency.MEDIUM);
+                createSavingsMilestoneNotification(userId, saving, 75, progress, Urgency.MEDIUM, batch);
             }
             // Check 50% milestone
             else if (progress >= 50 && progress < 75) {
-                createSavingsMilestoneNotification(userId, saving, 50, progress, Urgency.LOW);
+                createSavingsMilestoneNotification(userId, saving, 50, progress, Urgency.LOW, batch);
             }
         }
     }
@@ -341,13 +429,8 @@ public class NotificationService {
     /**
      * Create a notification for savings goal completion.
      */
-    private void createSavingsCompletedNotification(int userId, Saving saving, double progress) {
-        // Check if notification already exists
-        if (notificationRepository.existsByUserIdAndTypeAndReferenceIdAndIsDeletedFalse(
-                userId, NotificationType.SAVINGS_COMPLETED, saving.getSavingId())) {
-            return;
-        }
-
+    private void createSavingsCompletedNotification(int userId, Saving saving, double progress,
+            NotificationBatchWriter.Batch batch) {
         Notification notification = new Notification();
         notification.setUserId(userId);
         notification.setType(NotificationType.SAVINGS_COMPLETED);
@@ -361,26 +444,18 @@ public class NotificationService {
         notification.setCategory(saving.getName());
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-        
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, saving.getName());
+        batch.add(notification);
     }
 
     /**
      * Create a notification for savings milestone (50% or 75%).
      */
-    private void createSavingsMilestoneNotification(int userId, Saving saving, int milestone, double progress, Urgency urgency) {
+    private void createSavingsMilestoneNotification(int userId, Saving saving, int milestone, double progress,
+            Urgency urgency, NotificationBatchWriter.Batch batch) {
         NotificationType milestoneType = milestone == 50 
             ? NotificationType.SAVINGS_MILESTONE_50 
             : NotificationType.SAVINGS_MILESTONE_75;
 
-        // Check if this specific milestone notification already exists
-        if (notificationRepository.existsByUserIdAndTypeAndReferenceIdAndIsDeletedFalse(
-                userId, milestoneType, saving.getSavingId())) {
-            return;
-        }
-
         String milestoneEmoji = milestone == 50 ? "🎯" : "⭐";
         String milestoneMessage = milestone == 50 
             ? "You're halfway there!" 
@@ -400,19 +475,16 @@ public class NotificationService {
         notification.setCategory(saving.getName());
         notification.setRead(false);
 
-        Notification savedNotification = notificationRepository.save(notification);
-        
-        // Send via WebSocket for real-time notification
-        sendWebSocketNotification(userId, savedNotification, saving.getName());
+        batch.add(notification);
     }
 
     /**
-     * Get category name by ID.
+     * Get category names by ID with a single lookup.
      */
-    private String getCategoryName(int categoryId) {
-        return categoryRepository.findById(categoryId)
-                .map(Category::getName)
-                .orElse("Unknown Category");
+    private Map<Integer, String> getCategoryNames(Set<Integer> categoryIds) {
+        return categoryRepository.findAllById(categoryIds).stream()
+                .filter(category -> category.getName() != null)
+                .collect(Collectors.toMap(Category::getId, Category::getName, (a, b) -> a));
     }
 
     /**
@@ -475,19 +547,4 @@ public class NotificationService {
         notification.setDeletedAt(java.time.LocalDateTime.now());
         notificationRepository.save(notification);
     }
-
-    /**
-     * Helper method to send notification via WebSocket.
-     * Converts the notification entity to response DTO and sends to user.
-     */
-    private void sendWebSocketNotification(int userId, Notification notification, String categoryOrSavingName) {
-        try {
-            NotificationResponse response = NotificationResponse.fromEntity(notification, categoryOrSavingName);
-            webSocketController.sendNotificationToUser(userId, response);
-            log.info("📤 WebSocket notification sent to user {}: {}", userId, notification.getTitle());
-        } catch (Exception e) {
-            // Log error but don't fail the notification creation
-            log.error("❌ Failed to send WebSocket notification to user {}: {}", userId, e.getMessage());
-        }
-    }
 }
@@ -1,47 +1,76 @@
 package com.backend.appvengers.service;
 
 import com.backend.appvengers.config.RateLimitConfig;
+import com.backend.appvengers.ratelimit.BucketStore;
+import com.backend.appvengers.ratelimit.BucketStoreFactory;
+import com.backend.appvengers.ratelimit.InMemoryBucketStore;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.ConsumptionProbe;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Service for managing per-user rate limiting using Bucket4j token bucket algorithm.
  * Each user (identified by email) gets their own rate limit bucket.
  * 
- * Thread-safe implementation using ConcurrentHashMap.
- * Includes automatic cleanup of expired buckets to prevent memory leaks.
+ * Buckets are kept in a {@link BucketStore}: in memory by default, or in the
+ * database (ratelimit.store=jdbc) so the limit holds across backend instances.
+ * The in-memory store is size-bounded and expires idle buckets as it goes;
+ * {@link BucketStoreFactory} also evicts idle buckets of every store on a schedule.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RateLimitService {
+
+    /**
+     * Returned for every request while rate limiting is disabled. Probes are immutable.
+     */
+    private static final ConsumptionProbe UNLIMITED_PROBE = ConsumptionProbe.consumed(999_999_999L, 0L);
     
     private final RateLimitConfig rateLimitConfig;
     
     /**
-     * Map of user email to their rate limit bucket.
-     * Using ConcurrentHashMap for thread-safety.
+     * Rate limit buckets by normalized user email.
      */
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
-    
+    private final BucketStore bucketStore;
+
+    // Bound once so a lookup of an existing bucket allocates nothing
+    private final Supplier<BucketConfiguration> bucketConfiguration = this::createConfiguration;
+
+    @Autowired
+    public RateLimitService(RateLimitConfig rateLimitConfig, BucketStoreFactory bucketStoreFactory) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.bucketStore = bucketStoreFactory.create("chatbot", idleTimeout(rateLimitConfig));
+    }
+
     /**
-     * Map to track last access time for cleanup purposes.
+     * Creates a service with an in-memory bucket store.
      */
-    private final Map<String, Long> lastAccessTime = new ConcurrentHashMap<>();
+    public RateLimitService(RateLimitConfig rateLimitConfig) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.bucketStore = new InMemoryBucketStore(idleTimeout(rateLimitConfig),
+                InMemoryBucketStore.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Idle time after which a bucket may be dropped: the cleanup interval, but never
+     * less than the one minute a bucket takes to refill.
+     */
+    private static Duration idleTimeout(RateLimitConfig rateLimitConfig) {
+        return Duration.ofMinutes(Math.max(1, rateLimitConfig.getCleanupIntervalMinutes()));
+    }
     
     @PostConstruct
     public void init() {
-        log.info("RateLimitService initialized with {} requests/minute, cleanup every {} minutes",
+        log.info("RateLimitService initialized with {} requests/minute, idle buckets kept {} minutes",
                 rateLimitConfig.getRequestsPerMinute(),
                 rateLimitConfig.getCleanupIntervalMinutes());
     }
@@ -55,12 +84,11 @@ public class RateLimitService {
     public ConsumptionProbe tryConsume(String userEmail) {
         if (!rateLimitConfig.isEnabled()) {
             // Rate limiting disabled - always allow
-            return createSuccessProbe();
+            return UNLIMITED_PROBE;
         }
         
         String key = normalizeKey(userEmail);
-        Bucket bucket = buckets.computeIfAbsent(key, this::createBucket);
-        lastAccessTime.put(key, System.currentTimeMillis());
+        Bucket bucket = bucketStore.getBucket(key, bucketConfiguration);
         
         ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
         
@@ -83,52 +111,35 @@ public class RateLimitService {
         }
         
         String key = normalizeKey(userEmail);
-        Bucket bucket = buckets.get(key);
+        Optional<Bucket> bucket = bucketStore.findBucket(key);
         
-        if (bucket == null) {
+        if (bucket.isEmpty()) {
             return rateLimitConfig.getRequestsPerMinute();
         }
         
-        return bucket.getAvailableTokens();
+        return bucket.get().getAvailableTokens();
     }
     
     /**
-     * Creates a new rate limit bucket for a user.
+     * Creates the bucket configuration for a new user bucket.
      * Uses token bucket algorithm with refill of all tokens every minute.
      * 
-     * @param key The normalized user identifier
-     * @return A new Bucket configured with the rate limit settings
+     * @return Configuration with the rate limit settings
      */
-    private Bucket createBucket(String key) {
+    private BucketConfiguration createConfiguration() {
         Bandwidth limit = Bandwidth.builder()
                 .capacity(rateLimitConfig.getRequestsPerMinute())
                 .refillGreedy(rateLimitConfig.getRequestsPerMinute(), Duration.ofMinutes(1))
                 .build();
         
-        log.debug("Created rate limit bucket for user: {} with {} tokens/minute", 
-                key, rateLimitConfig.getRequestsPerMinute());
+        log.debug("Created rate limit bucket with {} tokens/minute", 
+                rateLimitConfig.getRequestsPerMinute());
         
-        return Bucket.builder()
+        return BucketConfiguration.builder()
                 .addLimit(limit)
                 .build();
     }
     
-    /**
-     * Creates a success probe for when rate limiting is disabled.
-     * Uses a bucket with enough capacity to always succeed.
-     */
-    private ConsumptionProbe createSuccessProbe() {
-        // Create a temporary bucket with high capacity to get a success probe
-        // Using 1 billion tokens with slow refill (1 per day) - more than enough
-        Bucket tempBucket = Bucket.builder()
-                .addLimit(Bandwidth.builder()
-                        .capacity(1_000_000_000L)
-                        .refillGreedy(1, Duration.ofDays(1))
-                        .build())
-                .build();
-        return tempBucket.tryConsumeAndReturnRemaining(1);
-    }
-    
     /**
      * Normalizes the user key (lowercase, trimmed).
      * 
@@ -142,53 +153,20 @@ public class RateLimitService {
         return userEmail.toLowerCase().trim();
     }
     
-    /**
-     * Scheduled cleanup of expired buckets to prevent memory leaks.
-     * Runs every hour by default.
-     * Removes buckets that haven't been accessed in the cleanup interval.
-     */
-    @Scheduled(fixedRateString = "${chatbot.ratelimit.cleanup-interval-minutes:60}000")
-    public void cleanupExpiredBuckets() {
-        if (buckets.isEmpty()) {
-            return;
-        }
-        
-        long expirationThreshold = System.currentTimeMillis() - 
-                (rateLimitConfig.getCleanupIntervalMinutes() * 60 * 1000L);
-        
-        int removedCount = 0;
-        var iterator = lastAccessTime.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            var entry = iterator.next();
-            if (entry.getValue() < expirationThreshold) {
-                buckets.remove(entry.getKey());
-                iterator.remove();
-                removedCount++;
-            }
-        }
-        
-        if (removedCount > 0) {
-            log.info("Cleaned up {} expired rate limit buckets. Active buckets: {}", 
-                    removedCount, buckets.size());
-        }
-    }
-    
     /**
      * Gets the current number of active buckets (for monitoring).
      * 
      * @return Number of active rate limit buckets
      */
     public int getActiveBucketCount() {
-        return buckets.size();
+        return bucketStore.size();
     }
     
     /**
      * Clears all rate limit buckets (useful for testing).
      */
     public void clearAllBuckets() {
-        buckets.clear();
-        lastAccessTime.clear();
+        bucketStore.clear();
         log.info("All rate limit buckets cleared");
     }
 }
@@ -0,0 +1,205 @@
+package com.backend.appvengers.service;
+
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool of connected, authenticated SMTP transports for batch sending.
+ *
+ * {@link JavaMailSender#send} opens a connection (and runs STARTTLS and AUTH)
+ * for every call. Transports borrowed from this pool stay open between
+ * messages and between batches, until they have sent
+ * {@code email.smtp.max-messages-per-connection} messages, sat idle longer than
+ * {@code email.smtp.idle-timeout-ms}, or broke. At most
+ * {@code email.smtp.pool-size} transports are in use at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmtpTransportPool {
+
+    private final JavaMailSender mailSender;
+
+    @Value("${email.smtp.pool-size:4}")
+    private int poolSize = 4;
+
+    @Value("${email.smtp.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection = 100;
+
+    @Value("${email.smtp.idle-timeout-ms:60000}")
+    private long idleTimeoutMs = 60000;
+
+    // Most recently used first, so surplus transports age out
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private Semaphore permits;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+
+    /**
+     * Pool statistics for monitoring.
+     */
+    public record Stats(int poolSize, int idle, int inUse, long opened, long reused, long closed) {}
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(poolSize, true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Take a connected transport, waiting while all of them are in use.
+     * Every borrowed transport must be given back with {@link #release}.
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection");
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.isReusable()) {
+                    reused.increment();
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give a transport back. Broken transports, and those that have sent their
+     * share of messages, are closed instead of kept.
+     *
+     * @param healthy False if the connection failed while in use
+     */
+    public void release(PooledTransport pooled, boolean healthy) {
+        try {
+            if (healthy && !pooled.isExhausted()) {
+                idle.offerFirst(pooled);
+            } else {
+                close(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(poolSize, idle.size(), poolSize - permits.availablePermits(),
+                opened.sum(), reused.sum(), closed.sum());
+    }
+
+    private PooledTransport open() throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            throw new IllegalStateException("Pooled SMTP sending needs a JavaMailSenderImpl");
+        }
+        // Same protocol resolution as JavaMailSenderImpl
+        String protocol = sender.getProtocol();
+        if (protocol == null) {
+            protocol = sender.getSession().getProperty("mail.transport.protocol");
+        }
+        Transport transport = sender.getSession().getTransport(protocol == null ? "smtp" : protocol);
+        transport.connect(sender.getHost(), sender.getPort(), emptyToNull(sender.getUsername()),
+                emptyToNull(sender.getPassword()));
+        opened.increment();
+        log.debug("Opened SMTP connection to {}:{}", sender.getHost(), sender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        closed.increment();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /**
+     * An open SMTP connection borrowed from the pool. Not thread-safe: use it
+     * from one thread between {@link #borrow} and {@link #release}.
+     */
+    public final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            lastUsedNanos = System.nanoTime();
+            transport.sendMessage(message, message.getAllRecipients());
+            messagesSent++;
+        }
+
+        /**
+         * Whether the transport has sent its share of messages and should be
+         * released (which closes it) before sending more.
+         */
+        public boolean isExhausted() {
+            return messagesSent >= maxMessagesPerConnection;
+        }
+
+        /**
+         * Whether the server still holds the connection open (checked with NOOP).
+         */
+        public boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        private boolean isReusable() {
+            return !isExhausted()
+                    && System.nanoTime() - lastUsedNanos < TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs)
+                    && isConnected();
+        }
+    }
+}
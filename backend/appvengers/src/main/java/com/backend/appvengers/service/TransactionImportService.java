@@ -0,0 +1,398 @@
+package com.backend.appvengers.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.backend.appvengers.dto.TransactionImportResult;
+import com.backend.appvengers.entity.Category;
+import com.backend.appvengers.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk import of transactions from CSV or JSON.
+ *
+ * The body is parsed row by row as it is read. Categories are resolved by name
+ * through a map built once per import, valid rows are written with JDBC batch
+ * inserts (Hibernate cannot batch IDENTITY inserts), and the monthly rollup is
+ * updated once per batch. Each batch commits on its own, so a large import
+ * never holds one long transaction. If the import stops part way (malformed
+ * input, a failed batch), the batches already committed are kept and reported
+ * in the result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionImportService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO tbl_transaction (user_id, category_id, amount, description, transaction_date, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final MonthlyRollupService monthlyRollupService;
+    private final UserChangeTracker userChangeTracker;
+    private final ObjectMapper objectMapper;
+
+    @Value("${transaction.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${transaction.import.max-rows:50000}")
+    private int maxRows;
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format fromParam(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported import format: " + value);
+            }
+        }
+    }
+
+    // One parsed input row before validation (all fields as text)
+    private record RawRow(int rowNumber, String date, String amount, String description,
+                          String category, String categoryId) {}
+
+    private record ValidRow(Category category, BigDecimal amount, String description, LocalDate date) {}
+
+    /**
+     * Import transactions for a user.
+     *
+     * CSV needs a header row with: date (or transactionDate), amount, description,
+     * category (name) and optionally categoryId. JSON accepts an array of objects,
+     * or one object per line, with the same field names. A category is required;
+     * a missing date defaults to today.
+     */
+    public TransactionImportResult importTransactions(int userId, Format format, InputStream body) throws IOException {
+        Map<String, Category> categoriesByName = new HashMap<>();
+        Map<Integer, Category> categoriesById = new HashMap<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            categoriesByName.putIfAbsent(category.getName().trim().toLowerCase(Locale.ROOT), category);
+            categoriesById.put(category.getId(), category);
+        }
+
+        ImportRun run = new ImportRun(userId, categoriesByName, categoriesById);
+        Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readJson(reader, run);
+            }
+            run.flush();
+        } catch (IOException | RuntimeException e) {
+            if (run.imported == 0) {
+                throw e;
+            }
+            // Earlier batches are committed: report them instead of failing the whole request
+            run.stop(e);
+        }
+
+        if (run.imported > 0) {
+            userChangeTracker.markChanged(userId);
+        }
+        log.info("Imported {} of {} transactions for user {}", run.imported, run.total, userId);
+        return new TransactionImportResult(run.total, run.imported, run.failed, run.errors);
+    }
+
+    private void readCsv(Reader reader, ImportRun run) throws IOException {
+        CsvRowReader csv = new CsvRowReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("amount")) {
+            throw new RuntimeException("CSV header must contain an 'amount' column");
+        }
+
+        List<String> fields;
+        int rowNumber = 0;
+        while ((fields = csv.next()) != null && run.hasCapacity()) {
+            rowNumber++;
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            run.accept(new RawRow(rowNumber,
+                    column(fields, columns, "date", "transactiondate"),
+                    column(fields, columns, "amount"),
+                    column(fields, columns, "description"),
+                    column(fields, columns, "category", "categoryname"),
+                    column(fields, columns, "categoryid")));
+        }
+    }
+
+    private void readJson(Reader reader, ImportRun run) throws IOException {
+        // Reads either a top-level array or a sequence of objects, one element at a time
+        try (MappingIterator<JsonNode> rows = objectMapper.readerFor(JsonNode.class).readValues(reader)) {
+            int rowNumber = 0;
+            while (rows.hasNextValue() && run.hasCapacity()) {
+                JsonNode node = rows.nextValue();
+                rowNumber++;
+                run.accept(new RawRow(rowNumber,
+                        text(node, "date", "transactionDate"),
+                        text(node, "amount"),
+                        text(node, "description"),
+                        text(node, "category", "categoryName"),
+                        text(node, "categoryId")));
+            }
+        }
+    }
+
+    private static String column(List<String> fields, Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer index = columns.get(name);
+            if (index != null && index < fields.size()) {
+                return fields.get(index);
+            }
+        }
+        return null;
+    }
+
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull()) {
+                return value.asText();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * State of one import: validates rows, buffers valid ones and writes them batch by batch.
+     */
+    private class ImportRun {
+        private final int userId;
+        private final Map<String, Category> categoriesByName;
+        private final Map<Integer, Category> categoriesById;
+        private final List<ValidRow> pending = new ArrayList<>();
+        private final List<TransactionImportResult.RowError> errors = new ArrayList<>();
+        private int total;
+        private int imported;
+        private int failed;
+
+        ImportRun(int userId, Map<String, Category> categoriesByName, Map<Integer, Category> categoriesById) {
+            this.userId = userId;
+            this.categoriesByName = categoriesByName;
+            this.categoriesById = categoriesById;
+        }
+
+        boolean hasCapacity() {
+            if (total < maxRows) {
+                return true;
+            }
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TransactionImportResult.RowError(total + 1,
+                        "Import is limited to " + maxRows + " rows; remaining rows were not read"));
+            }
+            return false;
+        }
+
+        void accept(RawRow row) {
+            total++;
+            try {
+                pending.add(validate(row));
+            } catch (IllegalArgumentException e) {
+                reject(row.rowNumber(), e.getMessage());
+            }
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<ValidRow> batch = List.copyOf(pending);
+            pending.clear();
+            Date today = Date.valueOf(LocalDate.now());
+
+            try {
+                insert(batch, today);
+            } catch (RuntimeException e) {
+                failed += batch.size();
+                throw e;
+            }
+            imported += batch.size();
+        }
+
+        void stop(Exception e) {
+            failed += pending.size();
+            pending.clear();
+            log.warn("Import for user {} stopped after row {} with {} rows saved: {}", userId, total, imported,
+                    e.getMessage());
+            errors.add(new TransactionImportResult.RowError(total, "Import stopped: " + e.getMessage()));
+        }
+
+        private void insert(List<ValidRow> batch, Date today) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, row) -> {
+                    ps.setInt(1, userId);
+                    ps.setInt(2, row.category().getId());
+                    ps.setBigDecimal(3, row.amount());
+                    ps.setString(4, row.description());
+                    ps.setDate(5, Date.valueOf(row.date()));
+                    ps.setDate(6, today);
+                    ps.setDate(7, today);
+                });
+                // Derived totals: one rollup update per batch
+                monthlyRollupService.recordAdded(userId, batch.stream()
+                        .map(row -> new MonthlyRollupService.Contribution(row.category(), row.date(), row.amount(), true))
+                        .toList());
+            });
+        }
+
+        private ValidRow validate(RawRow row) {
+            if (row.amount() == null || row.amount().isBlank()) {
+                throw new IllegalArgumentException("Amount is required");
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(row.amount().trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount: " + row.amount());
+            }
+            if (amount.signum() <= 0) {
+                throw new IllegalArgumentException("Amount must be greater than zero");
+            }
+
+            // Transaction lists and summaries skip undated rows, so default to the import day
+            LocalDate date = LocalDate.now();
+            if (row.date() != null && !row.date().isBlank()) {
+                try {
+                    date = LocalDate.parse(row.date().trim());
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid date (expected yyyy-MM-dd): " + row.date());
+                }
+            }
+
+            Category category;
+            if (row.categoryId() != null && !row.categoryId().isBlank()) {
+                try {
+                    category = categoriesById.get(Integer.parseInt(row.categoryId().trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid category id: " + row.categoryId());
+                }
+                if (category == null) {
+                    throw new IllegalArgumentException("Category not found: " + row.categoryId());
+                }
+            } else if (row.category() != null && !row.category().isBlank()) {
+                category = categoriesByName.get(row.category().trim().toLowerCase(Locale.ROOT));
+                if (category == null) {
+                    throw new IllegalArgumentException("Category not found: " + row.category());
+                }
+            } else {
+                // Uncategorized transactions are hidden by the transaction lists and summaries
+                throw new IllegalArgumentException("Category is required");
+            }
+
+            String description = row.description() != null && !row.description().isBlank() ? row.description().trim() : null;
+            if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+                throw new IllegalArgumentException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+            }
+            return new ValidRow(category, amount, description, date);
+        }
+
+        private void reject(int rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new TransactionImportResult.RowError(rowNumber, message));
+            }
+        }
+    }
+
+    /**
+     * Minimal streaming RFC 4180 reader: quoted fields, escaped quotes and
+     * line breaks inside quotes. Returns one record at a time.
+     */
+    static class CsvRowReader {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private boolean eof;
+
+        CsvRowReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        List<String> next() throws IOException {
+            if (eof) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+            int ch;
+            while ((ch = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int nextCh = reader.read();
+                        if (nextCh == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (nextCh != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) ch);
+                    }
+                } else if (ch == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\n') {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (ch != '\r') {
+                    field.append((char) ch);
+                }
+            }
+            eof = true;
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.backend.appvengers.dto.BudgetSummaryResponse;
 import com.backend.appvengers.dto.ExpenseSummary;
 import com.backend.appvengers.dto.IncomeSummary;
 import com.backend.appvengers.dto.MonthlyReportResponse;
+import com.backend.appvengers.dto.TransactionPageResponse;
 import com.backend.appvengers.dto.TransactionRequest;
 import com.backend.appvengers.dto.TransactionResponse;
 import com.backend.appvengers.dto.TransactionWithCategoryResponse;
@@ -17,16 +18,22 @@ import com.backend.appvengers.repository.BudgetRepository;
 import com.backend.appvengers.repository.TransactionRepository;
 import com.backend.appvengers.repository.UserRepository;
 import com.backend.appvengers.repository.CategoryRepository;
+import com.backend.appvengers.security.UserIdentityCache;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -37,16 +44,23 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
+    private final UserIdentityCache userIdentityCache;
+    private final EntityManager entityManager;
+    private final UserChangeTracker userChangeTracker;
+    private final BudgetUsageService budgetUsageService;
+    private final MonthlyRollupService monthlyRollupService;
     @Lazy
     private final NotificationService notificationService;
 
     public List<TransactionResponse> findAllForUser(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
         return transactionRepository.findByUserAndDeletedAtIsNull(user).stream()
                 .map(this::toResponse)
@@ -54,27 +68,53 @@ public class TransactionService {
     }
 
     public List<TransactionWithCategoryResponse> findAllWithCategory(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
         // Match native query constraints: category join present, saving_id NULL, budget_id NULL, category_id NOT NULL
         List<Transaction> txs = transactionRepository.findByUserAndDeletedAtIsNull(user);
-        return txs.stream().map(t -> new TransactionWithCategoryResponse(
-                t.getId(),
-                t.getAmount(),
-                t.getDescription(),
-                t.getTransactionDate(),
-                t.getCategoryRef() != null ? t.getCategoryRef().getId() : null,
-                t.getCategoryRef() != null ? t.getCategoryRef().getName() : null,
-                t.getCategoryRef() != null ? t.getCategoryRef().getType() : null,
-                t.getCategoryRef() != null ? t.getCategoryRef().getUserId() : null
-        )).toList();
+        return txs.stream().map(this::toWithCategoryResponse).toList();
+    }
+
+    /**
+     * Keyset-paginated listing of a user's transactions, newest first.
+     * All filters are optional; {@code budgetId} switches the listing to that budget's expenses.
+     *
+     * @param cursor Opaque cursor from the previous page's {@code nextCursor}, or null for the first page
+     * @param size Requested page size, clamped to 1..{@value #MAX_PAGE_SIZE}
+     */
+    public TransactionPageResponse findPageForUser(String email, LocalDate fromDate, LocalDate toDate,
+                                                   String type, Integer categoryId, Integer budgetId,
+                                                   String cursor, Integer size) {
+        User user = currentUser(email);
+
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = parts[0].isEmpty() ? null : LocalDate.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+        String normalizedType = type == null || type.isBlank() ? null : type.trim().toUpperCase(Locale.ROOT);
+
+        // Fetch one extra row to know whether another page exists
+        List<Transaction> rows = transactionRepository.findPageForUser(
+                user.getId(), fromDate, toDate, normalizedType, categoryId, budgetId,
+                cursorDate, cursorId, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Transaction> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        List<TransactionWithCategoryResponse> items = page.stream()
+                .map(this::toWithCategoryResponse)
+                .toList();
+        return new TransactionPageResponse(items, nextCursor, hasMore);
     }
 
     @Transactional
     public TransactionResponse create(String email, TransactionRequest req) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
         Transaction t = new Transaction();
         t.setUser(user);
@@ -90,13 +130,14 @@ public class TransactionService {
         t.setTransactionDate(req.getTransactionDate());
 
         Transaction saved = transactionRepository.save(t);
+        monthlyRollupService.recordChange(user.getId(), null, MonthlyRollupService.Contribution.of(saved));
+        userChangeTracker.markChanged(user.getId());
         return toResponse(saved);
     }
 
     @Transactional
     public TransactionResponse update(String email, Long id, TransactionRequest req) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
         Transaction t = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
@@ -105,6 +146,8 @@ public class TransactionService {
             throw new RuntimeException("Not authorized");
         }
 
+        BigDecimal previousAmount = t.getAmount();
+        MonthlyRollupService.Contribution before = MonthlyRollupService.Contribution.of(t);
         t.setAmount(req.getAmount());
         if (req.getCategory_id() != null) {
             Category cat = categoryRepository.findById(req.getCategory_id())
@@ -117,13 +160,17 @@ public class TransactionService {
         t.setTransactionDate(req.getTransactionDate());
 
         Transaction saved = transactionRepository.save(t);
+        if (t.getBudget() != null && t.getDeletedAt() == null) {
+            budgetUsageService.applyDelta(t.getBudget().getBudgetId(), req.getAmount().subtract(previousAmount), 0);
+        }
+        monthlyRollupService.recordChange(user.getId(), before, MonthlyRollupService.Contribution.of(saved));
+        userChangeTracker.markChanged(user.getId());
         return toResponse(saved);
     }
 
     @Transactional
     public void delete(String email, Long id) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
         Transaction t = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
@@ -133,16 +180,22 @@ public class TransactionService {
         }
 
         // Soft delete: set deleted flag to true instead of removing from database
+        boolean wasActive = t.getDeletedAt() == null;
+        MonthlyRollupService.Contribution before = MonthlyRollupService.Contribution.of(t);
         t.setDeletedAt(LocalDate.now());
         transactionRepository.save(t);
+        if (t.getBudget() != null && wasActive) {
+            budgetUsageService.applyDelta(t.getBudget().getBudgetId(), t.getAmount().negate(), -1);
+        }
+        monthlyRollupService.recordChange(user.getId(), before, null);
+        userChangeTracker.markChanged(user.getId());
     }
 
     // Expense summary
     public ExpenseSummary getExpenseSummary(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
-        List<Object[]> rows = transactionRepository.findExpenseSummaryByUserAndType(user, "EXPENSE");
+        List<Object[]> rows = monthlyRollupService.getTotalsByCategory(user.getId(), "EXPENSE");
         List<String> labels = new ArrayList<>();
         List<Double> values = new ArrayList<>();
 
@@ -156,10 +209,9 @@ public class TransactionService {
 
     // Income summary 
     public IncomeSummary getIncomeSummary(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
-        List<Object[]> rows = transactionRepository.findIncomeSummaryByUserAndType(user, "INCOME");
+        List<Object[]> rows = monthlyRollupService.getTotalsByCategory(user.getId(), "INCOME");
         List<String> labels = new ArrayList<>();
         List<Double> values = new ArrayList<>();
 
@@ -171,86 +223,94 @@ public class TransactionService {
         return new IncomeSummary(labels, values);
     }
 
-    // Monthly reports - get last month and this month spending
+    // Monthly reports - get last month and this month spending (one rollup query for both months)
     public List<MonthlyReportResponse> getMonthlyReports(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        User user = currentUser(email);
 
-        List<MonthlyReportResponse> reports = new ArrayList<>();
-        
-        // Current month
         YearMonth currentMonth = YearMonth.now();
-        LocalDate currentStart = currentMonth.atDay(1);
-        LocalDate currentEnd = currentMonth.atEndOfMonth().plusDays(1);
-        
-        Double currentTotalExpense = transactionRepository.findMonthlyTotalByUserAndDateRange(
-            user, currentStart, currentEnd
-        );
-        
-        Double currentTotalIncome = transactionRepository.findMonthlyIncomeByUserAndDateRange(
-            user, currentStart, currentEnd
-        );
+        YearMonth lastMonth = currentMonth.minusMonths(1);
+        List<Object[]> rows = monthlyRollupService.getMonthlyTotals(user.getId(), List.of(currentMonth, lastMonth));
 
-        List<Object[]> currentExpenseByCategory = transactionRepository.findMonthlyExpenseByCategoryAndDateRange(
-            user, currentStart, currentEnd
-        );
+        List<MonthlyReportResponse> reports = new ArrayList<>();
+        reports.add(toMonthlyReport(currentMonth, rows));
+        reports.add(toMonthlyReport(lastMonth, rows));
+        return reports;
+    }
 
-        List<Object[]> currentIncomeByCategory = transactionRepository.findMonthlyIncomeByCategoryAndDateRange(
-            user, currentStart, currentEnd
-        );
-        
-        reports.add(new MonthlyReportResponse(
-            currentMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + currentMonth.getYear(),
-            currentMonth.getMonthValue(),
-            currentMonth.getYear(),
-            currentTotalExpense != null ? currentTotalExpense : 0.0,
-            currentTotalIncome != null ? currentTotalIncome : 0.0,
-            convertToMap(currentExpenseByCategory),
-            convertToMap(currentIncomeByCategory)
-        ));
-        
-        // Last month
-        YearMonth lastMonth = currentMonth.minusMonths(1);
-        LocalDate lastStart = lastMonth.atDay(1);
-        LocalDate lastEnd = lastMonth.atEndOfMonth().plusDays(1);
-        
-        Double lastTotalExpense = transactionRepository.findMonthlyTotalByUserAndDateRange(
-            user, lastStart, lastEnd
-        );
+    // Rows are [monthKey, type, categoryName, total] from the monthly rollup
+    private MonthlyReportResponse toMonthlyReport(YearMonth month, List<Object[]> rows) {
+        int monthKey = MonthlyRollupService.monthKey(month);
+        Map<String, Double> expenseByCategory = new java.util.HashMap<>();
+        Map<String, Double> incomeByCategory = new java.util.HashMap<>();
+        double totalExpense = 0.0;
+        double totalIncome = 0.0;
 
-        Double lastTotalIncome = transactionRepository.findMonthlyIncomeByUserAndDateRange(
-            user, lastStart, lastEnd
-        );
+        for (Object[] row : rows) {
+            if (((Number) row[0]).intValue() != monthKey) {
+                continue;
+            }
+            String category = (String) row[2];
+            double amount = ((Number) row[3]).doubleValue();
+            if ("EXPENSE".equals(row[1])) {
+                expenseByCategory.put(category, amount);
+                totalExpense += amount;
+            } else if ("INCOME".equals(row[1])) {
+                incomeByCategory.put(category, amount);
+                totalIncome += amount;
+            }
+        }
 
-        List<Object[]> lastExpenseByCategory = transactionRepository.findMonthlyExpenseByCategoryAndDateRange(
-            user, lastStart, lastEnd
+        return new MonthlyReportResponse(
+            month.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + month.getYear(),
+            month.getMonthValue(),
+            month.getYear(),
+            totalExpense,
+            totalIncome,
+            expenseByCategory,
+            incomeByCategory
         );
+    }
 
-        List<Object[]> lastIncomeByCategory = transactionRepository.findMonthlyIncomeByCategoryAndDateRange(
-            user, lastStart, lastEnd
-        );
-        
-        reports.add(new MonthlyReportResponse(
-            lastMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + lastMonth.getYear(),
-            lastMonth.getMonthValue(),
-            lastMonth.getYear(),
-            lastTotalExpense != null ? lastTotalExpense : 0.0,
-            lastTotalIncome != null ? lastTotalIncome : 0.0,
-            convertToMap(lastExpenseByCategory),
-            convertToMap(lastIncomeByCategory)
-        ));
-        
-        return reports;
+    // Resolve the authenticated user through the identity cache; the returned User is an
+    // uninitialized reference, so only getId() is free (other fields trigger a load)
+    private User currentUser(String email) {
+        return entityManager.getReference(User.class, userIdentityCache.requireUserId(email));
     }
 
-    private Map<String, Double> convertToMap(List<Object[]> rows) {
-        Map<String, Double> result = new java.util.HashMap<>();
-        for (Object[] row : rows) {
-            String category = (String) row[0];
-            Double amount = ((Number) row[1]).doubleValue();
-            result.put(category, amount);
+    // Cursor is base64url("<transaction_date or empty>|<transaction_id>") of the last row on a page
+    private String encodeCursor(Transaction t) {
+        String raw = (t.getTransactionDate() != null ? t.getTransactionDate().toString() : "") + "|" + t.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            if (!parts[0].isEmpty()) {
+                LocalDate.parse(parts[0]);
+            }
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
         }
-        return result;
+    }
+
+    private TransactionWithCategoryResponse toWithCategoryResponse(Transaction t) {
+        return new TransactionWithCategoryResponse(
+                t.getId(),
+                t.getAmount(),
+                t.getDescription(),
+                t.getTransactionDate(),
+                t.getCategoryRef() != null ? t.getCategoryRef().getId() : null,
+                t.getCategoryRef() != null ? t.getCategoryRef().getName() : null,
+                t.getCategoryRef() != null ? t.getCategoryRef().getType() : null,
+                t.getCategoryRef() != null ? t.getCategoryRef().getUserId() : null
+        );
     }
 
     private TransactionResponse toResponse(Transaction t) {
@@ -313,6 +373,9 @@ public class TransactionService {
         tx.setAmount(req.amount());
 
         Transaction saved = transactionRepository.save(tx);
+        budgetUsageService.applyDelta(budget.getBudgetId(), req.amount(), 1);
+        monthlyRollupService.recordChange(user.getId(), null, MonthlyRollupService.Contribution.of(saved));
+        userChangeTracker.markChanged(user.getId());
         
         // Trigger immediate notification check for budget warnings/exceeded
         // This sends WebSocket notifications in real-time
@@ -340,12 +403,19 @@ public class TransactionService {
                 "Category not found"
             ));
 
+        BigDecimal previousAmount = tx.getAmount();
+        MonthlyRollupService.Contribution before = MonthlyRollupService.Contribution.of(tx);
         tx.setTransactionDate(req.transaction_date());
         tx.setDescription(req.description());
         tx.setCategoryRef(category);  
         tx.setAmount(req.amount());
 
         Transaction saved = transactionRepository.save(tx);
+        if (tx.getBudget() != null && tx.getDeletedAt() == null) {
+            budgetUsageService.applyDelta(tx.getBudget().getBudgetId(), req.amount().subtract(previousAmount), 0);
+        }
+        monthlyRollupService.recordChange(tx.getUser().getId(), before, MonthlyRollupService.Contribution.of(saved));
+        userChangeTracker.markChanged(tx.getUser().getId());
         
         // Trigger immediate notification check for budget warnings/exceeded
         // This sends WebSocket notifications in real-time
@@ -368,8 +438,15 @@ public class TransactionService {
                 "Budget transaction not found"
             ));
 
+        boolean wasActive = tx.getDeletedAt() == null;
+        MonthlyRollupService.Contribution before = MonthlyRollupService.Contribution.of(tx);
         tx.setDeletedAt(LocalDate.now());
         transactionRepository.save(tx);
+        if (tx.getBudget() != null && wasActive) {
+            budgetUsageService.applyDelta(tx.getBudget().getBudgetId(), tx.getAmount().negate(), -1);
+        }
+        monthlyRollupService.recordChange(tx.getUser().getId(), before, null);
+        userChangeTracker.markChanged(tx.getUser().getId());
         
         // Trigger notification check after delete (budget may no longer be exceeded)
         try {
@@ -383,7 +460,7 @@ public class TransactionService {
 
     //Budget Transaction [Get Total]
     public Double getTotalExpensesForBudget(Integer budgetId) {
-        return transactionRepository.sumByBudgetId(budgetId);
+        return budgetUsageService.getSpentTotal(budgetId);
     }
 
     //Budget Transaction [Get Budget Summary]
@@ -0,0 +1,117 @@
+package com.backend.appvengers.service;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tracks which users have had their transactions, budgets or savings changed
+ * since the last scheduled notification pass.
+ *
+ * Write paths call {@link #markChanged(int)}; the notification scheduler drains
+ * the set each tick so it only re-evaluates users whose data actually changed.
+ *
+ * Each user also has a data version that only ever increases on change, so
+ * caches of derived data (e.g. the chatbot context) can tell when they are stale.
+ * Versions live in a fixed number of slots shared by user id, so memory stays
+ * bounded however many users change. A change to one user also bumps the others
+ * in its slot, which only costs them a cache miss; a version never goes back, so
+ * stale data is never taken for current.
+ */
+@Component
+public class UserChangeTracker {
+
+    private final Set<Integer> changedUsers = ConcurrentHashMap.newKeySet();
+
+    static final int VERSION_SLOTS = 1 << 16;
+
+    private final AtomicLongArray dataVersions;
+
+    public UserChangeTracker() {
+        this(VERSION_SLOTS);
+    }
+
+    UserChangeTracker(int versionSlots) {
+        dataVersions = new AtomicLongArray(versionSlots);
+    }
+
+    /**
+     * Mark a user as changed so the next scheduler pass re-evaluates them.
+     * Also bumps the user's data version. Inside a transaction the user is only
+     * queued after commit, so a pass never evaluates data that is not visible yet
+     * (or is rolled back).
+     */
+    public void markChanged(int userId) {
+        bumpVersion(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedUsers.add(userId);
+                }
+            });
+        } else {
+            changedUsers.add(userId);
+        }
+    }
+
+    /**
+     * Bump a user's data version without queuing a notification pass, for changes
+     * that only affect derived views (e.g. the username shown to the chatbot).
+     * Inside a transaction the version is bumped again after commit, so anything
+     * derived from pre-commit data in the meantime is seen as stale.
+     */
+    public void bumpVersion(int userId) {
+        int slot = slot(userId);
+        dataVersions.incrementAndGet(slot);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dataVersions.incrementAndGet(slot);
+                }
+            });
+        }
+    }
+
+    /**
+     * Current data version of a user (0 until the first change to a user in its
+     * slot since startup).
+     */
+    public long getDataVersion(int userId) {
+        return dataVersions.get(slot(userId));
+    }
+
+    private int slot(int userId) {
+        return Math.floorMod(userId, dataVersions.length());
+    }
+
+    /**
+     * Remove and return all users marked as changed since the last drain.
+     * Users marked while draining are either returned now or kept for the next pass.
+     */
+    public Set<Integer> drainChangedUsers() {
+        Set<Integer> drained = new HashSet<>();
+        Iterator<Integer> iterator = changedUsers.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * Number of users currently waiting for re-evaluation (for monitoring).
+     */
+    public int getPendingCount() {
+        return changedUsers.size();
+    }
+}
@@ -1,7 +1,6 @@
 package com.backend.appvengers.service;
 
 import com.backend.appvengers.dto.BudgetWithCategoryResponse;
-import com.backend.appvengers.dto.TransactionResponse;
 import com.backend.appvengers.dto.UserFinancialContext;
 import com.backend.appvengers.dto.UserFinancialContext.*;
 import com.backend.appvengers.entity.Saving;
@@ -11,26 +10,35 @@ import com.backend.appvengers.repository.SavingRepository;
 import com.backend.appvengers.repository.TransactionRepository;
 import com.backend.appvengers.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Service to gather user's financial context for AI chatbot.
  * Aggregates data from transactions, budgets, and savings.
+ *
+ * Transaction totals and per-category sums come from one GROUP BY query and the
+ * recent list from an index-ordered LIMIT query, so the user's transaction
+ * history is never loaded into memory.
  */
 @Service
 @RequiredArgsConstructor
 public class UserContextService {
 
+    static final int RECENT_TRANSACTION_LIMIT = 10;
+
     private final UserRepository userRepository;
-    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
     private final SavingRepository savingRepository;
-    private final TransactionRepository transactionRepository;
+    private final BudgetUsageService budgetUsageService;
 
     /**
      * Builds a comprehensive financial context for the authenticated user.
@@ -40,66 +48,44 @@ public class UserContextService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Get all transactions
-        List<TransactionResponse> allTransactions = transactionService.findAllForUser(email);
-
-        // Calculate totals
-        BigDecimal totalIncome = allTransactions.stream()
-                .filter(t -> "INCOME".equalsIgnoreCase(t.getType()))
-                .map(TransactionResponse::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalExpenses = allTransactions.stream()
-                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
-                .map(TransactionResponse::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Fold per-type/category totals into overall totals and breakdowns in one pass
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpenses = BigDecimal.ZERO;
+        List<CategorySummary> expensesByCategory = new ArrayList<>();
+        List<CategorySummary> incomeByCategory = new ArrayList<>();
+        for (Object[] row : transactionRepository.sumByTypeAndCategoryName(user.getId())) {
+            String type = (String) row[0];
+            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            CategorySummary summary = CategorySummary.builder()
+                    .category((String) row[1])
+                    .amount(amount)
+                    .build();
+            if ("INCOME".equals(type)) {
+                totalIncome = totalIncome.add(amount);
+                incomeByCategory.add(summary);
+            } else if ("EXPENSE".equals(type)) {
+                totalExpenses = totalExpenses.add(amount);
+                expensesByCategory.add(summary);
+            }
+        }
 
         BigDecimal remainingBudget = totalIncome.subtract(totalExpenses);
 
-        // Get expense breakdown by category
-        List<CategorySummary> expensesByCategory = allTransactions.stream()
-                .filter(t -> "EXPENSE".equalsIgnoreCase(t.getType()))
-                .collect(Collectors.groupingBy(
-                        TransactionResponse::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, TransactionResponse::getAmount, BigDecimal::add)
-                ))
-                .entrySet().stream()
-                .map(e -> CategorySummary.builder()
-                        .category(e.getKey())
-                        .amount(e.getValue())
-                        .build())
-                .collect(Collectors.toList());
-
-        // Get income breakdown by category
-        List<CategorySummary> incomeByCategory = allTransactions.stream()
-                .filter(t -> "INCOME".equalsIgnoreCase(t.getType()))
-                .collect(Collectors.groupingBy(
-                        TransactionResponse::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, TransactionResponse::getAmount, BigDecimal::add)
-                ))
-                .entrySet().stream()
-                .map(e -> CategorySummary.builder()
-                        .category(e.getKey())
-                        .amount(e.getValue())
-                        .build())
-                .collect(Collectors.toList());
-
         // Get active budgets with spent amounts
-        List<BudgetSummary> activeBudgets = buildBudgetSummaries(user.getId(), allTransactions);
+        List<BudgetSummary> activeBudgets = buildBudgetSummaries(user.getId());
 
         // Get savings goals
         List<SavingSummary> savingsGoals = buildSavingsSummaries(user.getId());
 
         // Get recent transactions (last 10)
-        List<TransactionSummary> recentTransactions = allTransactions.stream()
-                .sorted((a, b) -> b.getTransactionDate().compareTo(a.getTransactionDate()))
-                .limit(10)
+        List<TransactionSummary> recentTransactions = transactionRepository
+                .findRecentForUser(user.getId(), PageRequest.of(0, RECENT_TRANSACTION_LIMIT)).stream()
                 .map(t -> TransactionSummary.builder()
                         .type(t.getType())
                         .amount(t.getAmount())
                         .category(t.getCategory())
                         .description(t.getDescription())
-                        .date(t.getTransactionDate().toString())
+                        .date(t.getTransactionDate() != null ? t.getTransactionDate().toString() : null)
                         .build())
                 .collect(Collectors.toList());
 
@@ -117,13 +103,16 @@ public class UserContextService {
                 .build();
     }
 
-    private List<BudgetSummary> buildBudgetSummaries(Integer userId, List<TransactionResponse> transactions) {
+    private List<BudgetSummary> buildBudgetSummaries(Integer userId) {
         List<BudgetWithCategoryResponse> budgets = budgetRepository.findBudgetsWithCategoryByUserId(userId);
 
+        // Spent totals come from the budget usage ledger (summed by budget_id),
+        // matching the logic used by frontend and notifications
+        Map<Integer, Double> spentTotals = budgetUsageService.getSpentTotals(
+                budgets.stream().map(BudgetWithCategoryResponse::getBudgetId).toList());
+
         return budgets.stream().map(budget -> {
-            // Use the correct repository method that sums by budget_id
-            // This matches the logic used by frontend and notifications
-            Double spentAmountDouble = transactionRepository.sumByBudgetId(budget.getBudgetId());
+            Double spentAmountDouble = spentTotals.get(budget.getBudgetId());
             BigDecimal spentAmount = BigDecimal.valueOf(spentAmountDouble != null ? spentAmountDouble : 0.0);
 
             BigDecimal limitAmount = BigDecimal.valueOf(budget.getLimitAmount());
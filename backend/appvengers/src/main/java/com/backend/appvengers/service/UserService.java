@@ -13,17 +13,16 @@ import com.backend.appvengers.dto.UpdateAccountRequest;
 import com.backend.appvengers.entity.User;
 import com.backend.appvengers.repository.UserRepository;
 import com.backend.appvengers.security.JwtService;
+import com.backend.appvengers.security.TokenVersionRegistry;
+import com.backend.appvengers.security.UserIdentityCache;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 
-import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -35,11 +34,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserService {
 
+    // How long a password reset link stays valid
+    public static final long PASSWORD_RESET_TOKEN_MINUTES = 15;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final CategoryService categoryService;
     private final JwtService jwtService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserChangeTracker userChangeTracker;
 
     @Value("${app.verification.base-url:http://localhost:8081/api/auth/verify-email?token=}")
     private String verificationBaseUrl;
@@ -50,9 +55,6 @@ public class UserService {
     @Value("${app.verification.resend-cooldown-minutes:10}")
     private long verificationResendCooldownMinutes;
 
-    @Value("${app.email.from:noreply@ibudget.site}")
-    private String emailFrom;
-
     @Value("${app.password-reset.frontend-url:http://localhost:4200/reset-password?token=}")
     private String passwordResetFrontendUrl;
 
@@ -86,22 +88,11 @@ public class UserService {
         userRepository.save(user);
         categoryService.seedDefaultsIfMissing(user.getId());
 
-        // Send Verification Email Template
+        // Queue Verification Email Template (sent after commit)
         String verificationLink = verificationBaseUrl + emailToken;
-        try {
-            emailService.sendHtmlEmail(emailFrom, user.getEmail(), "Verify your iBudget account", verificationLink,
-                    user.getUsername());
-        } catch (MessagingException | IOException e) {
-            throw new RuntimeException("Failed to send verification email");
-        }
+        emailOutboxService.enqueueVerification(user.getEmail(), user.getUsername(), verificationLink);
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
-
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
         AuthResponse response = new AuthResponse(user.getUsername(), user.getEmail(), token);
         return new ApiResponse(true, "Signup successful, Please check your email.", response);
     }
@@ -169,13 +160,7 @@ public class UserService {
 
         resetLockout(user);
 
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
-
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
         AuthResponse response = new AuthResponse(user.getUsername(), user.getEmail(), token);
         return new ApiResponse(true, "Login successful", response);
     }
@@ -241,7 +226,7 @@ public class UserService {
 
         // Set token expiry (15 minutes)
         user.setPasswordResetToken(resetToken);
-        user.setPasswordResetTokenExpiry(LocalDateTime.now().plusMinutes(15));
+        user.setPasswordResetTokenExpiry(LocalDateTime.now().plusMinutes(PASSWORD_RESET_TOKEN_MINUTES));
 
         // Update rate limiting fields
         user.setLastPasswordResetRequest(LocalDateTime.now());
@@ -249,13 +234,9 @@ public class UserService {
 
         userRepository.save(user);
 
-        // Send password reset email
+        // Queue password reset email
         String resetLink = passwordResetFrontendUrl + resetToken;
-        try {
-            emailService.sendPasswordResetEmail(emailFrom, user.getEmail(), user.getUsername(), resetLink);
-        } catch (MessagingException | IOException e) {
-            throw new RuntimeException("Failed to send password reset email");
-        }
+        emailOutboxService.enqueuePasswordReset(user.getEmail(), user.getUsername(), resetLink);
 
         return new ApiResponse(true, "If an account with that email exists, a password reset link has been sent.");
     }
@@ -314,18 +295,16 @@ public class UserService {
         // Update password changed timestamp
         user.setPasswordChangedAt(LocalDateTime.now());
 
+        // Sign out every existing session
+        tokenVersionRegistry.revokeAll(user);
+
         userRepository.save(user);
 
-        // Send confirmation email
-        try {
-            emailService.sendSimpleEmail(
-                    user.getEmail(),
-                    "iBudget Password Changed",
-                    "Your password has been successfully changed. If you didn't make this change, please contact support immediately.");
-        } catch (Exception e) {
-            // Log but don't fail the operation
-            log.error("Failed to send password change confirmation email", e);
-        }
+        // Queue confirmation email
+        emailOutboxService.enqueueNotice(
+                user.getEmail(),
+                "iBudget Password Changed",
+                "Your password has been successfully changed. If you didn't make this change, please contact support immediately.");
 
         return new ApiResponse(true, "Password has been reset successfully");
     }
@@ -361,19 +340,20 @@ public class UserService {
         // Update password changed timestamp
         user.setPasswordChangedAt(LocalDateTime.now());
 
+        // Sign out every existing session; the caller gets a fresh token below
+        tokenVersionRegistry.revokeAll(user);
+
         userRepository.save(user);
 
-        // Send confirmation email
-        try {
-            emailService.sendSimpleEmail(
-                    user.getEmail(),
-                    "iBudget Password Changed",
-                    "Your password has been successfully changed. If you didn't make this change, please contact support immediately.");
-        } catch (Exception e) {
-            log.error("Failed to send password change confirmation email", e);
-        }
+        // Queue confirmation email
+        emailOutboxService.enqueueNotice(
+                user.getEmail(),
+                "iBudget Password Changed",
+                "Your password has been successfully changed. If you didn't make this change, please contact support immediately.");
 
-        return new ApiResponse(true, "Password has been changed successfully");
+        String token = jwtService.generateToken(user);
+        AuthResponse authResponse = new AuthResponse(user.getUsername(), user.getEmail(), token);
+        return new ApiResponse(true, "Password has been changed successfully", authResponse);
     }
 
     // --- Account Deactivation ---
@@ -395,18 +375,16 @@ public class UserService {
         user.setActive(false);
         user.setDeactivatedAt(LocalDateTime.now());
         user.setDeactivationReason(request.getReason());
+        tokenVersionRegistry.revokeAll(user);
 
         userRepository.save(user);
+        userIdentityCache.invalidate(user.getEmail());
 
-        // Send confirmation email
-        try {
-            emailService.sendSimpleEmail(
-                    user.getEmail(),
-                    "iBudget Account Deactivated",
-                    "Your iBudget account has been deactivated. You can reactivate it by logging in again or contacting support.");
-        } catch (Exception e) {
-            log.error("Failed to send account deactivation email", e);
-        }
+        // Queue confirmation email
+        emailOutboxService.enqueueNotice(
+                user.getEmail(),
+                "iBudget Account Deactivated",
+                "Your iBudget account has been deactivated. You can reactivate it by logging in again or contacting support.");
 
         return new ApiResponse(true, "Account has been deactivated successfully");
     }
@@ -435,15 +413,10 @@ public class UserService {
         user.setDeactivationReason(null);
 
         userRepository.save(user);
+        userIdentityCache.invalidate(user.getEmail());
 
         // Generate token for auto-login after reactivation
-        UserDetails userDetails = org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities("ROLE_USER")
-                .build();
-
-        String token = jwtService.generateToken(userDetails);
+        String token = jwtService.generateToken(user);
         AuthResponse authResponse = new AuthResponse(user.getUsername(), user.getEmail(), token);
 
         return new ApiResponse(true, "Account has been reactivated successfully", authResponse);
@@ -461,6 +434,7 @@ public class UserService {
 
         // Set deletion metadata before triggering @SQLDelete
         user.setDeletionReason(request.getReason());
+        tokenVersionRegistry.revokeAll(user);
 
         // Save the reason first
         userRepository.save(user);
@@ -468,20 +442,18 @@ public class UserService {
         // Now delete (triggers @SQLDelete which sets is_deleted=true and
         // deleted_at=NOW())
         userRepository.delete(user);
+        userIdentityCache.invalidate(email);
 
-        // Send confirmation email
-        try {
-            emailService.sendSimpleEmail(
-                    email,
-                    "iBudget Account Deleted",
-                    "Your iBudget account has been permanently deleted. All your data will be removed within 30 days. If you didn't request this, please contact support immediately.");
-        } catch (Exception e) {
-            log.error("Failed to send account deletion email", e);
-        }
+        // Queue confirmation email
+        emailOutboxService.enqueueNotice(
+                email,
+                "iBudget Account Deleted",
+                "Your iBudget account has been permanently deleted. All your data will be removed within 30 days. If you didn't request this, please contact support immediately.");
 
         return new ApiResponse(true, "Account has been deleted successfully");
     }
 
+    @Transactional
     public ApiResponse resendVerificationEmail(String email) {
         Optional<User> opt = userRepository.findByEmail(email);
         // avoid user enumeration: return generic success when user not found
@@ -512,13 +484,7 @@ public class UserService {
         userRepository.save(user);
 
         String verificationLink = verificationBaseUrl + newToken;
-        try {
-            emailService.sendHtmlEmail(emailFrom, user.getEmail(), "Verify your iBudget account", verificationLink,
-                    user.getUsername());
-        } catch (Exception e) {
-            // TODO: Enhance Logging
-            return new ApiResponse(false, "Failed to send verification email. Please try again later.");
-        }
+        emailOutboxService.enqueueVerification(user.getEmail(), user.getUsername(), verificationLink);
 
         return new ApiResponse(true, "Verification email sent");
     }
@@ -600,10 +566,16 @@ public class UserService {
         // Update username if changed
         if (usernameChanged) {
             user.setUsername(request.getUsername());
+            // The chatbot context includes the username
+            userChangeTracker.bumpVersion(user.getId());
         }
 
         // Update email if changed
         if (emailChanged) {
+            // Tokens issued for the old email must stop resolving to this user;
+            // the caller gets a fresh token below so this session stays signed in
+            userIdentityCache.invalidate(currentEmail);
+            tokenVersionRegistry.revokeAll(user);
             user.setEmail(request.getEmail());
             user.setEmailVerified(false);
 
@@ -614,18 +586,14 @@ public class UserService {
 
             userRepository.save(user);
 
-            // Send verification email
+            // Queue verification email
             String verificationLink = verificationBaseUrl + emailToken;
-            try {
-                emailService.sendHtmlEmail(emailFrom, user.getEmail(), "Verify your iBudget account",
-                        verificationLink,
-                        user.getUsername());
-            } catch (MessagingException | IOException e) {
-                throw new RuntimeException("Failed to send verification email");
-            }
+            emailOutboxService.enqueueVerification(user.getEmail(), user.getUsername(), verificationLink);
 
+            String token = jwtService.generateToken(user);
+            AuthResponse authResponse = new AuthResponse(user.getUsername(), user.getEmail(), token);
             return new ApiResponse(true,
-                    "Account updated successfully. Please verify your new email address.");
+                    "Account updated successfully. Please verify your new email address.", authResponse);
         }
 
         userRepository.save(user);
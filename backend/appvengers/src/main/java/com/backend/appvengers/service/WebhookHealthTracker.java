@@ -0,0 +1,229 @@
+package com.backend.appvengers.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Health and circuit breaker state for the chatbot webhooks.
+ *
+ * Each endpoint keeps a rolling window of recent call outcomes and successful
+ * call latencies. When the failure rate over the window reaches the threshold
+ * the circuit opens and the endpoint is skipped for the open duration; after
+ * that a single trial call is let through (half-open), which either closes the
+ * circuit again or re-opens it.
+ */
+@Slf4j
+@Component
+public class WebhookHealthTracker {
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Point-in-time view of one endpoint, for monitoring.
+     */
+    public record EndpointStatus(String endpoint, CircuitState state, int calls, double failureRate,
+                                 long p50LatencyMs, long p95LatencyMs, Instant retryAt) {}
+
+    @Value("${n8n.webhook.circuit.window-size:20}")
+    private int windowSize = 20;
+
+    @Value("${n8n.webhook.circuit.failure-rate-threshold:50}")
+    private double failureRateThreshold = 50;
+
+    @Value("${n8n.webhook.circuit.minimum-calls:5}")
+    private int minimumCalls = 5;
+
+    @Value("${n8n.webhook.circuit.open-duration-ms:30000}")
+    private long openDurationMs = 30000;
+
+    private final Map<String, EndpointHealth> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a call to the endpoint may be made now. In half-open state this
+     * reserves the single trial call, so the caller must record its outcome.
+     */
+    public boolean allowRequest(String endpoint) {
+        return health(endpoint).allowRequest(System.nanoTime());
+    }
+
+    public void recordSuccess(String endpoint, long latencyMs) {
+        health(endpoint).recordSuccess(latencyMs);
+    }
+
+    public void recordFailure(String endpoint) {
+        health(endpoint).recordFailure(System.nanoTime());
+    }
+
+    /**
+     * Record a call that was abandoned before it finished (e.g. the losing side
+     * of a hedged request). It counts as neither success nor failure, but frees
+     * the half-open trial slot.
+     */
+    public void recordCancelled(String endpoint) {
+        health(endpoint).releaseTrial();
+    }
+
+    /**
+     * Record a call the endpoint refused with a client error (4xx). The endpoint
+     * is reachable, so this counts as neither success nor failure, but frees the
+     * half-open trial slot.
+     */
+    public void recordRejected(String endpoint) {
+        health(endpoint).releaseTrial();
+    }
+
+    public CircuitState getState(String endpoint) {
+        return health(endpoint).state;
+    }
+
+    /**
+     * Number of successful call latencies currently in the endpoint's window.
+     */
+    public int latencySamples(String endpoint) {
+        return health(endpoint).latencies.size();
+    }
+
+    /**
+     * Latency at the given percentile (0-100) of recent successful calls, or -1 when none.
+     */
+    public long latencyPercentile(String endpoint, double percentile) {
+        return health(endpoint).latencies.percentile(percentile);
+    }
+
+    public List<EndpointStatus> snapshot() {
+        return endpoints.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getValue().status(entry.getKey()))
+                .toList();
+    }
+
+    private EndpointHealth health(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, EndpointHealth::new);
+    }
+
+    private class EndpointHealth {
+
+        private final String name;
+        // Ring of recent outcomes, true = failure
+        private final boolean[] outcomes = new boolean[Math.max(1, windowSize)];
+        private int next;
+        private int calls;
+        private int failures;
+        private final LatencyWindow latencies = new LatencyWindow(200);
+
+        private volatile CircuitState state = CircuitState.CLOSED;
+        private long openedAtNanos;
+        // Start of the outstanding half-open trial call, 0 when none
+        private long trialStartedAtNanos;
+
+        EndpointHealth(String name) {
+            this.name = name;
+        }
+
+        synchronized boolean allowRequest(long now) {
+            long openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - openedAtNanos < openNanos) {
+                        return false;
+                    }
+                    state = CircuitState.HALF_OPEN;
+                    trialStartedAtNanos = now;
+                    log.info("[{}] Circuit half-open, sending a trial request", name);
+                    return true;
+                default:
+                    // Allow a new trial if the previous one never reported back
+                    if (trialStartedAtNanos != 0 && now - trialStartedAtNanos < openNanos) {
+                        return false;
+                    }
+                    trialStartedAtNanos = now;
+                    return true;
+            }
+        }
+
+        synchronized void recordSuccess(long latencyMs) {
+            latencies.record(latencyMs);
+            if (state == CircuitState.OPEN) {
+                return; // Call started before the circuit opened
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                log.info("[{}] Trial request succeeded, closing circuit", name);
+                state = CircuitState.CLOSED;
+                trialStartedAtNanos = 0;
+                resetWindow();
+                return;
+            }
+            addOutcome(false);
+        }
+
+        synchronized void recordFailure(long now) {
+            if (state == CircuitState.OPEN) {
+                return; // Call started before the circuit opened
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                log.warn("[{}] Trial request failed, circuit stays open for {} ms", name, openDurationMs);
+                open(now);
+                return;
+            }
+            addOutcome(true);
+            if (calls >= minimumCalls && failures * 100.0 >= failureRateThreshold * calls) {
+                log.warn("[{}] Failure rate {}% over the last {} calls, opening circuit for {} ms",
+                        name, Math.round(failures * 100.0 / calls), calls, openDurationMs);
+                open(now);
+            }
+        }
+
+        synchronized void releaseTrial() {
+            if (state == CircuitState.HALF_OPEN) {
+                trialStartedAtNanos = 0;
+            }
+        }
+
+        synchronized EndpointStatus status(String endpoint) {
+            Instant retryAt = null;
+            if (state == CircuitState.OPEN) {
+                long remainingNanos = openedAtNanos + TimeUnit.MILLISECONDS.toNanos(openDurationMs) - System.nanoTime();
+                retryAt = Instant.now().plusNanos(Math.max(0, remainingNanos));
+            }
+            return new EndpointStatus(endpoint, state, calls, calls == 0 ? 0.0 : failures * 100.0 / calls,
+                    latencies.percentile(50), latencies.percentile(95), retryAt);
+        }
+
+        private void open(long now) {
+            state = CircuitState.OPEN;
+            openedAtNanos = now;
+            trialStartedAtNanos = 0;
+        }
+
+        private void addOutcome(boolean failure) {
+            if (calls == outcomes.length) {
+                if (outcomes[next]) {
+                    failures--;
+                }
+            } else {
+                calls++;
+            }
+            outcomes[next] = failure;
+            if (failure) {
+                failures++;
+            }
+            next = (next + 1) % outcomes.length;
+        }
+
+        private void resetWindow() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.appvengers.controller;
+
+import com.backend.appvengers.dto.ApiResponse;
+import com.backend.appvengers.service.ChatbotContextCache;
+import com.backend.appvengers.service.ChatbotDispatcher;
+import com.backend.appvengers.service.ChatbotResponseCache;
+import com.backend.appvengers.service.ChatbotService;
+import com.backend.appvengers.service.EmailOutboxService;
+import com.backend.appvengers.service.WebhookHealthTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AdminController access control.
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    private WebhookHealthTracker webhookHealthTracker;
+
+    @Mock
+    private ChatbotService chatbotService;
+
+    @Mock
+    private ChatbotDispatcher chatbotDispatcher;
+
+    @Mock
+    private ChatbotContextCache chatbotContextCache;
+
+    @Mock
+    private ChatbotResponseCache chatbotResponseCache;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private AdminController adminController;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(adminController, "adminEmails", "ops@example.com, admin@example.com");
+    }
+
+    @Test
+    void shouldReturnMetricsForAdmin() {
+        when(authentication.getName()).thenReturn("Admin@Example.com");
+        when(webhookHealthTracker.snapshot()).thenReturn(List.of());
+
+        ResponseEntity<ApiResponse> response = adminController.getMetrics(authentication);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<?, ?> metrics = (Map<?, ?>) response.getBody().getData();
+        assertTrue(metrics.containsKey("webhooks"));
+        assertTrue(metrics.containsKey("dispatcher"));
+        assertTrue(metrics.containsKey("contextCache"));
+        assertTrue(metrics.containsKey("responseCache"));
+        assertTrue(metrics.containsKey("coalescedCalls"));
+        assertTrue(metrics.containsKey("emailOutbox"));
+    }
+
+    @Test
+    void shouldRejectNonAdmin() {
+        when(authentication.getName()).thenReturn("user@example.com");
+
+        ResponseEntity<ApiResponse> response = adminController.getMetrics(authentication);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(webhookHealthTracker, chatbotDispatcher, chatbotContextCache, chatbotResponseCache,
+                emailOutboxService);
+    }
+}
@@ -1,26 +1,36 @@
 package com.backend.appvengers.controller;
 
 import com.backend.appvengers.dto.ChatbotMessageRequest;
+import com.backend.appvengers.dto.ChatbotStreamEvent;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.service.ChatbotDispatcher;
+import com.backend.appvengers.service.ChatbotResponseCache;
 import com.backend.appvengers.service.ChatbotService;
 import com.backend.appvengers.service.InputValidationService;
 import com.backend.appvengers.service.InputValidationService.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,6 +50,18 @@ class ChatbotControllerTest {
     @Mock
     private InputValidationService inputValidationService;
 
+    @Mock
+    private ChatbotDispatcher chatbotDispatcher;
+
+    @Mock
+    private ChatbotResponseCache chatbotResponseCache;
+
+    @Mock
+    private ChatbotWebSocketController chatbotWebSocketController;
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
     @Mock
     private Authentication authentication;
 
@@ -73,7 +95,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -99,7 +121,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -127,7 +149,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -147,7 +169,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -168,7 +190,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -197,7 +219,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -218,7 +240,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, null);
+                request, bindingResult, authentication, null).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -244,7 +266,7 @@ class ChatbotControllerTest {
 
         // Act - Auth header without "Bearer " prefix
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, "InvalidHeader");
+                request, bindingResult, authentication, "InvalidHeader").join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -270,7 +292,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -299,7 +321,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -328,7 +350,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -346,7 +368,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -377,7 +399,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -401,7 +423,7 @@ class ChatbotControllerTest {
 
         // Act
         ResponseEntity<Object> response = chatbotController.sendMessage(
-                request, bindingResult, authentication, TEST_JWT_TOKEN);
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -412,4 +434,163 @@ class ChatbotControllerTest {
         
         verify(chatbotService, never()).sendMessage(anyString(), anyString(), anyString(), anyString());
     }
+
+    @Test
+    void testSendMessage_AsyncMode_DispatchesAndForwardsResponse() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotController, "asyncEnabled", true);
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+
+        Map<String, String> serviceResponse = Map.of("output", "Async response");
+        when(chatbotDispatcher.trySubmit("Test", TEST_USER_EMAIL, TEST_SESSION_ID, "test.jwt.token"))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(serviceResponse)));
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.sendMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(serviceResponse, response.getBody());
+        verify(chatbotService, never()).sendMessage(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void testSendMessage_AsyncMode_QueueFull_Returns503() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotController, "asyncEnabled", true);
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+        when(chatbotDispatcher.trySubmit(anyString(), anyString(), any(), any())).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.sendMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(ChatbotDispatcher.busyResponse(), response.getBody());
+        assertEquals(String.valueOf(ChatbotDispatcher.RETRY_AFTER_SECONDS),
+                response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testSendMessage_AsyncMode_QueueWaitTimesOut_Returns503() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotController, "asyncEnabled", true);
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+        when(chatbotDispatcher.trySubmit(anyString(), anyString(), any(), any())).thenReturn(Optional.of(
+                CompletableFuture.failedFuture(new ChatbotDispatcher.BusyException("waited too long"))));
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.sendMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(ChatbotDispatcher.busyResponse(), response.getBody());
+        assertEquals(String.valueOf(ChatbotDispatcher.RETRY_AFTER_SECONDS),
+                response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(chatbotResponseCache, never()).put(any(), any());
+    }
+
+    @Test
+    void testStreamMessage_RelaysChunksThenDoneToUserDestination() {
+        // Arrange
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+        when(userIdentityCache.requireUserId(TEST_USER_EMAIL)).thenReturn(7);
+        when(chatbotDispatcher.trySubmitStream(eq("Test"), eq(TEST_USER_EMAIL), eq(TEST_SESSION_ID),
+                eq("test.jwt.token"), any())).thenAnswer(invocation -> {
+                    Consumer<String> onChunk = invocation.getArgument(4);
+                    onChunk.accept("Hello ");
+                    onChunk.accept("there");
+                    return Optional.of(CompletableFuture.completedFuture(Map.of("output", "Hello there")));
+                });
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.streamMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        ArgumentCaptor<ChatbotStreamEvent> events = ArgumentCaptor.forClass(ChatbotStreamEvent.class);
+        verify(chatbotWebSocketController, times(3)).sendStreamEvent(eq(7), events.capture());
+        assertEquals(List.of("chunk", "chunk", "done"),
+                events.getAllValues().stream().map(ChatbotStreamEvent::getType).toList());
+        assertEquals(List.of(0, 1, 2),
+                events.getAllValues().stream().map(ChatbotStreamEvent::getSequence).toList());
+        assertEquals("Hello there", events.getAllValues().get(2).getContent());
+        assertEquals(Map.of("streamId", events.getValue().getStreamId(), "destination", "/topic/user/7/chatbot"),
+                response.getBody());
+    }
+
+    @Test
+    void testStreamMessage_QueueFull_Returns503() {
+        // Arrange
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+        when(chatbotDispatcher.trySubmitStream(anyString(), anyString(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.streamMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        verify(chatbotWebSocketController, never()).sendStreamEvent(anyInt(), any());
+    }
+
+    @Test
+    void testSendMessage_CachedAnswer_SkipsChatbotCall() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotController, "asyncEnabled", true);
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Am I over budget?", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Am I over budget?"))
+                .thenReturn(ValidationResult.success("Am I over budget?"));
+        ChatbotResponseCache.Key key = new ChatbotResponseCache.Key(
+                new ChatbotResponseCache.Question(7, TEST_SESSION_ID, "am i over budget"), 3);
+        Map<String, String> cachedAnswer = Map.of("output", "No, you're within budget.");
+        when(chatbotResponseCache.keyFor(TEST_USER_EMAIL, TEST_SESSION_ID, "Am I over budget?")).thenReturn(Optional.of(key));
+        when(chatbotResponseCache.get(key)).thenReturn(cachedAnswer);
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.sendMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cachedAnswer, response.getBody());
+        verifyNoInteractions(chatbotDispatcher, chatbotService);
+    }
+
+    @Test
+    void testSendMessage_CacheMiss_StoresAnswer() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotController, "asyncEnabled", true);
+        ChatbotMessageRequest request = new ChatbotMessageRequest("Test", TEST_SESSION_ID);
+        when(inputValidationService.validateAndSanitize("Test"))
+                .thenReturn(ValidationResult.success("Test"));
+        ChatbotResponseCache.Key key = new ChatbotResponseCache.Key(new ChatbotResponseCache.Question(7, TEST_SESSION_ID, "test"), 3);
+        when(chatbotResponseCache.keyFor(TEST_USER_EMAIL, TEST_SESSION_ID, "Test")).thenReturn(Optional.of(key));
+        Map<String, String> serviceResponse = Map.of("output", "Fresh answer");
+        when(chatbotDispatcher.trySubmit("Test", TEST_USER_EMAIL, TEST_SESSION_ID, "test.jwt.token"))
+                .thenReturn(Optional.of(CompletableFuture.completedFuture(serviceResponse)));
+
+        // Act
+        ResponseEntity<Object> response = chatbotController.sendMessage(
+                request, bindingResult, authentication, TEST_JWT_TOKEN).join();
+
+        // Assert
+        assertEquals(serviceResponse, response.getBody());
+        verify(chatbotResponseCache).put(key, serviceResponse);
+    }
 }
@@ -0,0 +1,82 @@
+package com.backend.appvengers.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests the size cap and amortized expiry of the in-memory bucket store.
+ */
+class InMemoryBucketStoreTest {
+
+    private static final Supplier<BucketConfiguration> CONFIGURATION = () -> BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder()
+                    .capacity(5)
+                    .refillGreedy(5, Duration.ofMinutes(1))
+                    .build())
+            .build();
+
+    @Test
+    void shouldReturnSameBucketForKey() {
+        InMemoryBucketStore store = new InMemoryBucketStore();
+
+        Bucket first = store.getBucket("user@example.com", CONFIGURATION);
+        first.tryConsume(3);
+
+        assertThat(store.getBucket("user@example.com", CONFIGURATION)).isSameAs(first);
+        assertThat(store.findBucket("user@example.com")).containsSame(first);
+        assertThat(first.getAvailableTokens()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStayWithinCapUnderKeyFlood() {
+        InMemoryBucketStore store = new InMemoryBucketStore(Duration.ofHours(1), 1000);
+
+        for (int i = 0; i < 100_000; i++) {
+            store.getBucket("flood" + i, CONFIGURATION);
+            assertThat(store.size()).isLessThanOrEqualTo(1000);
+        }
+    }
+
+    @Test
+    void shouldKeepActiveBucketDuringKeyFlood() {
+        InMemoryBucketStore store = new InMemoryBucketStore(Duration.ofHours(1), 1000);
+        Bucket active = store.getBucket("active@example.com", CONFIGURATION);
+        active.tryConsume(5);
+
+        for (int i = 0; i < 20_000; i++) {
+            store.getBucket("flood" + i, CONFIGURATION);
+            store.getBucket("active@example.com", CONFIGURATION);
+        }
+
+        assertThat(store.findBucket("active@example.com")).containsSame(active);
+    }
+
+    @Test
+    void shouldExpireIdleBucketsAsNewKeysArrive() {
+        InMemoryBucketStore store = new InMemoryBucketStore(Duration.ZERO, 100_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.getBucket("user" + i, CONFIGURATION);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    void shouldEvictIdleBucketsOnDemand() {
+        InMemoryBucketStore store = new InMemoryBucketStore();
+        store.getBucket("a", CONFIGURATION);
+        store.getBucket("b", CONFIGURATION);
+
+        assertThat(store.evictIdle(Duration.ofHours(1))).isZero();
+        assertThat(store.evictIdle(Duration.ZERO)).isEqualTo(2);
+        assertThat(store.size()).isZero();
+    }
+}
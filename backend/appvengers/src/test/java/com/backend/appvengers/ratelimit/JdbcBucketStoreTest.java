@@ -0,0 +1,189 @@
+package com.backend.appvengers.ratelimit;
+
+import com.backend.appvengers.config.RateLimitConfig;
+import com.backend.appvengers.security.LoginRateLimiter;
+import com.backend.appvengers.service.RateLimitService;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the shared JDBC bucket store against an embedded H2 database, with two
+ * limiter instances standing in for two backend nodes.
+ */
+class JdbcBucketStoreTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RateLimitConfig rateLimitConfig;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Created by Hibernate from the RateLimitBucket entity in the application
+        jdbcTemplate.execute("CREATE TABLE tbl_rate_limit_bucket (bucket_key VARCHAR(320) NOT NULL PRIMARY KEY, " +
+                "state BLOB NOT NULL, version BIGINT NOT NULL, expires_at BIGINT NOT NULL)");
+
+        rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setRequestsPerMinute(10);
+    }
+
+    private BucketStoreFactory jdbcFactory() {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JdbcTemplate> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(jdbcTemplate);
+        BucketStoreFactory factory = new BucketStoreFactory(provider);
+        ReflectionTestUtils.setField(factory, "storeType", "jdbc");
+        return factory;
+    }
+
+    @Test
+    void shouldEnforceOneLimitAcrossInstances() {
+        RateLimitService nodeA = new RateLimitService(rateLimitConfig, jdbcFactory());
+        RateLimitService nodeB = new RateLimitService(rateLimitConfig, jdbcFactory());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(nodeA.tryConsume("user@example.com").isConsumed()).isTrue();
+            assertThat(nodeB.tryConsume("user@example.com").isConsumed()).isTrue();
+        }
+
+        assertThat(nodeA.tryConsume("user@example.com").isConsumed()).isFalse();
+        assertThat(nodeB.tryConsume("user@example.com").isConsumed()).isFalse();
+        assertThat(nodeB.getRemainingTokens("user@example.com")).isZero();
+        assertThat(nodeA.tryConsume("other@example.com").isConsumed()).isTrue();
+    }
+
+    @Test
+    void shouldNotOverGrantUnderConcurrentConsumption() throws Exception {
+        RateLimitService nodeA = new RateLimitService(rateLimitConfig, jdbcFactory());
+        RateLimitService nodeB = new RateLimitService(rateLimitConfig, jdbcFactory());
+
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            RateLimitService node = i % 2 == 0 ? nodeA : nodeB;
+            attempts.add(() -> node.tryConsume("user@example.com").isConsumed());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        int consumed = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) {
+                    consumed++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(consumed).isEqualTo(10);
+    }
+
+    @Test
+    void shouldShareLoginAttemptsAcrossInstances() {
+        LoginRateLimiter nodeA = new LoginRateLimiter(jdbcFactory());
+        LoginRateLimiter nodeB = new LoginRateLimiter(jdbcFactory());
+
+        for (int i = 0; i < 5; i++) {
+            LoginRateLimiter node = i % 2 == 0 ? nodeA : nodeB;
+            assertThat(node.resolveBucket("10.0.0.1").tryConsume(1)).isTrue();
+        }
+
+        assertThat(nodeB.resolveBucket("10.0.0.1").tryConsume(1)).isFalse();
+        assertThat(nodeA.resolveBucket("10.0.0.1").tryConsume(1)).isFalse();
+    }
+
+    @Test
+    void shouldKeepLimitersApartAndClearOnlyOwnBuckets() {
+        RateLimitService chatbot = new RateLimitService(rateLimitConfig, jdbcFactory());
+        LoginRateLimiter login = new LoginRateLimiter(jdbcFactory());
+
+        ConsumptionProbe probe = chatbot.tryConsume("10.0.0.1");
+        login.resolveBucket("10.0.0.1").tryConsume(1);
+
+        assertThat(probe.getRemainingTokens()).isEqualTo(9);
+        assertThat(chatbot.getActiveBucketCount()).isEqualTo(1);
+
+        chatbot.clearAllBuckets();
+
+        assertThat(chatbot.getActiveBucketCount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_rate_limit_bucket", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOnlyExpiredRows() {
+        BucketStore store = jdbcFactory().create("chatbot", Duration.ofMinutes(60));
+        RateLimitService service = new RateLimitService(rateLimitConfig, jdbcFactory());
+        service.tryConsume("user@example.com");
+
+        assertThat(store.evictIdle(Duration.ofMinutes(60))).isZero();
+
+        jdbcTemplate.update("UPDATE tbl_rate_limit_bucket SET expires_at = 0");
+        assertThat(store.evictIdle(Duration.ofMinutes(60))).isEqualTo(1);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictExpiredRowsOfEveryLimiter() {
+        BucketStoreFactory shared = jdbcFactory();
+        RateLimitService chatbot = new RateLimitService(rateLimitConfig, shared);
+        LoginRateLimiter login = new LoginRateLimiter(shared);
+        chatbot.tryConsume("user@example.com");
+        login.resolveBucket("10.0.0.1").tryConsume(1);
+
+        jdbcTemplate.update("UPDATE tbl_rate_limit_bucket SET expires_at = 0");
+        shared.evictIdle();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_rate_limit_bucket", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void shouldConsumeThroughAsyncApi() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        JdbcCompareAndSwapProxyManager proxyManager =
+                new JdbcCompareAndSwapProxyManager(jdbcTemplate, ClientSideConfig.getDefault(), executor);
+        BucketConfiguration configuration = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder().capacity(2).refillIntervally(2, Duration.ofMinutes(1)).build())
+                .build();
+        AsyncBucketProxy bucket = proxyManager.asAsync().builder()
+                .build("async:k", () -> CompletableFuture.completedFuture(configuration));
+        try {
+            assertThat(bucket.tryConsume(1).get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(bucket.tryConsume(1).get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(bucket.tryConsume(1).get(5, TimeUnit.SECONDS)).isFalse();
+            // Shares state with the synchronous API
+            assertThat(proxyManager.builder().build("async:k", () -> configuration).getAvailableTokens()).isZero();
+
+            proxyManager.asAsync().removeProxy("async:k").get(5, TimeUnit.SECONDS);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_rate_limit_bucket", Integer.class))
+                    .isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.backend.appvengers.security;
+
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.UserRepository;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for JwtService and TokenVersionRegistry.
+ * Covers the embedded userId/version claims and version-based revocation.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256-signing-0123456789";
+
+    @Mock
+    private UserRepository userRepository;
+
+    private JwtService jwtService;
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET_KEY", SECRET);
+        jwtService.validateSecretKey();
+
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository);
+        ReflectionTestUtils.setField(tokenVersionRegistry, "refreshSeconds", 300L);
+    }
+
+    private User user(int id, int tokenVersion) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setTokenVersion(tokenVersion);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should embed email, userId and token version in the token")
+    void shouldRoundTripClaims() {
+        String token = jwtService.generateToken(user(7, 3));
+
+        JwtService.TokenClaims claims = jwtService.parseToken(token);
+
+        assertThat(claims).isEqualTo(new JwtService.TokenClaims("user7@example.com", 7, 3));
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token")
+    void shouldRejectTamperedToken() {
+        String token = jwtService.generateToken(user(7, 0));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.parseToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should load a user's token version once and reuse it")
+    void shouldCacheTokenVersion() {
+        when(userRepository.findTokenVersionById(7)).thenReturn(Optional.of(2));
+
+        assertThat(tokenVersionRegistry.isCurrent(7, 2)).isTrue();
+        assertThat(tokenVersionRegistry.isCurrent(7, 1)).isFalse();
+
+        verify(userRepository, times(1)).findTokenVersionById(7);
+    }
+
+    @Test
+    @DisplayName("Should revoke older tokens when the version is bumped")
+    void shouldRevokeOnBump() {
+        User user = user(7, 0);
+        when(userRepository.findTokenVersionById(7)).thenReturn(Optional.of(0));
+        assertThat(tokenVersionRegistry.isCurrent(7, 0)).isTrue();
+
+        tokenVersionRegistry.revokeAll(user);
+
+        assertThat(user.getTokenVersion()).isEqualTo(1);
+        assertThat(tokenVersionRegistry.isCurrent(7, 0)).isFalse();
+        assertThat(tokenVersionRegistry.isCurrent(7, 1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should treat deleted users as revoked")
+    void shouldRevokeMissingUser() {
+        when(userRepository.findTokenVersionById(9)).thenReturn(Optional.empty());
+
+        assertThat(tokenVersionRegistry.isCurrent(9, 0)).isFalse();
+    }
+}
@@ -0,0 +1,100 @@
+package com.backend.appvengers.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StompAuthChannelInterceptor.
+ * Verifies CONNECT authentication and that users can only subscribe to their own destinations.
+ */
+@ExtendWith(MockitoExtension.class)
+class StompAuthChannelInterceptorTest {
+
+    @Mock
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    private static Message<byte[]> frame(StompCommand command, String authHeader, String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (authHeader != null) {
+            accessor.setNativeHeader("Authorization", authHeader);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    void shouldAuthenticateConnectWithValidToken() {
+        when(jwtAuthenticationFilter.authenticate("good"))
+                .thenReturn(new UserIdentityCache.UserIdentity(7, "user@example.com", true));
+        Message<byte[]> connect = frame(StompCommand.CONNECT, "Bearer good", null, null);
+
+        interceptor.preSend(connect, channel);
+
+        Principal user = StompHeaderAccessor.wrap(connect).getUser();
+        assertThat(user).isInstanceOf(StompAuthChannelInterceptor.StompUser.class);
+        assertThat(user.getName()).isEqualTo("7");
+    }
+
+    @Test
+    void shouldRejectConnectWithoutValidToken() {
+        when(jwtAuthenticationFilter.authenticate("revoked")).thenReturn(null);
+
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, null, null, null), channel))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, "Bearer revoked", null, null), channel))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void shouldAllowSubscribingToOwnDestinations() {
+        StompAuthChannelInterceptor.StompUser user = new StompAuthChannelInterceptor.StompUser(7, "user@example.com");
+
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/topic/user/7/chatbot", user), channel);
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/topic/user/7/notifications/count", user), channel);
+        interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/topic/notifications", user), channel);
+    }
+
+    @Test
+    void shouldDenyCrossUserSubscription() {
+        StompAuthChannelInterceptor.StompUser user = new StompAuthChannelInterceptor.StompUser(7, "user@example.com");
+
+        assertThatThrownBy(() -> interceptor.preSend(
+                frame(StompCommand.SUBSCRIBE, null, "/topic/user/8/chatbot", user), channel))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(
+                frame(StompCommand.SUBSCRIBE, null, "/topic/user/77/notifications", user), channel))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void shouldDenySubscriptionWithoutAuthenticatedSession() {
+        assertThatThrownBy(() -> interceptor.preSend(
+                frame(StompCommand.SUBSCRIBE, null, "/topic/user/7/chatbot", null), channel))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+}
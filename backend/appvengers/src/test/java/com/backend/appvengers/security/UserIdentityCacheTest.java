@@ -0,0 +1,114 @@
+package com.backend.appvengers.security;
+
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for UserIdentityCache.
+ * Verifies request memoization, shared caching, invalidation and the size bound.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserIdentityCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserIdentityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserIdentityCache(userRepository);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private User user(int id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setActive(true);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should hit the database once for repeated lookups")
+    void shouldCacheAcrossCalls() {
+        when(userRepository.findByEmail("a@example.com")).thenReturn(Optional.of(user(1, "a@example.com")));
+
+        assertThat(cache.requireUserId("a@example.com")).isEqualTo(1);
+        assertThat(cache.requireUserId("a@example.com")).isEqualTo(1);
+
+        verify(userRepository, times(1)).findByEmail("a@example.com");
+    }
+
+    @Test
+    @DisplayName("Should memoize the identity on the current request")
+    void shouldMemoizeOnRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(userRepository.findByEmail("a@example.com")).thenReturn(Optional.of(user(1, "a@example.com")));
+
+        cache.find("a@example.com");
+
+        assertThat(request.getAttribute(UserIdentityCache.class.getName() + ".a@example.com"))
+                .isEqualTo(new UserIdentityCache.UserIdentity(1, "a@example.com", true));
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldReloadAfterInvalidate() {
+        when(userRepository.findByEmail("a@example.com")).thenReturn(Optional.of(user(1, "a@example.com")));
+
+        cache.find("a@example.com");
+        cache.invalidate("a@example.com");
+        cache.find("a@example.com");
+
+        verify(userRepository, times(2)).findByEmail("a@example.com");
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown users")
+    void shouldFailForUnknownUser() {
+        when(userRepository.findByEmail("missing@example.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.requireUserId("missing@example.com"))
+                .hasMessage("User not found");
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stay within the configured size")
+    void shouldBoundSize() {
+        for (int i = 0; i < 50; i++) {
+            String email = "user" + i + "@example.com";
+            when(userRepository.findByEmail(email)).thenReturn(Optional.of(user(i, email)));
+            cache.find(email);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
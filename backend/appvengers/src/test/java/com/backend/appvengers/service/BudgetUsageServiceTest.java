@@ -0,0 +1,114 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.entity.BudgetUsage;
+import com.backend.appvengers.repository.BudgetUsageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BudgetUsageService: building missing ledger rows once,
+ * read fallbacks and reconciliation.
+ */
+@ExtendWith(MockitoExtension.class)
+class BudgetUsageServiceTest {
+
+    @Mock
+    private BudgetUsageRepository budgetUsageRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BudgetUsageService budgetUsageService;
+
+    private static BudgetUsage usage(int budgetId, String total, long count, long version) {
+        BudgetUsage usage = new BudgetUsage();
+        usage.setBudgetId(budgetId);
+        usage.setSpentTotal(new BigDecimal(total));
+        usage.setTxCount(count);
+        usage.setVersion(version);
+        return usage;
+    }
+
+    @Test
+    void shouldApplyDeltaToExistingRow() {
+        when(budgetUsageRepository.applyDelta(1, BigDecimal.TEN, 1)).thenReturn(1);
+
+        budgetUsageService.applyDelta(1, BigDecimal.TEN, 1);
+
+        verify(budgetUsageRepository, never()).insertFromTransactions(anyInt());
+    }
+
+    @Test
+    void shouldBuildMissingRowFromTransactionsIncludingThisWrite() {
+        when(budgetUsageRepository.applyDelta(1, BigDecimal.TEN, 1)).thenReturn(0);
+        when(budgetUsageRepository.insertFromTransactions(1)).thenReturn(1);
+
+        budgetUsageService.applyDelta(1, BigDecimal.TEN, 1);
+
+        verify(budgetUsageRepository).flush();
+        verify(budgetUsageRepository, times(1)).applyDelta(1, BigDecimal.TEN, 1);
+    }
+
+    @Test
+    void shouldApplyDeltaOnTopWhenAnotherWriterBuiltTheRow() {
+        when(budgetUsageRepository.applyDelta(1, BigDecimal.TEN, 1)).thenReturn(0, 1);
+        when(budgetUsageRepository.insertFromTransactions(1)).thenReturn(0);
+
+        budgetUsageService.applyDelta(1, BigDecimal.TEN, 1);
+
+        verify(budgetUsageRepository, times(2)).applyDelta(1, BigDecimal.TEN, 1);
+    }
+
+    @Test
+    void shouldSumTransactionsForMissingRowsWithoutBuildingThem() {
+        when(budgetUsageRepository.findByBudgetIdIn(List.of(1, 2))).thenReturn(List.of(usage(1, "50", 2, 0)));
+        when(budgetUsageRepository.computeUsageFromTransactions(2))
+                .thenReturn(List.<Object[]>of(new Object[] {new BigDecimal("75.5"), 3L}));
+
+        Map<Integer, Double> totals = budgetUsageService.getSpentTotals(List.of(1, 2));
+
+        assertEquals(Map.of(1, 50.0, 2, 75.5), totals);
+        verify(budgetUsageRepository, never()).insertFromTransactions(anyInt());
+        verify(budgetUsageRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldCreateMissingAndCorrectDriftedRowsOnReconcile() {
+        when(budgetUsageRepository.findAll()).thenReturn(List.of(usage(1, "50", 2, 4), usage(2, "20", 1, 7)));
+        when(budgetUsageRepository.computeAllUsageFromTransactions()).thenReturn(List.of(
+                new Object[] {1, new BigDecimal("50"), 2L},
+                new Object[] {2, new BigDecimal("30"), 2L},
+                new Object[] {3, new BigDecimal("5"), 1L}));
+        when(budgetUsageRepository.correct(2, new BigDecimal("30"), 2L, 7L)).thenReturn(1);
+        when(budgetUsageRepository.insertFromTransactions(3)).thenReturn(1);
+
+        BudgetUsageService.ReconciliationReport report = budgetUsageService.reconcile();
+
+        assertEquals(new BudgetUsageService.ReconciliationReport(3, 1, 1), report);
+        verify(budgetUsageRepository, never()).correct(eq(1), any(), anyLong(), anyLong());
+        verify(budgetUsageRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldSkipRowChangedDuringReconcile() {
+        when(budgetUsageRepository.findAll()).thenReturn(List.of(usage(2, "20", 1, 7)));
+        when(budgetUsageRepository.computeAllUsageFromTransactions()).thenReturn(List.<Object[]>of(
+                new Object[] {2, new BigDecimal("30"), 2L}));
+        when(budgetUsageRepository.correct(2, new BigDecimal("30"), 2L, 7L)).thenReturn(0);
+
+        assertEquals(new BudgetUsageService.ReconciliationReport(1, 0, 0), budgetUsageService.reconcile());
+    }
+}
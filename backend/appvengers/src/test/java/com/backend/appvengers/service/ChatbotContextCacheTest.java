@@ -0,0 +1,110 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.dto.UserFinancialContext;
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.security.UserIdentityCache.UserIdentity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatbotContextCache versioning and eviction.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatbotContextCacheTest {
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    private UserChangeTracker userChangeTracker;
+    private ChatbotContextCache cache;
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        userChangeTracker = new UserChangeTracker();
+        cache = new ChatbotContextCache(userIdentityCache, userChangeTracker, new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "maxBytes", 16_384L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+    }
+
+    private void givenUser(int userId, String email) {
+        lenient().when(userIdentityCache.find(email)).thenReturn(Optional.of(new UserIdentity(userId, email, true)));
+    }
+
+    private Supplier<UserFinancialContext> loader(String email) {
+        return () -> {
+            builds.incrementAndGet();
+            return UserFinancialContext.builder().username("user").userEmail(email).build();
+        };
+    }
+
+    @Test
+    void shouldReuseSnapshotUntilDataChanges() {
+        givenUser(1, "a@example.com");
+
+        RawValue first = cache.getSerializedContext("a@example.com", loader("a@example.com"));
+        RawValue second = cache.getSerializedContext("a@example.com", loader("a@example.com"));
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+        assertTrue(((String) first.rawValue()).contains("\"userEmail\":\"a@example.com\""));
+
+        userChangeTracker.markChanged(1);
+        cache.getSerializedContext("a@example.com", loader("a@example.com"));
+
+        assertEquals(2, builds.get());
+        ChatbotContextCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedWhenOverBudget() {
+        givenUser(1, "a@example.com");
+        givenUser(2, "b@example.com");
+        givenUser(3, "c@example.com");
+
+        cache.getSerializedContext("a@example.com", loader("a@example.com"));
+        // Room for two snapshots of this size, not three
+        long budget = cache.getStats().bytes() * 2 + 1;
+        ReflectionTestUtils.setField(cache, "maxBytes", budget);
+        cache.getSerializedContext("b@example.com", loader("b@example.com"));
+        cache.getSerializedContext("a@example.com", loader("a@example.com")); // a is now most recent
+        cache.getSerializedContext("c@example.com", loader("c@example.com")); // evicts b
+
+        ChatbotContextCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.entries());
+        assertTrue(stats.bytes() <= budget);
+
+        builds.set(0);
+        cache.getSerializedContext("a@example.com", loader("a@example.com"));
+        assertEquals(0, builds.get());
+        cache.getSerializedContext("b@example.com", loader("b@example.com"));
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void shouldBuildWithoutCachingForUnknownUser() {
+        when(userIdentityCache.find("ghost@example.com")).thenReturn(Optional.empty());
+
+        cache.getSerializedContext("ghost@example.com", loader("ghost@example.com"));
+        cache.getSerializedContext("ghost@example.com", loader("ghost@example.com"));
+
+        assertEquals(2, builds.get());
+        assertEquals(0, cache.getStats().entries());
+    }
+}
@@ -0,0 +1,109 @@
+package com.backend.appvengers.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatbotDispatcher concurrency cap and queueing.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatbotDispatcherTest {
+
+    @Mock
+    private ChatbotService chatbotService;
+
+    private ChatbotDispatcher dispatcher;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new ChatbotDispatcher(chatbotService);
+        ReflectionTestUtils.setField(dispatcher, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxQueued", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueTimeoutMs", 5000L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void shouldReturnServiceResponseAsynchronously() {
+        Map<String, String> expected = Map.of("output", "Hello");
+        when(chatbotService.sendMessage("Hi", "a@example.com", "s1", "jwt")).thenReturn(expected);
+
+        Optional<CompletableFuture<Object>> pending = dispatcher.trySubmit("Hi", "a@example.com", "s1", "jwt");
+
+        assertTrue(pending.isPresent());
+        assertEquals(expected, pending.get().orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(1, dispatcher.getStats().completed());
+        assertEquals(0, dispatcher.getStats().active());
+    }
+
+    @Test
+    void shouldQueueBeyondConcurrencyCapAndRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(chatbotService.sendMessage(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("output", invocation.getArgument(0));
+        });
+
+        CompletableFuture<Object> first = dispatcher.trySubmit("one", "a@example.com", null, null).orElseThrow();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> second = dispatcher.trySubmit("two", "b@example.com", null, null).orElseThrow();
+        Optional<CompletableFuture<Object>> third = dispatcher.trySubmit("three", "c@example.com", null, null);
+
+        assertTrue(third.isEmpty());
+        ChatbotDispatcher.Stats stats = dispatcher.getStats();
+        assertEquals(1, stats.active());
+        assertEquals(1, stats.queued());
+        assertEquals(1, stats.rejected());
+
+        release.countDown();
+        assertEquals(Map.of("output", "one"), first.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(Map.of("output", "two"), second.orTimeout(5, TimeUnit.SECONDS).join());
+        assertEquals(2, dispatcher.getStats().completed());
+        assertEquals(0, dispatcher.getStats().queued());
+    }
+
+    @Test
+    void shouldFailBusyWhenQueueWaitTimesOut() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "queueTimeoutMs", 50L);
+        CountDownLatch started = new CountDownLatch(1);
+        when(chatbotService.sendMessage(anyString(), anyString(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("output", "done");
+        });
+
+        dispatcher.trySubmit("one", "a@example.com", null, null).orElseThrow();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = dispatcher.trySubmit("two", "b@example.com", null, null).orElseThrow()
+                .orTimeout(5, TimeUnit.SECONDS);
+
+        CompletionException error = assertThrows(CompletionException.class, queued::join);
+        assertInstanceOf(ChatbotDispatcher.BusyException.class, error.getCause());
+        assertEquals(1, dispatcher.getStats().timedOut());
+        assertEquals(0, dispatcher.getStats().failed());
+    }
+}
@@ -0,0 +1,111 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.security.UserIdentityCache;
+import com.backend.appvengers.security.UserIdentityCache.UserIdentity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatbotResponseCache keying, versioning and eviction.
+ */
+@ExtendWith(MockitoExtension.class)
+class ChatbotResponseCacheTest {
+
+    private static final String EMAIL = "a@example.com";
+    private static final String SESSION = "session-1";
+
+    @Mock
+    private UserIdentityCache userIdentityCache;
+
+    private UserChangeTracker userChangeTracker;
+    private ChatbotResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userChangeTracker = new UserChangeTracker();
+        cache = new ChatbotResponseCache(userIdentityCache, userChangeTracker);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "minLength", 10);
+        lenient().when(userIdentityCache.find(EMAIL)).thenReturn(Optional.of(new UserIdentity(1, EMAIL, true)));
+    }
+
+    @Test
+    void shouldMatchQuestionsThatDifferOnlyInCaseSpacingAndPunctuation() {
+        Map<String, String> answer = Map.of("output", "You spent ₱4,500 this month.");
+        cache.put(cache.keyFor(EMAIL, SESSION, "How much did I spend this month?").orElseThrow(), answer);
+
+        Object cached = cache.get(cache.keyFor(EMAIL, SESSION, "  how much did   I spend THIS month ").orElseThrow());
+
+        assertSame(answer, cached);
+        assertEquals(1, cache.getStats().hits());
+    }
+
+    @Test
+    void shouldMissAfterUserDataChanges() {
+        ChatbotResponseCache.Key key = cache.keyFor(EMAIL, SESSION, "Am I over budget?").orElseThrow();
+        cache.put(key, Map.of("output", "No"));
+
+        userChangeTracker.markChanged(1);
+
+        assertNull(cache.get(cache.keyFor(EMAIL, SESSION, "Am I over budget?").orElseThrow()));
+        assertEquals(0, cache.getStats().entries());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        ChatbotResponseCache.Key key = cache.keyFor(EMAIL, SESSION, "Am I over budget?").orElseThrow();
+        cache.put(key, Map.of("error", "All chatbot services are currently unavailable."));
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedWhenOverBudget() {
+        ChatbotResponseCache.Key first = cache.keyFor(EMAIL, SESSION, "first question").orElseThrow();
+        cache.put(first, Map.of("output", "first answer"));
+        long entryBytes = cache.getStats().bytes();
+        ReflectionTestUtils.setField(cache, "maxBytes", entryBytes * 2 + 1);
+
+        ChatbotResponseCache.Key second = cache.keyFor(EMAIL, SESSION, "other question").orElseThrow();
+        cache.put(second, Map.of("output", "other answer"));
+        cache.get(first); // first is now the most recently used
+        cache.put(cache.keyFor(EMAIL, SESSION, "third question").orElseThrow(), Map.of("output", "third answer"));
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertEquals(1, cache.getStats().evictions());
+    }
+
+    @Test
+    void shouldReturnNoKeyWhenDisabled() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        assertTrue(cache.keyFor(EMAIL, SESSION, "Am I over budget?").isEmpty());
+    }
+
+    @Test
+    void shouldNotShareAnswersAcrossSessions() {
+        cache.put(cache.keyFor(EMAIL, SESSION, "Am I over budget?").orElseThrow(), Map.of("output", "No"));
+
+        assertNull(cache.get(cache.keyFor(EMAIL, "session-2", "Am I over budget?").orElseThrow()));
+        assertNotNull(cache.get(cache.keyFor(EMAIL, SESSION, "Am I over budget?").orElseThrow()));
+    }
+
+    @Test
+    void shouldNotCacheShortContextDependentMessages() {
+        assertTrue(cache.keyFor(EMAIL, SESSION, "Yes!").isEmpty());
+        assertTrue(cache.keyFor(EMAIL, SESSION, "why?").isEmpty());
+    }
+}
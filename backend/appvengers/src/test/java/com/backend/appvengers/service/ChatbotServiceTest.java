@@ -1,21 +1,35 @@
 package com.backend.appvengers.service;
 
 import com.backend.appvengers.dto.UserFinancialContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +47,15 @@ class ChatbotServiceTest {
     @Mock
     private UserContextService userContextService;
 
+    @Mock
+    private ChatbotContextCache chatbotContextCache;
+
+    @Spy
+    private WebhookHealthTracker webhookHealthTracker = new WebhookHealthTracker();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ChatbotService chatbotService;
 
@@ -49,6 +72,12 @@ class ChatbotServiceTest {
         ReflectionTestUtils.setField(chatbotService, "n8nWebhookUrl", N8N_WEBHOOK_URL);
         ReflectionTestUtils.setField(chatbotService, "n8nWebhookFallbackUrl", N8N_WEBHOOK_FALLBACK_URL);
         ReflectionTestUtils.setField(chatbotService, "failoverTimeout", 15000L);
+
+        // Context cache always misses and builds through the loader
+        lenient().when(chatbotContextCache.getSerializedContext(any(), any())).thenAnswer(invocation -> {
+            Supplier<UserFinancialContext> loader = invocation.getArgument(1);
+            return new RawValue(String.valueOf(loader.get()));
+        });
     }
 
     @Test
@@ -279,4 +308,337 @@ class ChatbotServiceTest {
         assertNotNull(result);
         verify(restTemplate, times(1)).postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class));
     }
+
+    @Test
+    void testHedging_SlowPrimary_ShouldReturnFallbackResponse() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotService, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(chatbotService, "failoverTimeout", 100L);
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+
+        Map<String, String> fallbackResponse = Map.of("output", "Fallback response");
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(5000);
+                    return new ResponseEntity<Object>(Map.of("output", "Too late"), HttpStatus.OK);
+                });
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(fallbackResponse, HttpStatus.OK));
+
+        // Act
+        long start = System.nanoTime();
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(fallbackResponse, result);
+        assertTrue(elapsedMs < 4000, "hedged call should not wait for the slow primary");
+    }
+
+    @Test
+    void testHedging_FastPrimary_ShouldNotCallFallback() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotService, "hedgeEnabled", true);
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+
+        Map<String, String> primaryResponse = Map.of("output", "Primary response");
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(primaryResponse, HttpStatus.OK));
+
+        // Act
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(primaryResponse, result);
+        verify(restTemplate, never()).postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class));
+    }
+
+    @Test
+    void testHedging_PrimaryFailsFast_ShouldUseFallbackWithoutWaiting() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotService, "hedgeEnabled", true);
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+
+        Map<String, String> fallbackResponse = Map.of("output", "Fallback response");
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(fallbackResponse, HttpStatus.OK));
+
+        // Act
+        long start = System.nanoTime();
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(fallbackResponse, result);
+        assertTrue(elapsedMs < 5000, "fallback should start as soon as the primary fails");
+    }
+
+    @Test
+    void testHedgeDelay_UsesFailoverTimeoutUntilEnoughSamples() {
+        // failoverTimeout is 15000 ms in setUp, and no latencies have been recorded yet
+        assertEquals(15000L, chatbotService.currentHedgeDelay());
+    }
+
+    @Test
+    void testCircuitOpen_ShouldRouteToFallbackWithoutCallingPrimary() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        for (int i = 0; i < 5; i++) {
+            webhookHealthTracker.recordFailure("Primary");
+        }
+
+        Map<String, String> fallbackResponse = Map.of("output", "Fallback response");
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(fallbackResponse, HttpStatus.OK));
+
+        // Act
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(fallbackResponse, result);
+        verify(restTemplate, never()).postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class));
+    }
+
+    @Test
+    void testHedging_BothCircuitsOpen_ShouldFailFast() {
+        // Arrange
+        ReflectionTestUtils.setField(chatbotService, "hedgeEnabled", true);
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        for (int i = 0; i < 5; i++) {
+            webhookHealthTracker.recordFailure("Primary");
+            webhookHealthTracker.recordFailure("Fallback");
+        }
+
+        // Act
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertTrue(((Map<?, ?>) result).containsKey("error"));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void testSendMessage_ShouldRecordWebhookOutcomes() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(Map.of("output", "ok"), HttpStatus.OK));
+
+        // Act
+        chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        verify(webhookHealthTracker).recordFailure("Primary");
+        verify(webhookHealthTracker).recordSuccess(eq("Fallback"), anyLong());
+    }
+
+    @Test
+    void testSendMessage_ClientError_ShouldReturnErrorWithoutFailoverOrFailure() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED));
+
+        // Act
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals("Authentication failed with chatbot service.", ((Map<?, ?>) result).get("error"));
+        verify(restTemplate, never()).postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class));
+        verify(webhookHealthTracker).recordRejected("Primary");
+        verify(webhookHealthTracker, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void testSendMessage_NotFound_ShouldFailOverWithoutCountingFailure() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(Map.of("output", "ok"), HttpStatus.OK));
+
+        // Act
+        Object result = chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(Map.of("output", "ok"), result);
+        verify(webhookHealthTracker, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void testStreamMessage_ClientError_ShouldReturnErrorWithoutFailoverOrFailure() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.execute(eq(N8N_WEBHOOK_URL), eq(HttpMethod.POST), any(), any(ResponseExtractor.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.FORBIDDEN));
+        List<String> chunks = new ArrayList<>();
+
+        // Act
+        Object result = chatbotService.streamMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID,
+                TEST_JWT_TOKEN, chunks::add);
+
+        // Assert
+        assertTrue(chunks.isEmpty());
+        assertEquals("Authentication failed with chatbot service.", ((Map<?, ?>) result).get("error"));
+        verify(restTemplate, never()).execute(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpMethod.class), any(),
+                any(ResponseExtractor.class));
+        verify(webhookHealthTracker, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void testStreamMessage_ShouldRelayChunksAsTheyArrive() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        stubStream(N8N_WEBHOOK_URL, """
+                {"type":"begin","metadata":{"nodeName":"AI Agent"}}
+                {"type":"item","content":"You spent "}
+                {"type":"item","content":"₱4,500 on food."}
+                {"type":"end"}
+                """);
+        List<String> chunks = new ArrayList<>();
+
+        // Act
+        Object result = chatbotService.streamMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID,
+                TEST_JWT_TOKEN, chunks::add);
+
+        // Assert
+        assertEquals(List.of("You spent ", "₱4,500 on food."), chunks);
+        assertEquals(Map.of("output", "You spent ₱4,500 on food."), result);
+        verify(restTemplate, never()).execute(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpMethod.class), any(),
+                any(ResponseExtractor.class));
+    }
+
+    @Test
+    void testStreamMessage_NonStreamingReply_ShouldRelayWholeAnswer() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        stubStream(N8N_WEBHOOK_URL, "[{\"output\": \"Here's how to add a transaction...\"}]");
+        List<String> chunks = new ArrayList<>();
+
+        // Act
+        Object result = chatbotService.streamMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID,
+                TEST_JWT_TOKEN, chunks::add);
+
+        // Assert
+        assertEquals(List.of("Here's how to add a transaction..."), chunks);
+        assertEquals(Map.of("output", "Here's how to add a transaction..."), result);
+    }
+
+    @Test
+    void testStreamMessage_PrimaryFailsBeforeFirstChunk_ShouldStreamFromFallback() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.execute(eq(N8N_WEBHOOK_URL), eq(HttpMethod.POST), any(), any(ResponseExtractor.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+        stubStream(N8N_WEBHOOK_FALLBACK_URL, "{\"type\":\"item\",\"content\":\"Fallback answer\"}");
+        List<String> chunks = new ArrayList<>();
+
+        // Act
+        Object result = chatbotService.streamMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID,
+                TEST_JWT_TOKEN, chunks::add);
+
+        // Assert
+        assertEquals(List.of("Fallback answer"), chunks);
+        assertEquals(Map.of("output", "Fallback answer"), result);
+        verify(webhookHealthTracker).recordFailure("Primary");
+    }
+
+    @Test
+    void testStreamMessage_StreamBreaksAfterChunks_ShouldNotSwitchToFallback() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        stubStream(N8N_WEBHOOK_URL, """
+                {"type":"item","content":"Partial "}
+                {"type":"error","content":"Workflow crashed"}
+                """);
+        List<String> chunks = new ArrayList<>();
+
+        // Act
+        Object result = chatbotService.streamMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID,
+                TEST_JWT_TOKEN, chunks::add);
+
+        // Assert
+        assertEquals(List.of("Partial "), chunks);
+        assertTrue(((Map<?, ?>) result).containsKey("error"));
+        verify(restTemplate, never()).execute(eq(N8N_WEBHOOK_FALLBACK_URL), any(HttpMethod.class), any(),
+                any(ResponseExtractor.class));
+    }
+
+    private void stubStream(String webhookUrl, String body) {
+        when(restTemplate.execute(eq(webhookUrl), eq(HttpMethod.POST), any(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(
+                            body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+                });
+    }
+
+    @Test
+    void testSendMessage_ConcurrentDuplicates_ShareOneWebhookCall() throws Exception {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        CountDownLatch primaryCalled = new CountDownLatch(1);
+        CountDownLatch releasePrimary = new CountDownLatch(1);
+        Map<String, String> primaryResponse = Map.of("output", "Shared response");
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenAnswer(invocation -> {
+                    primaryCalled.countDown();
+                    releasePrimary.await(5, TimeUnit.SECONDS);
+                    return new ResponseEntity<Object>(primaryResponse, HttpStatus.OK);
+                });
+
+        // Act
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() ->
+                chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN));
+        assertTrue(primaryCalled.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> duplicate = CompletableFuture.supplyAsync(() ->
+                chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (chatbotService.getCoalescedCalls() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        releasePrimary.countDown();
+
+        // Assert
+        assertEquals(primaryResponse, first.get(5, TimeUnit.SECONDS));
+        assertEquals(primaryResponse, duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, chatbotService.getCoalescedCalls());
+        verify(restTemplate, times(1)).postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class));
+    }
+
+    @Test
+    void testSendMessage_SequentialDuplicates_AreNotCoalesced() {
+        // Arrange
+        when(userContextService.buildUserContext(TEST_USER_EMAIL)).thenReturn(
+                UserFinancialContext.builder().userEmail(TEST_USER_EMAIL).build());
+        when(restTemplate.postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class)))
+                .thenReturn(new ResponseEntity<>(Map.of("output", "Response"), HttpStatus.OK));
+
+        // Act
+        chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+        chatbotService.sendMessage(TEST_MESSAGE, TEST_USER_EMAIL, TEST_SESSION_ID, TEST_JWT_TOKEN);
+
+        // Assert
+        assertEquals(0, chatbotService.getCoalescedCalls());
+        verify(restTemplate, times(2)).postForEntity(eq(N8N_WEBHOOK_URL), any(HttpEntity.class), eq(Object.class));
+    }
 }
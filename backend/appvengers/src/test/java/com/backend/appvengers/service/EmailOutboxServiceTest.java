@@ -0,0 +1,69 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.entity.EmailOutbox;
+import com.backend.appvengers.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutboxService queueing and deduplication.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailOutboxWorker emailOutboxWorker;
+
+    @InjectMocks
+    private EmailOutboxService emailOutboxService;
+
+    @Test
+    void shouldStoreMessageAndHandItToWorker() {
+        when(emailOutboxRepository.save(any(EmailOutbox.class))).thenAnswer(invocation -> {
+            EmailOutbox email = invocation.getArgument(0);
+            email.setId(42L);
+            return email;
+        });
+
+        emailOutboxService.enqueueVerification("user@example.com", "user", "http://example.com/verify?token=t");
+
+        ArgumentCaptor<EmailOutbox> saved = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(saved.capture());
+        assertEquals(EmailOutbox.Kind.VERIFICATION, saved.getValue().getKind());
+        assertEquals(EmailOutbox.Status.PENDING, saved.getValue().getStatus());
+        assertEquals("http://example.com/verify?token=t", saved.getValue().getLink());
+        assertNotNull(saved.getValue().getNextAttemptAt());
+        // No transaction in a unit test, so the message is handed over immediately
+        verify(emailOutboxWorker).submit(42L);
+    }
+
+    @Test
+    void shouldSkipIdenticalUnsentMessage() {
+        when(emailOutboxRepository.existsByDedupKeyAndStatusIn(anyString(), anyCollection())).thenReturn(true);
+
+        emailOutboxService.enqueueNotice("user@example.com", "iBudget Password Changed", "Changed");
+
+        verify(emailOutboxRepository, never()).save(any());
+        verifyNoInteractions(emailOutboxWorker);
+    }
+
+    @Test
+    void shouldKeyOnContentAndIgnoreRecipientCase() {
+        String key = EmailOutboxService.dedupKey(EmailOutbox.Kind.NOTICE, "User@Example.com", "S", null, "B");
+
+        assertEquals(key, EmailOutboxService.dedupKey(EmailOutbox.Kind.NOTICE, "user@example.com", "S", null, "B"));
+        assertNotEquals(key, EmailOutboxService.dedupKey(EmailOutbox.Kind.NOTICE, "user@example.com", "S", null, "C"));
+        assertEquals(64, key.length());
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.entity.EmailOutbox;
+import com.backend.appvengers.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailOutboxWorker delivery, retry and give-up behaviour.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxWorkerTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "emailFrom", "noreply@example.com");
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "retryBackoffMs", 1000L);
+        ReflectionTestUtils.setField(worker, "maxBackoffMs", 60_000L);
+        ReflectionTestUtils.setField(worker, "leaseMs", 120_000L);
+        ReflectionTestUtils.setField(worker, "retentionDays", 7);
+        ReflectionTestUtils.setField(worker, "verificationExpirationHours", 24L);
+    }
+
+    private EmailOutbox claimed(EmailOutbox.Kind kind, int attempts) {
+        EmailOutbox email = new EmailOutbox();
+        email.setId(7L);
+        email.setKind(kind);
+        email.setRecipient("user@example.com");
+        email.setSubject("Subject");
+        email.setUsername("user");
+        email.setLink("http://example.com/link");
+        email.setBody("Body");
+        email.setStatus(EmailOutbox.Status.SENDING);
+        email.setAttempts(attempts);
+        when(emailOutboxRepository.claim(eq(7L), anyCollection(), eq(EmailOutbox.Status.SENDING), any(), any()))
+                .thenReturn(1);
+        when(emailOutboxRepository.findById(7L)).thenReturn(Optional.of(email));
+        return email;
+    }
+
+    @Test
+    void shouldSendAndMarkSent() throws Exception {
+        EmailOutbox email = claimed(EmailOutbox.Kind.VERIFICATION, 1);
+
+        worker.deliver(7L);
+
+        verify(emailService).sendHtmlEmail("noreply@example.com", "user@example.com", "Subject",
+                "http://example.com/link", "user");
+        verify(emailOutboxRepository).save(email);
+        assertEquals(EmailOutbox.Status.SENT, email.getStatus());
+        assertNotNull(email.getSentAt());
+        assertEquals(1, worker.getStats().sent());
+    }
+
+    @Test
+    void shouldRetryWithBackoffAfterFailure() {
+        EmailOutbox email = claimed(EmailOutbox.Kind.NOTICE, 2);
+        doThrow(new MailSendException("SMTP down")).when(emailService)
+                .sendSimpleEmail("user@example.com", "Subject", "Body");
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.deliver(7L);
+
+        assertEquals(EmailOutbox.Status.PENDING, email.getStatus());
+        assertEquals("SMTP down", email.getLastError());
+        // Second attempt failed: 1000 ms * 2
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        assertTrue(email.getNextAttemptAt().isBefore(before.plusSeconds(10)));
+        assertEquals(1, worker.getStats().retried());
+    }
+
+    @Test
+    void shouldGiveUpAfterMaxAttempts() throws Exception {
+        EmailOutbox email = claimed(EmailOutbox.Kind.PASSWORD_RESET, 3);
+        doThrow(new MailSendException("Mailbox unavailable")).when(emailService)
+                .sendPasswordResetEmail("noreply@example.com", "user@example.com", "user", "http://example.com/link");
+
+        worker.deliver(7L);
+
+        assertEquals(EmailOutbox.Status.FAILED, email.getStatus());
+        assertEquals(1, worker.getStats().failed());
+    }
+
+    @Test
+    void shouldSkipMessageClaimedElsewhere() {
+        when(emailOutboxRepository.claim(eq(7L), anyCollection(), any(), any(), any())).thenReturn(0);
+
+        worker.deliver(7L);
+
+        verify(emailOutboxRepository, never()).findById(anyLong());
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void shouldDropResetEmailWhoseLinkExpired() {
+        EmailOutbox email = claimed(EmailOutbox.Kind.PASSWORD_RESET, 2);
+        email.setCreatedAt(LocalDateTime.now().minusMinutes(16));
+
+        worker.deliver(7L);
+
+        verifyNoInteractions(emailService);
+        verify(emailOutboxRepository).save(email);
+        assertEquals(EmailOutbox.Status.FAILED, email.getStatus());
+        assertEquals(1, worker.getStats().expired());
+    }
+
+    @Test
+    void shouldNotRetryResetEmailPastLinkExpiry() throws Exception {
+        EmailOutbox email = claimed(EmailOutbox.Kind.PASSWORD_RESET, 1);
+        email.setCreatedAt(LocalDateTime.now().minusMinutes(14));
+        ReflectionTestUtils.setField(worker, "retryBackoffMs", 120_000L);
+        doThrow(new MailSendException("SMTP down")).when(emailService)
+                .sendPasswordResetEmail("noreply@example.com", "user@example.com", "user", "http://example.com/link");
+
+        worker.deliver(7L);
+
+        assertEquals(EmailOutbox.Status.FAILED, email.getStatus());
+        assertEquals(0, worker.getStats().retried());
+        assertEquals(1, worker.getStats().expired());
+    }
+
+    @Test
+    void shouldPurgeFinishedMessagesPastRetention() {
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+
+        worker.purge();
+
+        verify(emailOutboxRepository).deleteFinishedBefore(
+                eq(List.of(EmailOutbox.Status.SENT, EmailOutbox.Status.FAILED)),
+                argThat(cutoff -> !cutoff.isBefore(before) && cutoff.isBefore(before.plusMinutes(1))));
+    }
+}
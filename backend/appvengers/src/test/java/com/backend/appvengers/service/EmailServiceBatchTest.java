@@ -0,0 +1,113 @@
+package com.backend.appvengers.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests batch sending over pooled SMTP connections against an in-process SMTP stand-in.
+ */
+class EmailServiceBatchTest {
+
+    private SmtpStandIn smtp;
+    private SmtpTransportPool pool;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new SmtpStandIn();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+        sender.setPort(smtp.port());
+        sender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        sender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "5000");
+
+        pool = new SmtpTransportPool(sender);
+        ReflectionTestUtils.setField(pool, "poolSize", 2);
+        pool.init();
+
+        EmailTemplateEngine engine = new EmailTemplateEngine();
+        engine.init();
+        emailService = new EmailService(sender, engine, pool);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.shutdown();
+        smtp.close();
+    }
+
+    private List<MimeMessage> verificationEmails(String... recipients) throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (String recipient : recipients) {
+            messages.add(emailService.createVerificationEmail("noreply@example.com", recipient,
+                    "Verify your iBudget account", "http://example.com/verify?token=t", "user"));
+        }
+        return messages;
+    }
+
+    @Test
+    void shouldSendManyMessagesPerConnection() throws Exception {
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.addAll(verificationEmails("user" + i + "@example.com"));
+        }
+
+        List<EmailService.SendOutcome> outcomes = emailService.sendBatch(messages);
+
+        assertEquals(20, outcomes.size());
+        assertTrue(outcomes.stream().allMatch(EmailService.SendOutcome::sent));
+        assertEquals(20, smtp.messages().size());
+        assertTrue(smtp.connections() <= 2, "at most pool-size connections, was " + smtp.connections());
+    }
+
+    @Test
+    void shouldRotateConnectionsAtMessageCapWithinBatch() throws Exception {
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 5);
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.addAll(verificationEmails("user" + i + "@example.com"));
+        }
+
+        List<EmailService.SendOutcome> outcomes = emailService.sendBatch(messages);
+
+        assertTrue(outcomes.stream().allMatch(EmailService.SendOutcome::sent));
+        assertEquals(20, smtp.messages().size());
+        // Every connection carries exactly the cap
+        assertEquals(4, smtp.connections());
+        assertEquals(4, pool.getStats().closed());
+    }
+
+    @Test
+    void shouldReportPerMessageFailuresAndKeepSending() throws Exception {
+        List<EmailService.SendOutcome> outcomes = emailService.sendBatch(
+                verificationEmails("a@example.com", "reject@example.com", "b@example.com"));
+
+        assertTrue(outcomes.get(0).sent());
+        assertFalse(outcomes.get(1).sent());
+        assertEquals("reject@example.com", outcomes.get(1).recipients());
+        assertNotNull(outcomes.get(1).error());
+        assertTrue(outcomes.get(2).sent());
+        assertEquals(2, smtp.messages().size());
+    }
+
+    @Test
+    void shouldReuseConnectionsAcrossBatches() throws Exception {
+        emailService.sendBatch(verificationEmails("a@example.com", "b@example.com"));
+        int connectionsAfterFirst = smtp.connections();
+
+        emailService.sendBatch(verificationEmails("c@example.com", "d@example.com"));
+
+        assertEquals(connectionsAfterFirst, smtp.connections());
+        assertTrue(pool.getStats().reused() > 0);
+    }
+}
@@ -0,0 +1,60 @@
+package com.backend.appvengers.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplateEngine compilation, escaping and rendering.
+ */
+class EmailTemplateEngineTest {
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new EmailTemplateEngine();
+        engine.init();
+    }
+
+    @Test
+    void shouldFillEveryPlaceholderOfVerificationTemplate() {
+        String html = engine.render(EmailTemplateEngine.VERIFICATION, Map.of(
+                "name", "Juan",
+                "verificationLink", "http://example.com/verify?token=abc",
+                "resendLink", "http://example.com/resend?email=juan%40example.com"));
+
+        assertTrue(html.contains("Welcome, Juan!"));
+        assertTrue(html.contains("href=\"http://example.com/verify?token=abc\""));
+        assertTrue(html.contains("http://example.com/resend?email=juan%40example.com"));
+        assertFalse(html.contains("${"));
+    }
+
+    @Test
+    void shouldEscapeUserProvidedValues() {
+        String html = engine.render(EmailTemplateEngine.PASSWORD_RESET, Map.of(
+                "name", "<script>alert('x')</script>",
+                "resetLink", "http://example.com/reset?token=a&b=\"c\""));
+
+        assertTrue(html.contains("Hi &lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;,"));
+        assertTrue(html.contains("href=\"http://example.com/reset?token=a&amp;b=&quot;c&quot;\""));
+        assertFalse(html.contains("<script>"));
+    }
+
+    @Test
+    void shouldRejectMissingValue() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.render(EmailTemplateEngine.PASSWORD_RESET, Map.of("name", "Juan")));
+    }
+
+    @Test
+    void shouldKeepTextThatIsNotAPlaceholder() {
+        EmailTemplateEngine.Template template =
+                EmailTemplateEngine.Template.compile("a ${not a name} b ${x} c ${unclosed");
+
+        assertEquals("a ${not a name} b 1 &amp; 2 c ${unclosed", template.render("inline", Map.of("x", "1 & 2"), Map.of()));
+    }
+}
@@ -0,0 +1,159 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.config.CategoryDefaults;
+import com.backend.appvengers.entity.Category;
+import com.backend.appvengers.repository.CategoryRepository;
+import com.backend.appvengers.repository.MonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MonthlyRollupService read fallback and re-keying on category type changes.
+ */
+@ExtendWith(MockitoExtension.class)
+class MonthlyRollupServiceTest {
+
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryDefaults categoryDefaults;
+
+    private MonthlyRollupService monthlyRollupService;
+    private CategoryService categoryService;
+
+    @BeforeEach
+    void setUp() {
+        monthlyRollupService = new MonthlyRollupService(monthlyRollupRepository, mock(TransactionTemplate.class));
+        categoryService = new CategoryService(categoryRepository, categoryDefaults, monthlyRollupService);
+    }
+
+    private static Category category(String type) {
+        Category category = new Category();
+        category.setId(5);
+        category.setUserId(1);
+        category.setName("Freelance");
+        category.setType(type);
+        return category;
+    }
+
+    @Test
+    void shouldRetypeCategoryBucketsWhenTypeChanges() {
+        Category category = category("expense");
+        when(categoryRepository.save(category)).thenReturn(category);
+        when(monthlyRollupRepository.findAnyForShare(1)).thenReturn(Optional.of(1));
+
+        categoryService.updateCategory(category, "Freelance", "income");
+
+        assertEquals("income", category.getType());
+        InOrder inOrder = inOrder(categoryRepository, monthlyRollupRepository);
+        inOrder.verify(categoryRepository).save(category);
+        inOrder.verify(monthlyRollupRepository).retypeCategory(1, 5, "INCOME");
+    }
+
+    @Test
+    void shouldLeaveRollupAloneWhenOnlyRenamed() {
+        Category category = category("expense");
+        when(categoryRepository.save(category)).thenReturn(category);
+
+        categoryService.updateCategory(category, "Side jobs", "EXPENSE");
+
+        assertEquals("Side jobs", category.getName());
+        verifyNoInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void shouldSkipTypeChangeForUserWithoutRollup() {
+        monthlyRollupService.recordCategoryTypeChange(1, 5, "income");
+
+        verify(monthlyRollupRepository, never()).retypeCategory(anyInt(), anyInt(), anyString());
+    }
+
+    @Test
+    void shouldSkipWritesForUserWithoutRollupInsteadOfBuildingIt() {
+        Category category = category("expense");
+        MonthlyRollupService.Contribution added =
+                new MonthlyRollupService.Contribution(category, LocalDate.of(2026, 10, 1), BigDecimal.TEN, true);
+
+        monthlyRollupService.recordChange(1, null, added);
+        monthlyRollupService.recordAdded(1, List.of(added));
+
+        verify(monthlyRollupRepository, times(2)).findAnyForShare(1);
+        verifyNoMoreInteractions(monthlyRollupRepository);
+    }
+
+    @Test
+    void shouldApplyDeltaOnceRollupIsBuilt() {
+        Category category = category("expense");
+        when(monthlyRollupRepository.findAnyForShare(1)).thenReturn(Optional.of(1));
+
+        monthlyRollupService.recordChange(1, null,
+                new MonthlyRollupService.Contribution(category, LocalDate.of(2026, 10, 1), BigDecimal.TEN, true));
+
+        verify(monthlyRollupRepository).upsertDelta(1, 202610, "EXPENSE", 5, BigDecimal.TEN, 1);
+    }
+
+    @Test
+    void shouldBuildMissingRollupsOnlyInBackfill() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        MonthlyRollupService service = new MonthlyRollupService(monthlyRollupRepository, transactionTemplate);
+        ReflectionTestUtils.setField(service, "backfillBatchSize", 10);
+        when(monthlyRollupRepository.findUserIdsWithoutRollup(10)).thenReturn(List.of(1, 2));
+        when(monthlyRollupRepository.existsByUserId(1)).thenReturn(false);
+        // Built by another instance since the lookup
+        when(monthlyRollupRepository.existsByUserId(2)).thenReturn(true);
+
+        service.backfill();
+
+        verify(monthlyRollupRepository).rebuildForUser(1);
+        verify(monthlyRollupRepository, never()).rebuildForUser(2);
+    }
+
+    @Test
+    void shouldReadFromTransactionsWithoutBuildingWhenRollupMissing() {
+        when(monthlyRollupRepository.existsByUserId(1)).thenReturn(false);
+        List<Object[]> live = List.<Object[]>of(new Object[] {"Food", 12.5});
+        when(monthlyRollupRepository.sumByCategoryNameFromTransactions(1, "EXPENSE")).thenReturn(live);
+
+        assertSame(live, monthlyRollupService.getTotalsByCategory(1, "expense"));
+        monthlyRollupService.getMonthlyTotals(1, List.of(YearMonth.of(2026, 10)));
+
+        verify(monthlyRollupRepository).sumByMonthTypeAndCategoryNameFromTransactions(1, List.of(202610));
+        verify(monthlyRollupRepository, never()).rebuildForUser(anyInt());
+    }
+
+    @Test
+    void shouldReadFromRollupOnceBuilt() {
+        when(monthlyRollupRepository.existsByUserId(1)).thenReturn(true);
+
+        monthlyRollupService.getTotalsByCategory(1, "income");
+
+        verify(monthlyRollupRepository).sumByCategoryName(1, "INCOME");
+        verify(monthlyRollupRepository, never()).sumByCategoryNameFromTransactions(anyInt(), anyString());
+    }
+}
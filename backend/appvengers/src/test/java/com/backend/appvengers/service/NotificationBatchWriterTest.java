@@ -0,0 +1,174 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.controller.NotificationWebSocketController;
+import com.backend.appvengers.dto.NotificationKeyRow;
+import com.backend.appvengers.dto.NotificationResponse;
+import com.backend.appvengers.entity.Notification;
+import com.backend.appvengers.entity.Notification.NotificationType;
+import com.backend.appvengers.entity.Notification.Urgency;
+import com.backend.appvengers.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests batch notification writing against an embedded H2 database, with the
+ * existence lookup and the WebSocket broker mocked.
+ */
+class NotificationBatchWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private NotificationRepository notificationRepository;
+    private NotificationWebSocketController webSocketController;
+    private NotificationBatchWriter writer;
+    private TransactionTemplate transactionTemplate;
+
+    record KeyRow(Integer userId, NotificationType type, Integer referenceId, Urgency urgency)
+            implements NotificationKeyRow {
+        public Integer getUserId() { return userId; }
+        public NotificationType getType() { return type; }
+        public Integer getReferenceId() { return referenceId; }
+        public Urgency getUrgency() { return urgency; }
+    }
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tbl_notification (" +
+                "notification_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL, type VARCHAR(50) NOT NULL, " +
+                "urgency VARCHAR(20), title VARCHAR(255) NOT NULL, message VARCHAR(500) NOT NULL, reference_id INT, " +
+                "amount DOUBLE, category VARCHAR(255), is_read BOOLEAN NOT NULL, created_at TIMESTAMP, " +
+                "read_at TIMESTAMP, is_deleted BOOLEAN NOT NULL, deleted_at TIMESTAMP)");
+
+        notificationRepository = mock(NotificationRepository.class);
+        webSocketController = mock(NotificationWebSocketController.class);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        writer = new NotificationBatchWriter(jdbcTemplate, transactionTemplate,
+                notificationRepository, webSocketController);
+        ReflectionTestUtils.setField(writer, "insertSize", 3);
+        ReflectionTestUtils.setField(writer, "pushSize", 2);
+    }
+
+    private static Notification candidate(int userId, NotificationType type, int referenceId, Urgency urgency) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setUrgency(urgency);
+        notification.setTitle("Title");
+        notification.setMessage("Message");
+        notification.setReferenceId(referenceId);
+        notification.setAmount(10.0);
+        notification.setCategory("Food");
+        return notification;
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_notification", Integer.class);
+    }
+
+    @Test
+    void shouldInsertInChunksAndAssignGeneratedIds() {
+        NotificationBatchWriter.Batch batch = writer.begin();
+        for (int i = 1; i <= 7; i++) {
+            batch.add(candidate(i, NotificationType.BUDGET_NEAR_END, 100 + i, Urgency.MEDIUM));
+        }
+
+        assertEquals(7, batch.write());
+
+        assertEquals(7, rowCount());
+        // One existence query per chunk of three
+        verify(notificationRepository, times(3)).findKeys(anyCollection(), anyCollection());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT notification_id FROM tbl_notification ORDER BY notification_id", Long.class);
+        ArgumentCaptor<Map<Integer, List<NotificationResponse>>> pushed = ArgumentCaptor.forClass(Map.class);
+        verify(webSocketController, times(5)).sendNotificationsToUsers(pushed.capture());
+        List<Long> pushedIds = pushed.getAllValues().stream()
+                .flatMap(byUser -> byUser.values().stream())
+                .flatMap(List::stream)
+                .map(NotificationResponse::getId)
+                .toList();
+        assertEquals(ids, pushedIds);
+    }
+
+    @Test
+    void shouldSkipExistingAndDuplicateCandidates() {
+        when(notificationRepository.findKeys(anyCollection(), anyCollection())).thenReturn(List.of(
+                new KeyRow(1, NotificationType.BUDGET_NEAR_END, 10, Urgency.MEDIUM),
+                new KeyRow(2, NotificationType.SAVINGS_DEADLINE, 20, Urgency.LOW)));
+
+        NotificationBatchWriter.Batch batch = writer.begin();
+        batch.add(candidate(1, NotificationType.BUDGET_NEAR_END, 10, Urgency.MEDIUM));  // exists
+        batch.add(candidate(2, NotificationType.SAVINGS_DEADLINE, 20, Urgency.LOW));    // exists at this urgency
+        batch.add(candidate(2, NotificationType.SAVINGS_DEADLINE, 20, Urgency.HIGH));   // new urgency
+        batch.add(candidate(3, NotificationType.SAVINGS_COMPLETED, 30, Urgency.LOW));
+        batch.add(candidate(3, NotificationType.SAVINGS_COMPLETED, 30, Urgency.LOW));   // same pass
+
+        assertEquals(4, batch.size());
+        assertEquals(2, batch.write());
+        assertEquals(2, rowCount());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tbl_notification WHERE type = 'SAVINGS_DEADLINE' AND urgency = 'HIGH'", Integer.class));
+    }
+
+    @Test
+    void shouldKeepNotificationsWhenPushFails() {
+        doThrow(new RuntimeException("broker down")).when(webSocketController).sendNotificationsToUsers(any());
+
+        NotificationBatchWriter.Batch batch = writer.begin();
+        batch.add(candidate(1, NotificationType.BUDGET_WARNING, 10, Urgency.MEDIUM));
+
+        assertEquals(1, batch.write());
+        assertEquals(1, rowCount());
+    }
+
+    @Test
+    void shouldPushOnlyAfterCallerCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            NotificationBatchWriter.Batch batch = writer.begin();
+            batch.add(candidate(1, NotificationType.BUDGET_WARNING, 10, Urgency.MEDIUM));
+            batch.add(candidate(1, NotificationType.BUDGET_EXCEEDED, 10, Urgency.HIGH));
+
+            assertEquals(2, batch.write());
+            verifyNoInteractions(webSocketController);
+        });
+
+        // One message for the user, holding both notifications
+        ArgumentCaptor<Map<Integer, List<NotificationResponse>>> pushed = ArgumentCaptor.forClass(Map.class);
+        verify(webSocketController).sendNotificationsToUsers(pushed.capture());
+        assertEquals(2, pushed.getValue().get(1).size());
+    }
+
+    @Test
+    void shouldNotPushWhenCallerRollsBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            NotificationBatchWriter.Batch batch = writer.begin();
+            batch.add(candidate(1, NotificationType.BUDGET_WARNING, 10, Urgency.MEDIUM));
+            batch.write();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, rowCount());
+        verifyNoInteractions(webSocketController);
+    }
+
+    @Test
+    void shouldDoNothingForEmptyBatch() {
+        assertEquals(0, writer.begin().write());
+        verifyNoInteractions(notificationRepository, webSocketController);
+    }
+}
@@ -0,0 +1,225 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.dto.NotificationDigestRow;
+import com.backend.appvengers.repository.NotificationDigestRunRepository;
+import com.backend.appvengers.repository.NotificationRepository;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationDigestService paging, grouping, batching and run locking.
+ */
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationDigestRunRepository digestRunRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EmailService emailService;
+
+    private NotificationDigestService service;
+
+    private final List<String> bodies = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    record Row(Integer userId, Long notificationId, String email, String username, String title,
+               String message, String urgency, LocalDateTime createdAt) implements NotificationDigestRow {
+        public Integer getUserId() { return userId; }
+        public Long getNotificationId() { return notificationId; }
+        public String getEmail() { return email; }
+        public String getUsername() { return username; }
+        public String getTitle() { return title; }
+        public String getMessage() { return message; }
+        public String getUrgency() { return urgency; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    private static Row row(int userId, long notificationId) {
+        return new Row(userId, notificationId, "user" + userId + "@example.com", "user" + userId,
+                "Budget alert " + notificationId, "Message " + notificationId, "HIGH", LocalDateTime.now());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmailTemplateEngine engine = new EmailTemplateEngine();
+        engine.init();
+        service = new NotificationDigestService(notificationRepository, digestRunRepository, jdbcTemplate,
+                engine, emailService);
+        ReflectionTestUtils.setField(service, "emailFrom", "noreply@example.com");
+        ReflectionTestUtils.setField(service, "frontendUrl", "http://example.com");
+        ReflectionTestUtils.setField(service, "pageSize", 3);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxItems", 2);
+        ReflectionTestUtils.setField(service, "leaseMs", 60_000L);
+        ReflectionTestUtils.setField(service, "retentionDays", 35);
+
+        // The run lock is free unless a test says otherwise
+        lenient().when(digestRunRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(1);
+
+        lenient().when(emailService.createHtmlEmail(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    bodies.add(invocation.getArgument(3));
+                    return mock(MimeMessage.class);
+                });
+        lenient().when(emailService.sendBatch(anyList())).thenAnswer(invocation -> {
+            List<MimeMessage> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            List<EmailService.SendOutcome> outcomes = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes.add(new EmailService.SendOutcome(i, "user@example.com", true, null));
+            }
+            return outcomes;
+        });
+    }
+
+    @Test
+    void shouldSendOneDigestPerUserAcrossPageBoundaries() throws Exception {
+        // User 1's notifications span the first two pages
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(0), eq(0L), eq(3)))
+                .thenReturn(List.of(row(1, 10), row(1, 11), row(1, 12)));
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(1), eq(12L), eq(3)))
+                .thenReturn(List.of(row(1, 13), row(2, 20), row(3, 30)));
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(3), eq(30L), eq(3)))
+                .thenReturn(List.of(row(3, 31)));
+
+        NotificationDigestService.DigestReport report = service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        assertEquals(3, report.users());
+        assertEquals(7, report.notifications());
+        assertEquals(3, report.sent());
+        assertEquals(0, report.failed());
+        verify(notificationRepository, times(3)).findUnreadForDigest(any(), anyString(), anyString(), anyInt(), anyLong(), anyInt());
+        verify(emailService).createHtmlEmail(eq("noreply@example.com"), eq("user1@example.com"),
+                eq("Your iBudget daily summary: 4 unread notifications"), anyString());
+        verify(emailService).createHtmlEmail(anyString(), eq("user2@example.com"), anyString(), anyString());
+        verify(emailService).createHtmlEmail(anyString(), eq("user3@example.com"), anyString(), anyString());
+        // Batches of two, then the remainder
+        assertEquals(List.of(2, 1), batchSizes);
+    }
+
+    @Test
+    void shouldListAtMostMaxItemsAndCountTheRest() throws Exception {
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(0), eq(0L), eq(3)))
+                .thenReturn(List.of(row(1, 10), row(1, 11), row(1, 12)));
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(1), eq(12L), eq(3)))
+                .thenReturn(List.of());
+
+        service.sendDigests(NotificationDigestService.Period.WEEKLY);
+
+        String body = bodies.get(0);
+        assertTrue(body.contains("Budget alert 10"));
+        assertTrue(body.contains("Budget alert 11"));
+        assertFalse(body.contains("Budget alert 12"));
+        assertTrue(body.contains("And 1 more in the app."));
+        assertTrue(body.contains("user1"));
+    }
+
+    @Test
+    void shouldEscapeNotificationText() throws Exception {
+        Row hostile = new Row(1, 10L, "user1@example.com", "user1", "<script>x</script>", "a & b", null, null);
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(0), eq(0L), eq(3)))
+                .thenReturn(List.of(hostile));
+
+        service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        String body = bodies.get(0);
+        assertFalse(body.contains("<script>"));
+        assertTrue(body.contains("&lt;script&gt;x&lt;/script&gt;"));
+        assertTrue(body.contains("a &amp; b"));
+    }
+
+    @Test
+    void shouldSendNothingWhenNoUnreadNotifications() throws Exception {
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), anyInt(), anyLong(), anyInt())).thenReturn(List.of());
+
+        NotificationDigestService.DigestReport report = service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        assertEquals(0, report.users());
+        verify(emailService, never()).sendBatch(anyList());
+    }
+
+    @Test
+    void shouldCountFailedSends() throws Exception {
+        when(notificationRepository.findUnreadForDigest(any(), anyString(), anyString(), eq(0), eq(0L), eq(3)))
+                .thenReturn(List.of(row(1, 10)));
+        when(emailService.sendBatch(anyList())).thenReturn(
+                List.of(new EmailService.SendOutcome(0, "user1@example.com", false, "550 No such user")));
+
+        NotificationDigestService.DigestReport report = service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        assertEquals(0, report.sent());
+        assertEquals(1, report.failed());
+    }
+
+    @Test
+    void shouldRecordDeliveredDigestsAndCompleteTheRun() throws Exception {
+        when(notificationRepository.findUnreadForDigest(any(), eq("DAILY"), anyString(), eq(0), eq(0L), eq(3)))
+                .thenReturn(List.of(row(1, 10), row(2, 20)));
+        when(emailService.sendBatch(anyList())).thenReturn(List.of(
+                new EmailService.SendOutcome(0, "user1@example.com", false, "550 No such user"),
+                new EmailService.SendOutcome(1, "user2@example.com", true, null)));
+
+        service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        // Only the delivered digest is recorded, so user 1 is retried by a later run of the same day
+        ArgumentCaptor<List<Object[]>> recorded = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO tbl_notification_digest"), recorded.capture());
+        assertEquals(1, recorded.getValue().size());
+        assertEquals(2, recorded.getValue().get(0)[0]);
+        assertEquals(LocalDate.now().toString(), recorded.getValue().get(0)[2]);
+        verify(digestRunRepository).complete(eq("DAILY"), eq(LocalDate.now().toString()), anyString(), any());
+    }
+
+    @Test
+    void shouldSkipRunHeldOrCompletedElsewhere() {
+        when(digestRunRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+        when(digestRunRepository.existsByPeriodAndPeriodKey(eq("WEEKLY"), anyString())).thenReturn(true);
+
+        NotificationDigestService.DigestReport report = service.sendDigests(NotificationDigestService.Period.WEEKLY);
+
+        assertEquals(0, report.users());
+        verifyNoInteractions(notificationRepository, emailService);
+        verify(digestRunRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldSkipRunCreatedConcurrentlyByAnotherInstance() {
+        when(digestRunRepository.claim(anyString(), anyString(), anyString(), any(), any())).thenReturn(0);
+        when(digestRunRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        service.sendDigests(NotificationDigestService.Period.DAILY);
+
+        verifyNoInteractions(notificationRepository, emailService);
+    }
+
+    @Test
+    void shouldKeyWeeklyRunsByIsoWeek() {
+        assertEquals("2026-W42", NotificationDigestService.Period.WEEKLY.key(LocalDate.of(2026, 10, 17)));
+        assertEquals("2026-W01", NotificationDigestService.Period.WEEKLY.key(LocalDate.of(2025, 12, 29)));
+        assertEquals("2026-10-17", NotificationDigestService.Period.DAILY.key(LocalDate.of(2026, 10, 17)));
+    }
+}
@@ -189,4 +189,16 @@ class RateLimitServiceTest {
                     .isTrue();
         }
     }
+
+    @Test
+    @DisplayName("Should reuse one probe when rate limiting is disabled")
+    void shouldReuseProbeWhenDisabled() {
+        when(rateLimitConfig.isEnabled()).thenReturn(false);
+        rateLimitService = new RateLimitService(rateLimitConfig);
+
+        ConsumptionProbe first = rateLimitService.tryConsume("a@example.com");
+
+        assertThat(rateLimitService.tryConsume("b@example.com")).isSameAs(first);
+        assertThat(rateLimitService.getActiveBucketCount()).isZero();
+    }
 }
@@ -0,0 +1,112 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.dto.TransactionImportResult;
+import com.backend.appvengers.entity.Category;
+import com.backend.appvengers.repository.CategoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests transaction import validation and partial-failure reporting against an
+ * embedded H2 database, with categories and the rollup mocked.
+ */
+class TransactionImportServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MonthlyRollupService monthlyRollupService;
+    private UserChangeTracker userChangeTracker;
+    private TransactionImportService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE tbl_transaction (" +
+                "transaction_id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id INT NOT NULL, category_id INT, " +
+                "amount DECIMAL(19,2) NOT NULL, description VARCHAR(255), transaction_date DATE, " +
+                "created_at DATE, updated_at DATE)");
+
+        Category food = new Category(1, "Food", "expense");
+        food.setId(7);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findByUserId(1)).thenReturn(List.of(food));
+        monthlyRollupService = mock(MonthlyRollupService.class);
+        userChangeTracker = mock(UserChangeTracker.class);
+
+        service = new TransactionImportService(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                categoryRepository, monthlyRollupService, userChangeTracker, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "maxRows", 100);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tbl_transaction", Integer.class);
+    }
+
+    @Test
+    void shouldRejectRowsWithoutCategoryAndDefaultMissingDates() throws Exception {
+        TransactionImportResult result = service.importTransactions(1, TransactionImportService.Format.CSV, body(
+                "date,amount,description,category\n" +
+                "2026-10-01,12.50,Lunch,Food\n" +
+                ",8.00,Snack,food\n" +
+                "2026-10-02,20.00,Mystery,\n"));
+
+        assertEquals(3, result.totalRows());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(3, result.errors().get(0).row());
+        assertEquals("Category is required", result.errors().get(0).message());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tbl_transaction WHERE category_id IS NULL OR transaction_date IS NULL", Integer.class));
+        assertEquals(LocalDate.now(), jdbcTemplate.queryForObject(
+                "SELECT transaction_date FROM tbl_transaction WHERE description = 'Snack'", LocalDate.class));
+        verify(userChangeTracker).markChanged(1);
+    }
+
+    @Test
+    void shouldReportCommittedBatchesWhenInputBreaksPartWay() throws Exception {
+        TransactionImportResult result = service.importTransactions(1, TransactionImportService.Format.JSON, body(
+                "[{\"date\":\"2026-10-01\",\"amount\":\"1\",\"category\":\"Food\"}," +
+                "{\"date\":\"2026-10-02\",\"amount\":\"2\",\"category\":\"Food\"}," +
+                "{\"date\":\"2026-10-03\",\"amount\":\"3\",\"category\":\"Food\"}," +
+                "{\"date\": oops"));
+
+        // The first batch of two committed; the row buffered after it was not saved
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, rowCount());
+        assertTrue(result.errors().get(result.errors().size() - 1).message().startsWith("Import stopped:"));
+        verify(monthlyRollupService, times(1)).recordAdded(eq(1), anyCollection());
+        verify(userChangeTracker).markChanged(1);
+    }
+
+    @Test
+    void shouldFailWholeRequestWhenNothingWasSaved() {
+        assertThrows(RuntimeException.class, () -> service.importTransactions(1,
+                TransactionImportService.Format.CSV, body("date,description\n2026-10-01,Lunch\n")));
+        verifyNoInteractions(userChangeTracker);
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.appvengers.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserChangeTracker queuing and versioning around transactions.
+ */
+class UserChangeTrackerTest {
+
+    private final UserChangeTracker tracker = new UserChangeTracker();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldQueueImmediatelyOutsideTransaction() {
+        tracker.markChanged(1);
+
+        assertEquals(Set.of(1), tracker.drainChangedUsers());
+        assertEquals(1, tracker.getDataVersion(1));
+    }
+
+    @Test
+    void shouldQueueOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.markChanged(1);
+
+        // Not visible to a scheduler pass while the transaction is open
+        assertTrue(tracker.drainChangedUsers().isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(Set.of(1), tracker.drainChangedUsers());
+        assertEquals(2, tracker.getDataVersion(1));
+    }
+
+    @Test
+    void shouldNotQueueOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.markChanged(1);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(tracker.drainChangedUsers().isEmpty());
+    }
+
+    @Test
+    void shouldKeepVersionsIncreasingWhenUsersShareASlot() {
+        UserChangeTracker small = new UserChangeTracker(4);
+
+        small.bumpVersion(1);
+        long before = small.getDataVersion(1);
+        small.bumpVersion(5);
+
+        // User 5 shares user 1's slot: user 1 looks changed, never older
+        assertTrue(small.getDataVersion(1) > before);
+        assertEquals(small.getDataVersion(1), small.getDataVersion(5));
+        assertEquals(0, small.getDataVersion(2));
+    }
+}
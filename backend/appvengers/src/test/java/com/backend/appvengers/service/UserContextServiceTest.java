@@ -0,0 +1,101 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.dto.TransactionResponse;
+import com.backend.appvengers.dto.UserFinancialContext;
+import com.backend.appvengers.entity.User;
+import com.backend.appvengers.repository.BudgetRepository;
+import com.backend.appvengers.repository.SavingRepository;
+import com.backend.appvengers.repository.TransactionRepository;
+import com.backend.appvengers.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserContextService context assembly.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserContextServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private SavingRepository savingRepository;
+
+    @Mock
+    private BudgetUsageService budgetUsageService;
+
+    @InjectMocks
+    private UserContextService userContextService;
+
+    private static final String TEST_USER_EMAIL = "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(7);
+        user.setUsername("testuser");
+        user.setEmail(TEST_USER_EMAIL);
+        when(userRepository.findByEmail(TEST_USER_EMAIL)).thenReturn(Optional.of(user));
+        when(budgetRepository.findBudgetsWithCategoryByUserId(7)).thenReturn(List.of());
+        when(savingRepository.findActiveSavingsByUserId(7)).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldFoldCategoryTotalsIntoSummary() {
+        when(transactionRepository.sumByTypeAndCategoryName(7)).thenReturn(List.of(
+                new Object[] {"INCOME", "Salary", new BigDecimal("30000.00")},
+                new Object[] {"EXPENSE", "Rent", new BigDecimal("12000.00")},
+                new Object[] {"EXPENSE", "Food", new BigDecimal("4500.50")},
+                new Object[] {"INCOME", "Freelance", new BigDecimal("2500.00")}));
+        when(transactionRepository.findRecentForUser(eq(7), any(Pageable.class))).thenReturn(List.of());
+
+        UserFinancialContext context = userContextService.buildUserContext(TEST_USER_EMAIL);
+
+        assertEquals(new BigDecimal("32500.00"), context.getTotalIncome());
+        assertEquals(new BigDecimal("16500.50"), context.getTotalExpenses());
+        assertEquals(new BigDecimal("15999.50"), context.getRemainingBudget());
+        assertEquals(List.of("Rent", "Food"), context.getExpensesByCategory().stream()
+                .map(UserFinancialContext.CategorySummary::getCategory).toList());
+        assertEquals(List.of("Salary", "Freelance"), context.getIncomeByCategory().stream()
+                .map(UserFinancialContext.CategorySummary::getCategory).toList());
+    }
+
+    @Test
+    void shouldRequestOnlyTheMostRecentTransactions() {
+        when(transactionRepository.sumByTypeAndCategoryName(7)).thenReturn(List.of());
+        when(transactionRepository.findRecentForUser(eq(7), any(Pageable.class))).thenReturn(List.of(
+                new TransactionResponse(2L, new BigDecimal("150.00"), 3, "Food", "expense", "Lunch",
+                        LocalDate.of(2025, 3, 2)),
+                new TransactionResponse(1L, new BigDecimal("99.00"), 3, "Food", "expense", "Undated", null)));
+
+        UserFinancialContext context = userContextService.buildUserContext(TEST_USER_EMAIL);
+
+        verify(transactionRepository).findRecentForUser(eq(7),
+                argThat(p -> p.getPageNumber() == 0 && p.getPageSize() == UserContextService.RECENT_TRANSACTION_LIMIT));
+        assertEquals(BigDecimal.ZERO, context.getTotalIncome());
+        assertEquals(2, context.getRecentTransactions().size());
+        assertEquals("2025-03-02", context.getRecentTransactions().get(0).getDate());
+        assertNull(context.getRecentTransactions().get(1).getDate());
+    }
+}
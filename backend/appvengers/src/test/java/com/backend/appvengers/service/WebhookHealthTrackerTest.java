@@ -0,0 +1,119 @@
+package com.backend.appvengers.service;
+
+import com.backend.appvengers.service.WebhookHealthTracker.CircuitState;
+import com.backend.appvengers.service.WebhookHealthTracker.EndpointStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WebhookHealthTracker circuit state transitions.
+ */
+class WebhookHealthTrackerTest {
+
+    private static final String ENDPOINT = "Primary";
+
+    private WebhookHealthTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new WebhookHealthTracker();
+        ReflectionTestUtils.setField(tracker, "windowSize", 10);
+        ReflectionTestUtils.setField(tracker, "failureRateThreshold", 50.0);
+        ReflectionTestUtils.setField(tracker, "minimumCalls", 4);
+        ReflectionTestUtils.setField(tracker, "openDurationMs", 50L);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        tracker.recordFailure(ENDPOINT);
+        tracker.recordFailure(ENDPOINT);
+        tracker.recordFailure(ENDPOINT);
+
+        assertEquals(CircuitState.CLOSED, tracker.getState(ENDPOINT));
+        assertTrue(tracker.allowRequest(ENDPOINT));
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        // Long enough that the circuit cannot go half-open before the assertions on a slow machine
+        ReflectionTestUtils.setField(tracker, "openDurationMs", 60_000L);
+        tracker.recordSuccess(ENDPOINT, 100);
+        tracker.recordSuccess(ENDPOINT, 120);
+        tracker.recordFailure(ENDPOINT);
+        tracker.recordFailure(ENDPOINT);
+
+        assertEquals(CircuitState.OPEN, tracker.getState(ENDPOINT));
+        assertFalse(tracker.allowRequest(ENDPOINT));
+    }
+
+    @Test
+    void shouldAllowSingleTrialAfterOpenDurationAndCloseOnSuccess() throws InterruptedException {
+        openCircuit();
+        Thread.sleep(80);
+
+        assertTrue(tracker.allowRequest(ENDPOINT));
+        assertEquals(CircuitState.HALF_OPEN, tracker.getState(ENDPOINT));
+        assertFalse(tracker.allowRequest(ENDPOINT), "only one trial call at a time");
+
+        tracker.recordSuccess(ENDPOINT, 90);
+
+        assertEquals(CircuitState.CLOSED, tracker.getState(ENDPOINT));
+        assertTrue(tracker.allowRequest(ENDPOINT));
+    }
+
+    @Test
+    void shouldReopenWhenTrialFails() throws InterruptedException {
+        openCircuit();
+        Thread.sleep(80);
+        assertTrue(tracker.allowRequest(ENDPOINT));
+
+        tracker.recordFailure(ENDPOINT);
+
+        assertEquals(CircuitState.OPEN, tracker.getState(ENDPOINT));
+        assertFalse(tracker.allowRequest(ENDPOINT));
+    }
+
+    @Test
+    void shouldFreeTrialSlotWhenTrialIsCancelled() throws InterruptedException {
+        openCircuit();
+        Thread.sleep(80);
+        assertTrue(tracker.allowRequest(ENDPOINT));
+
+        tracker.recordCancelled(ENDPOINT);
+
+        assertTrue(tracker.allowRequest(ENDPOINT));
+        assertEquals(CircuitState.HALF_OPEN, tracker.getState(ENDPOINT));
+    }
+
+    @Test
+    void shouldReportEndpointStatus() {
+        tracker.recordSuccess(ENDPOINT, 100);
+        tracker.recordSuccess(ENDPOINT, 300);
+        tracker.recordFailure("Fallback");
+
+        List<EndpointStatus> statuses = tracker.snapshot();
+
+        assertEquals(2, statuses.size());
+        assertEquals("Fallback", statuses.get(0).endpoint());
+        assertEquals(100.0, statuses.get(0).failureRate());
+        EndpointStatus primary = statuses.get(1);
+        assertEquals(CircuitState.CLOSED, primary.state());
+        assertEquals(2, primary.calls());
+        assertEquals(0.0, primary.failureRate());
+        assertEquals(100L, primary.p50LatencyMs());
+        assertEquals(300L, primary.p95LatencyMs());
+        assertNull(primary.retryAt());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            tracker.recordFailure(ENDPOINT);
+        }
+        assertEquals(CircuitState.OPEN, tracker.getState(ENDPOINT));
+    }
+}
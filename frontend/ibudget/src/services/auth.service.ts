@@ -166,8 +166,17 @@ export class AuthService {
       currentPassword: string;
       newPassword: string;
       confirmPassword: string
-    }): Observable<ApiResponse> {
-    return this.http.post<ApiResponse>(`${this.apiUrl}/change-password`, data);
+    }): Observable<ApiResponse<AuthData>> {
+    return this.http.post<ApiResponse<AuthData>>(`${this.apiUrl}/change-password`, data)
+      .pipe(
+        tap((res: ApiResponse<AuthData>) => {
+          // Changing the password signs out every existing token, including this one;
+          // keep the session alive with the replacement token
+          if (res.success && res.data?.token) {
+            localStorage.setItem('iBudget_authToken', res.data.token);
+          }
+        })
+      );
   }
 
   /**
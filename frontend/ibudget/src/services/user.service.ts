@@ -1,8 +1,8 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { Observable, tap } from 'rxjs';
 import { environment } from '../environments/environment';
-import { ApiResponse, DeactivateAccountRequest, DeleteAccountRequest } from '../models/user.model';
+import { ApiResponse, AuthData, DeactivateAccountRequest, DeleteAccountRequest } from '../models/user.model';
 
 @Injectable({
     providedIn: 'root'
@@ -16,8 +16,19 @@ export class UserService {
         username: string;
         email: string;
         password?: string;  // Password is now optional
-    }): Observable<ApiResponse> {
-        return this.http.put<ApiResponse>(`${this.apiUrl}/update`, data);
+    }): Observable<ApiResponse<AuthData>> {
+        return this.http.put<ApiResponse<AuthData>>(`${this.apiUrl}/update`, data).pipe(
+            tap((res: ApiResponse<AuthData>) => {
+                // An email change signs out every existing token, including this one;
+                // keep the session alive with the replacement token
+                if (res.success && res.data?.token) {
+                    localStorage.setItem('iBudget_authToken', res.data.token);
+                }
+                if (res.success && res.data?.username) {
+                    localStorage.setItem('iBudget_username', res.data.username);
+                }
+            })
+        );
     }
 
     deactivateAccount(data: DeactivateAccountRequest): Observable<ApiResponse> {
@@ -49,7 +49,17 @@ export class WebSocketService implements OnDestroy {
     this.client = new Client({
       // Use SockJS for browser compatibility
       webSocketFactory: () => new SockJS(environment.wsUrl),
-      
+
+      // The server authenticates the STOMP CONNECT with the JWT and only allows
+      // subscribing to this user's destinations. Read it on every (re)connect
+      // so a refreshed token is picked up.
+      beforeConnect: () => {
+        const token = localStorage.getItem('iBudget_authToken');
+        if (this.client) {
+          this.client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+        }
+      },
+
       // Debug logging (disable in production)
       debug: (str) => {
         if (!environment.production) {
@@ -109,16 +119,18 @@ export class WebSocketService implements OnDestroy {
     if (!this.client) return;
 
     // Subscribe to user-specific notifications
-    // Using /topic/user/{userId}/notifications which works with simple broker
+    // Using /topic/user/{userId}/notifications which works with simple broker.
+    // Generated notifications arrive as one array per batch; single sends as an object.
     this.notificationSubscription = this.client.subscribe(
       `/topic/user/${userId}/notifications`,
       (message: IMessage) => {
         try {
-          const notification: Notification = JSON.parse(message.body);
+          const payload: Notification | Notification[] = JSON.parse(message.body);
+          const notifications = Array.isArray(payload) ? payload : [payload];
           if (!environment.production) {
-            console.log('📬 Received notification via WebSocket:', notification.title);
+            console.log(`📬 Received ${notifications.length} notification(s) via WebSocket`);
           }
-          this.notificationSubject.next(notification);
+          notifications.forEach(notification => this.notificationSubject.next(notification));
         } catch (error) {
           console.error('❌ Error parsing notification:', error);
         }